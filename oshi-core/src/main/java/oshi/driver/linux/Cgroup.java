@@ -0,0 +1,159 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.driver.linux;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import oshi.annotation.concurrent.ThreadSafe;
+import oshi.util.FileUtil;
+import oshi.util.ParseUtil;
+import oshi.util.platform.linux.ProcPath;
+
+/**
+ * Utility to read control group (cgroup) membership from {@code /proc/[pid]/cgroup} and cgroup v2 statistics from the
+ * unified hierarchy, usually mounted at {@code /sys/fs/cgroup}.
+ */
+@ThreadSafe
+public final class Cgroup {
+
+    /**
+     * The mount point of the unified (v2) hierarchy: {@code /sys/fs/cgroup} on cgroup v2 systems,
+     * {@code /sys/fs/cgroup/unified} on hybrid systems, or an empty string if there is none.
+     */
+    public static final String UNIFIED_ROOT = queryUnifiedRoot();
+
+    private static final int CONTAINER_ID_LENGTH = 64;
+
+    private Cgroup() {
+    }
+
+    private static String queryUnifiedRoot() {
+        if (new File("/sys/fs/cgroup/cgroup.controllers").exists()) {
+            return "/sys/fs/cgroup";
+        }
+        if (new File("/sys/fs/cgroup/unified/cgroup.controllers").exists()) {
+            return "/sys/fs/cgroup/unified";
+        }
+        return "";
+    }
+
+    /**
+     * Reads the path of a process's cgroup in the unified hierarchy.
+     *
+     * @param pid The process ID
+     * @return The path relative to {@link #UNIFIED_ROOT}, beginning with {@code /}, or an empty string if the file
+     *         could not be read or has no unified hierarchy entry
+     */
+    public static String queryPath(int pid) {
+        return parsePath(FileUtil.readFile(ProcPath.PROC + '/' + pid + "/cgroup", false));
+    }
+
+    /**
+     * Parses the unified hierarchy entry of the lines of a {@code /proc/[pid]/cgroup} file. This entry has hierarchy
+     * ID 0 and no controllers, as {@code 0::/path}.
+     *
+     * @param lines The lines of the file
+     * @return The path, or an empty string if there is no unified hierarchy entry
+     */
+    public static String parsePath(List<String> lines) {
+        for (String line : lines) {
+            if (line.startsWith("0::")) {
+                return line.substring(3);
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Extracts a container ID from a cgroup path, as created by Docker, Podman, containerd and CRI-O with either the
+     * {@code cgroupfs} or {@code systemd} cgroup driver, for example {@code /docker/<id>},
+     * {@code /system.slice/docker-<id>.scope} or {@code /kubepods.slice/.../cri-containerd-<id>.scope}.
+     *
+     * @param path A cgroup path
+     * @return The 64 hexadecimal character ID of the innermost container, or an empty string if the path is not in a
+     *         container
+     */
+    public static String parseContainerId(String path) {
+        // Search path components from the last, for a run of exactly 64 hex digits
+        int end = path.length();
+        while (end > 0) {
+            int start = path.lastIndexOf('/', end - 1) + 1;
+            int run = 0;
+            for (int i = start; i <= end; i++) {
+                if (i < end && Character.digit(path.charAt(i), 16) >= 0) {
+                    run++;
+                } else {
+                    if (run == CONTAINER_ID_LENGTH) {
+                        return path.substring(i - run, i);
+                    }
+                    run = 0;
+                }
+            }
+            end = start - 1;
+        }
+        return "";
+    }
+
+    /**
+     * Reads a flat keyed file of a cgroup, such as {@code cpu.stat}, in which each line is a key and a value separated
+     * by a space.
+     *
+     * @param path The cgroup path relative to {@link #UNIFIED_ROOT}
+     * @param file The file name
+     * @return A map of keys to values, empty if the file could not be read
+     */
+    public static Map<String, Long> queryFlatKeyed(String path, String file) {
+        Map<String, Long> values = new HashMap<>();
+        for (String line : FileUtil.readFile(UNIFIED_ROOT + path + '/' + file, false)) {
+            int space = line.indexOf(' ');
+            if (space > 0) {
+                values.put(line.substring(0, space), ParseUtil.parseLongOrDefault(line.substring(space + 1), 0L));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Reads a nested keyed file of a cgroup, such as {@code io.stat}, in which each line is a device followed by
+     * {@code key=value} pairs, summing the values of each key over all devices.
+     *
+     * @param path The cgroup path relative to {@link #UNIFIED_ROOT}
+     * @param file The file name
+     * @return A map of keys to totals, empty if the file could not be read
+     */
+    public static Map<String, Long> queryNestedKeyedTotals(String path, String file) {
+        Map<String, Long> totals = new HashMap<>();
+        for (String line : FileUtil.readFile(UNIFIED_ROOT + path + '/' + file, false)) {
+            String[] split = ParseUtil.whitespaces.split(line);
+            // The first token is the device
+            for (int i = 1; i < split.length; i++) {
+                int eq = split[i].indexOf('=');
+                if (eq > 0) {
+                    totals.merge(split[i].substring(0, eq),
+                            ParseUtil.parseLongOrDefault(split[i].substring(eq + 1), 0L), Long::sum);
+                }
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Reads a single value file of a cgroup, such as {@code memory.current}.
+     *
+     * @param path The cgroup path relative to {@link #UNIFIED_ROOT}
+     * @param file The file name
+     * @return The value, {@link Long#MAX_VALUE} if it is {@code max}, or -1 if the file could not be read
+     */
+    public static long querySingleValue(String path, String file) {
+        String value = FileUtil.getStringFromFile(UNIFIED_ROOT + path + '/' + file).trim();
+        if ("max".equals(value)) {
+            return Long.MAX_VALUE;
+        }
+        return ParseUtil.parseLongOrDefault(value, -1L);
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.driver.linux;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import oshi.annotation.concurrent.ThreadSafe;
+import oshi.hardware.CentralProcessor.FrequencyScaling;
+import oshi.util.Constants;
+import oshi.util.ProcScanner;
+
+/**
+ * Reads the frequencies of each logical processor from the {@code cpufreq} directories in sysfs.
+ * <p>
+ * The file for each processor is resolved once, when an instance is created, so a refresh is a loop of small reads
+ * into a reused per-thread buffer with no directory enumeration. On machines with many logical processors the reads
+ * are split across the {@link ProcScanner}, so they run in parallel if {@code oshi.os.linux.procfs.workers} allows.
+ * <p>
+ * Processors which are offline or have no {@code cpufreq} directory when the instance is created report no frequency.
+ */
+@ThreadSafe
+public final class CpuFrequency {
+
+    // Values are a number or a word followed by a newline
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[64]);
+
+    private final int logicalProcessorCount;
+    // The cpufreq directory of each processor, or null if there is none
+    private final String[] cpuFreqPaths;
+    // The readable current frequency file of each processor, or null if there is none
+    private final String[] curFreqPaths;
+    private final boolean available;
+
+    /**
+     * Resolves the {@code cpufreq} files of each logical processor under {@link Constants#SYSFS_CPU_PATH}.
+     *
+     * @param logicalProcessorCount The number of logical processors
+     */
+    public CpuFrequency(int logicalProcessorCount) {
+        this(Constants.SYSFS_CPU_PATH, logicalProcessorCount);
+    }
+
+    /**
+     * Resolves the {@code cpufreq} files of each logical processor under a directory.
+     *
+     * @param cpuPath               The directory containing the {@code cpuN} directories, ending in a separator
+     * @param logicalProcessorCount The number of logical processors
+     */
+    public CpuFrequency(String cpuPath, int logicalProcessorCount) {
+        this.logicalProcessorCount = logicalProcessorCount;
+        this.cpuFreqPaths = new String[logicalProcessorCount];
+        this.curFreqPaths = new String[logicalProcessorCount];
+        boolean found = false;
+        for (int cpu = 0; cpu < logicalProcessorCount; cpu++) {
+            String dir = cpuPath + "cpu" + cpu + "/cpufreq/";
+            if (new File(dir).isDirectory()) {
+                this.cpuFreqPaths[cpu] = dir;
+                // The hardware value usually requires root, so prefer the kernel's estimate
+                if (new File(dir + "scaling_cur_freq").canRead()) {
+                    this.curFreqPaths[cpu] = dir + "scaling_cur_freq";
+                } else if (new File(dir + "cpuinfo_cur_freq").canRead()) {
+                    this.curFreqPaths[cpu] = dir + "cpuinfo_cur_freq";
+                }
+                found |= this.curFreqPaths[cpu] != null;
+            }
+        }
+        this.available = found;
+    }
+
+    /**
+     * Tests whether the current frequency of any processor can be read.
+     *
+     * @return True if at least one current frequency file was found
+     */
+    public boolean isAvailable() {
+        return this.available;
+    }
+
+    /**
+     * Reads the current frequency of each logical processor.
+     *
+     * @param freqs An array of at least the number of logical processors to fill with the frequency of each, in Hz,
+     *              or 0 if not available
+     * @return The highest frequency read, in Hz, or 0 if none could be read
+     */
+    public long queryCurrentFreq(long[] freqs) {
+        if (freqs.length < this.logicalProcessorCount) {
+            throw new IllegalArgumentException("Array length " + freqs.length + " is less than the processor count "
+                    + this.logicalProcessorCount);
+        }
+        if (!this.available) {
+            return 0L;
+        }
+        ProcScanner.get().forEachRange(this.logicalProcessorCount, (range, from, to) -> {
+            byte[] buf = BUFFER.get();
+            for (int cpu = from; cpu < to; cpu++) {
+                String path = this.curFreqPaths[cpu];
+                // Values are in kHz
+                freqs[cpu] = path == null ? 0L : Math.max(0L, readLong(path, buf)) * 1000L;
+            }
+        });
+        long max = 0L;
+        for (int cpu = 0; cpu < this.logicalProcessorCount; cpu++) {
+            max = Math.max(max, freqs[cpu]);
+        }
+        return max;
+    }
+
+    /**
+     * Reads the scaling limits and governor of each logical processor with a {@code cpufreq} directory.
+     *
+     * @return An unmodifiable list of the scaling of each processor, in order of processor number
+     */
+    public List<FrequencyScaling> queryFrequencyScaling() {
+        FrequencyScaling[] scaling = new FrequencyScaling[this.logicalProcessorCount];
+        ProcScanner.get().forEachRange(this.logicalProcessorCount, (range, from, to) -> {
+            byte[] buf = BUFFER.get();
+            for (int cpu = from; cpu < to; cpu++) {
+                String dir = this.cpuFreqPaths[cpu];
+                if (dir != null) {
+                    long min = readLong(dir + "scaling_min_freq", buf);
+                    long max = readLong(dir + "scaling_max_freq", buf);
+                    int len = read(dir + "scaling_governor", buf);
+                    scaling[cpu] = new FrequencyScaling(cpu, min < 0L ? -1L : min * 1000L,
+                            max < 0L ? -1L : max * 1000L,
+                            len > 0 ? new String(buf, 0, len, StandardCharsets.US_ASCII).trim() : "");
+                }
+            }
+        });
+        List<FrequencyScaling> list = new ArrayList<>(this.logicalProcessorCount);
+        for (FrequencyScaling s : scaling) {
+            if (s != null) {
+                list.add(s);
+            }
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Reads a small file into the buffer.
+     *
+     * @return The number of bytes read, or -1 if the file could not be read
+     */
+    private static int read(String path, byte[] buf) {
+        try (InputStream in = new FileInputStream(path)) {
+            int len = 0;
+            int n;
+            while (len < buf.length && (n = in.read(buf, len, buf.length - len)) > 0) {
+                len += n;
+            }
+            return len;
+        } catch (IOException | SecurityException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Reads a file containing a decimal number.
+     *
+     * @return The number, or -1 if the file could not be read or does not begin with a number
+     */
+    private static long readLong(String path, byte[] buf) {
+        int len = read(path, buf);
+        if (len <= 0 || buf[0] < '0' || buf[0] > '9') {
+            return -1L;
+        }
+        long value = 0L;
+        for (int i = 0; i < len && buf[i] >= '0' && buf[i] <= '9'; i++) {
+            value = value * 10 + buf[i] - '0';
+        }
+        return value;
+    }
+}
@@ -0,0 +1,462 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.driver.linux;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import oshi.annotation.concurrent.Immutable;
+import oshi.annotation.concurrent.ThreadSafe;
+import oshi.util.platform.linux.ProcPath;
+
+/**
+ * Utility to read Pressure Stall Information (PSI) from {@code /proc/pressure} and the {@code *.pressure} files of
+ * cgroups in the unified hierarchy.
+ * <p>
+ * Unlike load average or CPU usage, pressure measures the share of time in which tasks were stalled waiting for a
+ * resource. The {@code some} line counts time in which at least one task was stalled, and the {@code full} line time in
+ * which all non-idle tasks were stalled at once. Each line has running averages over 10, 60 and 300 seconds, as
+ * percentages, and the total stall time in microseconds.
+ * <p>
+ * Each read opens the file, creating a {@link FileInputStream} and the path string, but the contents are parsed from a
+ * reused per-thread buffer directly into the primitive fields of the result, so the files can be polled often.
+ * Requires Linux 4.20 or later with PSI enabled.
+ * <p>
+ * PSI triggers, which notify a listener when stall time exceeds a threshold within a window, are not supported, as
+ * they must be registered on a file descriptor which is then waited on with {@code poll(2)}. Poll the files instead.
+ */
+@ThreadSafe
+public final class PressureStall {
+
+    // Each file is at most two lines of about 60 bytes
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[256]);
+
+    private static final byte[] SOME = { 's', 'o', 'm', 'e', ' ' };
+    private static final byte[] FULL = { 'f', 'u', 'l', 'l', ' ' };
+
+    // Keys of the values on each line
+    private static final int AVG10 = 0;
+    private static final int AVG60 = 1;
+    private static final int AVG300 = 2;
+    private static final int TOTAL = 3;
+
+    /**
+     * A resource which tasks may stall on.
+     */
+    public enum Resource {
+        /**
+         * Waiting for a processor. The system-wide {@code full} line is always zero.
+         */
+        CPU("cpu"),
+        /**
+         * Waiting for memory, including reclaim and refaults.
+         */
+        MEMORY("memory"),
+        /**
+         * Waiting for block I/O.
+         */
+        IO("io"),
+        /**
+         * Processing interrupts, which only has a {@code full} line. Requires Linux 6.1 or later with
+         * {@code CONFIG_IRQ_TIME_ACCOUNTING}.
+         */
+        IRQ("irq");
+
+        private final String fileName;
+
+        Resource(String fileName) {
+            this.fileName = fileName;
+        }
+
+        /**
+         * Gets the name of the resource's file, which is also the prefix of the cgroup file.
+         *
+         * @return The file name
+         */
+        public String getFileName() {
+            return this.fileName;
+        }
+    }
+
+    private PressureStall() {
+    }
+
+    /**
+     * Reads the system-wide pressure of a resource from {@code /proc/pressure}.
+     *
+     * @param resource The resource
+     * @return The pressure, which is not available if the file could not be read
+     */
+    public static Pressure queryPressure(Resource resource) {
+        return read(ProcPath.PRESSURE + resource.getFileName());
+    }
+
+    /**
+     * Reads the pressure of a resource within a cgroup, from its {@code [resource].pressure} file.
+     *
+     * @param path     The cgroup path relative to {@link Cgroup#UNIFIED_ROOT}, such as returned by
+     *                 {@link Cgroup#queryPath(int)}
+     * @param resource The resource
+     * @return The pressure, which is not available if there is no unified hierarchy or the file could not be read
+     */
+    public static Pressure queryCgroupPressure(String path, Resource resource) {
+        if (Cgroup.UNIFIED_ROOT.isEmpty()) {
+            return parse(new byte[0], 0, System.nanoTime());
+        }
+        return read(Cgroup.UNIFIED_ROOT + path + '/' + resource.getFileName() + ".pressure");
+    }
+
+    /**
+     * Parses the contents of a pressure file.
+     *
+     * @param buf       The contents of the file
+     * @param len       The number of valid bytes in {@code buf}
+     * @param timestamp The value of {@link System#nanoTime()} when the file was read
+     * @return The pressure
+     */
+    public static Pressure parse(byte[] buf, int len, long timestamp) {
+        double someAvg10 = -1d;
+        double someAvg60 = -1d;
+        double someAvg300 = -1d;
+        long someTotal = -1L;
+        double fullAvg10 = -1d;
+        double fullAvg60 = -1d;
+        double fullAvg300 = -1d;
+        long fullTotal = -1L;
+        int i = 0;
+        while (i < len) {
+            boolean some = startsWith(buf, len, i, SOME);
+            if (some || startsWith(buf, len, i, FULL)) {
+                // Each line is a series of key=value pairs separated by spaces
+                i += SOME.length;
+                while (i < len && buf[i] != '\n') {
+                    int key = i;
+                    while (i < len && buf[i] != '=' && buf[i] != '\n') {
+                        i++;
+                    }
+                    if (i >= len || buf[i] != '=') {
+                        break;
+                    }
+                    int keyLen = i - key;
+                    int start = ++i;
+                    while (i < len && buf[i] != ' ' && buf[i] != '\n') {
+                        i++;
+                    }
+                    switch (field(buf, key, keyLen)) {
+                    case AVG10:
+                        if (some) {
+                            someAvg10 = parseDecimal(buf, start, i);
+                        } else {
+                            fullAvg10 = parseDecimal(buf, start, i);
+                        }
+                        break;
+                    case AVG60:
+                        if (some) {
+                            someAvg60 = parseDecimal(buf, start, i);
+                        } else {
+                            fullAvg60 = parseDecimal(buf, start, i);
+                        }
+                        break;
+                    case AVG300:
+                        if (some) {
+                            someAvg300 = parseDecimal(buf, start, i);
+                        } else {
+                            fullAvg300 = parseDecimal(buf, start, i);
+                        }
+                        break;
+                    case TOTAL:
+                        if (some) {
+                            someTotal = parseWhole(buf, start, i);
+                        } else {
+                            fullTotal = parseWhole(buf, start, i);
+                        }
+                        break;
+                    default:
+                        break;
+                    }
+                    while (i < len && buf[i] == ' ') {
+                        i++;
+                    }
+                }
+            }
+            i = nextLine(buf, len, i);
+        }
+        return new Pressure(timestamp, someAvg10, someAvg60, someAvg300, someTotal, fullAvg10, fullAvg60, fullAvg300,
+                fullTotal);
+    }
+
+    private static Pressure read(String path) {
+        byte[] buf = BUFFER.get();
+        int len = 0;
+        try (InputStream in = new FileInputStream(path)) {
+            int n;
+            while (len < buf.length && (n = in.read(buf, len, buf.length - len)) > 0) {
+                len += n;
+            }
+        } catch (IOException | SecurityException e) {
+            len = 0;
+        }
+        return parse(buf, len, System.nanoTime());
+    }
+
+    /**
+     * Identifies the key of a {@code key=value} pair.
+     *
+     * @return One of {@link #AVG10}, {@link #AVG60}, {@link #AVG300} or {@link #TOTAL}, or -1 for an unknown key
+     */
+    private static int field(byte[] buf, int key, int keyLen) {
+        if (keyLen == 5 && buf[key] == 't') {
+            return TOTAL;
+        }
+        if (keyLen < 5 || buf[key] != 'a') {
+            return -1;
+        }
+        switch (buf[key + 3]) {
+        case '1':
+            return AVG10;
+        case '6':
+            return AVG60;
+        case '3':
+            return AVG300;
+        default:
+            return -1;
+        }
+    }
+
+    /**
+     * Parses a non-negative integer, ignoring anything after the digits.
+     */
+    private static long parseWhole(byte[] buf, int from, int to) {
+        long whole = 0L;
+        for (int i = from; i < to && buf[i] >= '0' && buf[i] <= '9'; i++) {
+            whole = whole * 10 + buf[i] - '0';
+        }
+        return whole;
+    }
+
+    /**
+     * Parses a non-negative decimal such as {@code 0.25}. Averages are written with two decimal places.
+     */
+    private static double parseDecimal(byte[] buf, int from, int to) {
+        int i = from;
+        long whole = 0L;
+        for (; i < to && buf[i] >= '0' && buf[i] <= '9'; i++) {
+            whole = whole * 10 + buf[i] - '0';
+        }
+        long fraction = 0L;
+        long scale = 1L;
+        if (i < to && buf[i] == '.') {
+            for (i++; i < to && buf[i] >= '0' && buf[i] <= '9'; i++) {
+                fraction = fraction * 10 + buf[i] - '0';
+                scale *= 10;
+            }
+        }
+        return whole + (double) fraction / scale;
+    }
+
+    private static int nextLine(byte[] buf, int len, int i) {
+        while (i < len && buf[i] != '\n') {
+            i++;
+        }
+        return i + 1;
+    }
+
+    private static boolean startsWith(byte[] buf, int len, int i, byte[] prefix) {
+        if (i + prefix.length > len) {
+            return false;
+        }
+        for (int j = 0; j < prefix.length; j++) {
+            if (buf[i + j] != prefix[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The pressure of one resource at one point in time. Averages are percentages between 0 and 100, or -1 if not
+     * available; totals are microseconds, or -1 if not available.
+     */
+    @Immutable
+    public static final class Pressure {
+
+        private final long timestamp;
+        private final double someAvg10;
+        private final double someAvg60;
+        private final double someAvg300;
+        private final long someTotal;
+        private final double fullAvg10;
+        private final double fullAvg60;
+        private final double fullAvg300;
+        private final long fullTotal;
+
+        private Pressure(long timestamp, double someAvg10, double someAvg60, double someAvg300, long someTotal,
+                double fullAvg10, double fullAvg60, double fullAvg300, long fullTotal) {
+            this.timestamp = timestamp;
+            this.someAvg10 = someAvg10;
+            this.someAvg60 = someAvg60;
+            this.someAvg300 = someAvg300;
+            this.someTotal = someTotal;
+            this.fullAvg10 = fullAvg10;
+            this.fullAvg60 = fullAvg60;
+            this.fullAvg300 = fullAvg300;
+            this.fullTotal = fullTotal;
+        }
+
+        /**
+         * Tests whether either line was read.
+         *
+         * @return True if the {@code some} or {@code full} total is available
+         */
+        public boolean isAvailable() {
+            return this.someTotal >= 0L || this.fullTotal >= 0L;
+        }
+
+        /**
+         * Gets the value of {@link System#nanoTime()} when the file was read.
+         *
+         * @return The timestamp in nanoseconds
+         */
+        public long getTimestamp() {
+            return this.timestamp;
+        }
+
+        /**
+         * Gets the share of the last 10 seconds in which at least one task was stalled.
+         *
+         * @return The percentage, or -1 if not available
+         */
+        public double getSomeAvg10() {
+            return this.someAvg10;
+        }
+
+        /**
+         * Gets the share of the last 60 seconds in which at least one task was stalled.
+         *
+         * @return The percentage, or -1 if not available
+         */
+        public double getSomeAvg60() {
+            return this.someAvg60;
+        }
+
+        /**
+         * Gets the share of the last 300 seconds in which at least one task was stalled.
+         *
+         * @return The percentage, or -1 if not available
+         */
+        public double getSomeAvg300() {
+            return this.someAvg300;
+        }
+
+        /**
+         * Gets the total time in which at least one task was stalled.
+         *
+         * @return The time in microseconds, or -1 if not available
+         */
+        public long getSomeTotal() {
+            return this.someTotal;
+        }
+
+        /**
+         * Gets the share of the last 10 seconds in which all non-idle tasks were stalled.
+         *
+         * @return The percentage, or -1 if not available
+         */
+        public double getFullAvg10() {
+            return this.fullAvg10;
+        }
+
+        /**
+         * Gets the share of the last 60 seconds in which all non-idle tasks were stalled.
+         *
+         * @return The percentage, or -1 if not available
+         */
+        public double getFullAvg60() {
+            return this.fullAvg60;
+        }
+
+        /**
+         * Gets the share of the last 300 seconds in which all non-idle tasks were stalled.
+         *
+         * @return The percentage, or -1 if not available
+         */
+        public double getFullAvg300() {
+            return this.fullAvg300;
+        }
+
+        /**
+         * Gets the total time in which all non-idle tasks were stalled.
+         *
+         * @return The time in microseconds, or -1 if not available
+         */
+        public long getFullTotal() {
+            return this.fullTotal;
+        }
+
+        /**
+         * Gets the time in which at least one task was stalled since an earlier reading.
+         *
+         * @param previous An earlier reading of the same file
+         * @return The time in microseconds, or -1 if either total is not available
+         */
+        public long getSomeTotalDelta(Pressure previous) {
+            return delta(this.someTotal, previous.someTotal);
+        }
+
+        /**
+         * Gets the time in which all non-idle tasks were stalled since an earlier reading.
+         *
+         * @param previous An earlier reading of the same file
+         * @return The time in microseconds, or -1 if either total is not available
+         */
+        public long getFullTotalDelta(Pressure previous) {
+            return delta(this.fullTotal, previous.fullTotal);
+        }
+
+        /**
+         * Gets the share of the time since an earlier reading in which at least one task was stalled. Unlike the
+         * running averages, this covers exactly the interval between the readings.
+         *
+         * @param previous An earlier reading of the same file
+         * @return The share between 0 and 1, or -1 if either total is not available or no time has passed
+         */
+        public double getSomeStallRatio(Pressure previous) {
+            return ratio(getSomeTotalDelta(previous), this.timestamp - previous.timestamp);
+        }
+
+        /**
+         * Gets the share of the time since an earlier reading in which all non-idle tasks were stalled.
+         *
+         * @param previous An earlier reading of the same file
+         * @return The share between 0 and 1, or -1 if either total is not available or no time has passed
+         */
+        public double getFullStallRatio(Pressure previous) {
+            return ratio(getFullTotalDelta(previous), this.timestamp - previous.timestamp);
+        }
+
+        private static long delta(long total, long previousTotal) {
+            if (total < 0L || previousTotal < 0L) {
+                return -1L;
+            }
+            // Totals only decrease if a cgroup is recreated at the same path
+            return Math.max(0L, total - previousTotal);
+        }
+
+        private static double ratio(long deltaMicros, long elapsedNanos) {
+            if (deltaMicros < 0L || elapsedNanos <= 0L) {
+                return -1d;
+            }
+            return Math.min(1d, deltaMicros * 1000d / elapsedNanos);
+        }
+
+        @Override
+        public String toString() {
+            return "Pressure [some avg10=" + someAvg10 + " avg60=" + someAvg60 + " avg300=" + someAvg300 + " total="
+                    + someTotal + ", full avg10=" + fullAvg10 + " avg60=" + fullAvg60 + " avg300=" + fullAvg300
+                    + " total=" + fullTotal + "]";
+        }
+    }
+}
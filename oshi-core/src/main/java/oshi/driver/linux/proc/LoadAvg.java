@@ -0,0 +1,35 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.driver.linux.proc;
+
+import oshi.annotation.concurrent.ThreadSafe;
+import oshi.util.FileUtil;
+import oshi.util.ParseUtil;
+import oshi.util.platform.linux.ProcPath;
+
+/**
+ * Utility to read scheduler statistics from {@code /proc/loadavg}
+ */
+@ThreadSafe
+public final class LoadAvg {
+
+    private LoadAvg() {
+    }
+
+    /**
+     * Gets the number of kernel scheduling entities, processes and threads, that currently exist, from the fourth
+     * field of {@code /proc/loadavg}, formatted as {@code running/total}.
+     *
+     * @return The total number of scheduling entities, or -1 if not available
+     */
+    public static int queryEntityCount() {
+        String[] split = ParseUtil.whitespaces.split(FileUtil.getStringFromFile(ProcPath.LOADAVG).trim());
+        if (split.length < 4) {
+            return -1;
+        }
+        int slash = split[3].indexOf('/');
+        return slash < 0 ? -1 : ParseUtil.parseIntOrDefault(split[3].substring(slash + 1), -1);
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.driver.linux.proc;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import oshi.annotation.concurrent.Immutable;
+import oshi.hardware.CentralProcessor.TickType;
+import oshi.util.platform.linux.ProcPath;
+
+/**
+ * The counters of {@code /proc/stat} at one point in time.
+ * <p>
+ * The file is read once into a reused per-thread buffer and parsed in place, without splitting it into lines or
+ * strings. All of the counters come from the same read, so they are mutually consistent: for example, the system ticks
+ * are the sum of the processor ticks at the same instant. Tick values are in the kernel's clock ticks (jiffies), see
+ * {@code LinuxOperatingSystem.getHz()}.
+ */
+@Immutable
+public final class ProcStatSnapshot {
+
+    private static final int TICK_COUNT = TickType.values().length;
+
+    private static final byte[] CPU = bytes("cpu");
+    private static final byte[] CTXT = bytes("ctxt ");
+    private static final byte[] INTR = bytes("intr ");
+    private static final byte[] BTIME = bytes("btime ");
+    private static final byte[] PROCS_RUNNING = bytes("procs_running ");
+    private static final byte[] PROCS_BLOCKED = bytes("procs_blocked ");
+
+    // Grown to fit the file, which has a line per processor and a long interrupt line
+    private static final ThreadLocal<byte[][]> BUFFER = ThreadLocal.withInitial(() -> new byte[][] { new byte[8192] });
+
+    private final long[] systemTicks;
+    private final long[] processorTicks;
+    private final int processorCount;
+    private final long contextSwitches;
+    private final long interrupts;
+    private final long bootTime;
+    private final int procsRunning;
+    private final int procsBlocked;
+
+    private ProcStatSnapshot(byte[] buf, int len) {
+        int cpus = 0;
+        for (int i = 0; i < len; i = nextLine(buf, len, i)) {
+            if (isProcessorLine(buf, len, i)) {
+                cpus++;
+            }
+        }
+        this.processorCount = cpus;
+        this.systemTicks = new long[TICK_COUNT];
+        this.processorTicks = new long[cpus * TICK_COUNT];
+        long ctxt = 0L;
+        long intr = 0L;
+        long btime = 0L;
+        int running = -1;
+        int blocked = -1;
+        int cpu = 0;
+        for (int i = 0; i < len; i = nextLine(buf, len, i)) {
+            if (startsWith(buf, len, i, CPU)) {
+                if (isProcessorLine(buf, len, i)) {
+                    int p = i + CPU.length;
+                    while (p < len && buf[p] >= '0' && buf[p] <= '9') {
+                        p++;
+                    }
+                    parseTicks(buf, len, p, this.processorTicks, TICK_COUNT * cpu++);
+                } else if (i + CPU.length < len && buf[i + CPU.length] == ' ') {
+                    parseTicks(buf, len, i + CPU.length, this.systemTicks, 0);
+                }
+            } else if (startsWith(buf, len, i, CTXT)) {
+                ctxt = parseLong(buf, len, i + CTXT.length, 0L);
+            } else if (startsWith(buf, len, i, INTR)) {
+                // The total, followed by a count for each interrupt
+                intr = parseLong(buf, len, i + INTR.length, 0L);
+            } else if (startsWith(buf, len, i, BTIME)) {
+                btime = parseLong(buf, len, i + BTIME.length, 0L);
+            } else if (startsWith(buf, len, i, PROCS_RUNNING)) {
+                running = (int) parseLong(buf, len, i + PROCS_RUNNING.length, -1L);
+            } else if (startsWith(buf, len, i, PROCS_BLOCKED)) {
+                blocked = (int) parseLong(buf, len, i + PROCS_BLOCKED.length, -1L);
+            }
+        }
+        this.contextSwitches = ctxt;
+        this.interrupts = intr;
+        this.bootTime = btime;
+        this.procsRunning = running;
+        this.procsBlocked = blocked;
+    }
+
+    /**
+     * Reads and parses {@code /proc/stat}.
+     *
+     * @return The counters. If the file could not be read, all ticks are zero and there are no processors.
+     */
+    public static ProcStatSnapshot query() {
+        byte[][] holder = BUFFER.get();
+        int len = read(ProcPath.STAT, holder);
+        return new ProcStatSnapshot(holder[0], len);
+    }
+
+    /**
+     * Parses the contents of a {@code /proc/stat} file.
+     *
+     * @param buf The contents of the file
+     * @param len The number of valid bytes in {@code buf}
+     * @return The counters
+     */
+    public static ProcStatSnapshot parse(byte[] buf, int len) {
+        return new ProcStatSnapshot(buf, len);
+    }
+
+    /**
+     * Gets the number of {@code cpuN} lines, which is the number of online logical processors.
+     *
+     * @return The number of processors
+     */
+    public int getProcessorCount() {
+        return this.processorCount;
+    }
+
+    /**
+     * Gets the ticks of all processors from the {@code cpu} line.
+     *
+     * @return A new array of ticks indexed by {@link TickType#getIndex()}, all zero if not available
+     */
+    public long[] getSystemCpuLoadTicks() {
+        return Arrays.copyOf(this.systemTicks, TICK_COUNT);
+    }
+
+    /**
+     * Gets one tick value of one processor, from the {@code cpuN} lines in the order they appear.
+     *
+     * @param cpu  The index of the processor, less than {@link #getProcessorCount()}
+     * @param type The tick type
+     * @return The ticks
+     */
+    public long getProcessorTicks(int cpu, TickType type) {
+        return this.processorTicks[cpu * TICK_COUNT + type.getIndex()];
+    }
+
+    /**
+     * Gets the ticks of each processor, from the {@code cpuN} lines in the order they appear.
+     *
+     * @param logicalProcessorCount The number of processors to return. Processors beyond those in the file have zero
+     *                              ticks, and processors beyond this number are omitted.
+     * @return A new array of ticks for each processor, each indexed by {@link TickType#getIndex()}
+     */
+    public long[][] getProcessorCpuLoadTicks(int logicalProcessorCount) {
+        long[][] ticks = new long[logicalProcessorCount][];
+        for (int cpu = 0; cpu < logicalProcessorCount; cpu++) {
+            ticks[cpu] = cpu < this.processorCount
+                    ? Arrays.copyOfRange(this.processorTicks, cpu * TICK_COUNT, (cpu + 1) * TICK_COUNT)
+                    : new long[TICK_COUNT];
+        }
+        return ticks;
+    }
+
+    /**
+     * Gets the ticks of each processor into a flat array ordered by processor, so the ticks of processor {@code cpu}
+     * are at index {@code cpu * TickType.values().length + type.getIndex()}.
+     *
+     * @param logicalProcessorCount The number of processors to fill. Processors beyond those in the file have zero
+     *                              ticks.
+     * @param ticks                 An array of at least {@code logicalProcessorCount * TickType.values().length}
+     *                              elements to fill
+     */
+    public void getProcessorCpuLoadTicks(int logicalProcessorCount, long[] ticks) {
+        int filled = Math.min(logicalProcessorCount, this.processorCount) * TICK_COUNT;
+        System.arraycopy(this.processorTicks, 0, ticks, 0, filled);
+        Arrays.fill(ticks, filled, logicalProcessorCount * TICK_COUNT, 0L);
+    }
+
+    /**
+     * Gets the number of context switches since boot.
+     *
+     * @return The context switches, or 0 if not available
+     */
+    public long getContextSwitches() {
+        return this.contextSwitches;
+    }
+
+    /**
+     * Gets the number of interrupts serviced since boot.
+     *
+     * @return The interrupts, or 0 if not available
+     */
+    public long getInterrupts() {
+        return this.interrupts;
+    }
+
+    /**
+     * Gets the boot time.
+     *
+     * @return The boot time in seconds since the epoch, or 0 if not available
+     */
+    public long getBootTime() {
+        return this.bootTime;
+    }
+
+    /**
+     * Gets the number of threads running or ready to run.
+     *
+     * @return The {@code procs_running} value, or -1 if not available
+     */
+    public int getProcsRunning() {
+        return this.procsRunning;
+    }
+
+    /**
+     * Gets the number of threads blocked waiting for I/O.
+     *
+     * @return The {@code procs_blocked} value, or -1 if not available
+     */
+    public int getProcsBlocked() {
+        return this.procsBlocked;
+    }
+
+    /**
+     * Tests whether any ticks were read. In rare cases a read of {@code /proc/stat} fails and should be retried.
+     *
+     * @return True if all of the system ticks are zero
+     */
+    public boolean isEmpty() {
+        for (long t : this.systemTicks) {
+            if (t != 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads a file into the buffer held in {@code holder[0]}, replacing it with a larger one until the file fits.
+     *
+     * @return The number of bytes read, or 0 if the file could not be read
+     */
+    private static int read(String path, byte[][] holder) {
+        try (InputStream in = new FileInputStream(path)) {
+            int len = 0;
+            int n;
+            while ((n = in.read(holder[0], len, holder[0].length - len)) > 0) {
+                len += n;
+                if (len == holder[0].length) {
+                    holder[0] = Arrays.copyOf(holder[0], len * 2);
+                }
+            }
+            return len;
+        } catch (IOException | SecurityException e) {
+            return 0;
+        }
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static int nextLine(byte[] buf, int len, int i) {
+        while (i < len && buf[i] != '\n') {
+            i++;
+        }
+        return i + 1;
+    }
+
+    private static boolean startsWith(byte[] buf, int len, int i, byte[] prefix) {
+        if (i + prefix.length > len) {
+            return false;
+        }
+        for (int j = 0; j < prefix.length; j++) {
+            if (buf[i + j] != prefix[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isProcessorLine(byte[] buf, int len, int i) {
+        int p = i + CPU.length;
+        return startsWith(buf, len, i, CPU) && p < len && buf[p] >= '0' && buf[p] <= '9';
+    }
+
+    /**
+     * Parses up to {@link #TICK_COUNT} space-separated values into {@code ticks} from {@code offset}. Later values,
+     * guest and guest_nice, are already included in user and nice. If fewer than user, nice, system and idle are
+     * present, the ticks are left zero.
+     */
+    private static void parseTicks(byte[] buf, int len, int i, long[] ticks, int offset) {
+        int n = 0;
+        while (n < TICK_COUNT) {
+            while (i < len && buf[i] == ' ') {
+                i++;
+            }
+            if (i >= len || buf[i] < '0' || buf[i] > '9') {
+                break;
+            }
+            long value = 0L;
+            for (; i < len && buf[i] >= '0' && buf[i] <= '9'; i++) {
+                value = value * 10 + buf[i] - '0';
+            }
+            ticks[offset + n++] = value;
+        }
+        if (n <= TickType.IDLE.getIndex()) {
+            Arrays.fill(ticks, offset, offset + TICK_COUNT, 0L);
+        }
+    }
+
+    private static long parseLong(byte[] buf, int len, int i, long defaultValue) {
+        while (i < len && buf[i] == ' ') {
+            i++;
+        }
+        if (i >= len || buf[i] < '0' || buf[i] > '9') {
+            return defaultValue;
+        }
+        long value = 0L;
+        for (; i < len && buf[i] >= '0' && buf[i] <= '9'; i++) {
+            value = value * 10 + buf[i] - '0';
+        }
+        return value;
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.driver.linux.proc;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import oshi.annotation.concurrent.ThreadSafe;
+import oshi.util.platform.linux.ProcPath;
+import oshi.util.tuples.Pair;
+
+/**
+ * Utility to read the arguments and environment of a process from {@code /proc/[pid]/cmdline} and
+ * {@code /proc/[pid]/environ}.
+ * <p>
+ * Both files are sequences of null-terminated strings, and the environment of a process may be several megabytes.
+ * They are read as a byte stream with a fixed per-thread buffer, optionally stopping after a maximum number of bytes,
+ * so that only the strings returned are held in memory. Strings cut off by the limit are omitted, and the result is
+ * flagged as truncated.
+ */
+@ThreadSafe
+public final class ProcessArguments {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProcessArguments.class);
+
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[8192]);
+
+    // Results of a read
+    private static final int COMPLETE = 0;
+    private static final int TRUNCATED = 1;
+    private static final int UNREADABLE = -1;
+
+    private ProcessArguments() {
+    }
+
+    /**
+     * Consumes the null-terminated strings of a file.
+     */
+    @FunctionalInterface
+    private interface EntryConsumer {
+        /**
+         * Consumes one string, excluding its terminating null.
+         *
+         * @return True to continue reading, false to stop
+         */
+        boolean accept(byte[] bytes, int offset, int length);
+    }
+
+    /**
+     * Reads the arguments of a process, up to the first empty argument.
+     *
+     * @param pid      The process ID
+     * @param maxBytes The maximum number of bytes to read, or 0 for no limit
+     * @return A pair whose first element is an unmodifiable list of the arguments, empty if the file could not be read,
+     *         and whose second element is true if the limit was reached before the end of the arguments
+     */
+    public static Pair<List<String>, Boolean> queryArguments(int pid, int maxBytes) {
+        List<String> args = new ArrayList<>();
+        int result = read(String.format(ProcPath.PID_CMDLINE, pid), maxBytes, false, (bytes, offset, length) -> {
+            if (length == 0) {
+                return false;
+            }
+            args.add(new String(bytes, offset, length, StandardCharsets.UTF_8));
+            return true;
+        });
+        return new Pair<>(Collections.unmodifiableList(args), result == TRUNCATED);
+    }
+
+    /**
+     * Reads the command line of a process, its arguments separated by spaces.
+     *
+     * @param pid      The process ID
+     * @param maxBytes The maximum number of bytes to read, or 0 for no limit
+     * @return The command line, or an empty string if the file could not be read
+     */
+    public static String queryCommandLine(int pid, int maxBytes) {
+        StringBuilder sb = new StringBuilder();
+        // Separators are appended before each non-empty string, so trailing empty strings are dropped
+        int[] pending = new int[1];
+        read(String.format(ProcPath.PID_CMDLINE, pid), maxBytes, false, (bytes, offset, length) -> {
+            if (length > 0) {
+                for (; pending[0] > 0; pending[0]--) {
+                    sb.append(' ');
+                }
+                sb.append(new String(bytes, offset, length, StandardCharsets.UTF_8));
+            }
+            pending[0]++;
+            return true;
+        });
+        return sb.toString();
+    }
+
+    /**
+     * Reads the environment of a process, up to the first empty string.
+     *
+     * @param pid         The process ID
+     * @param maxBytes    The maximum number of bytes to read, or 0 for no limit
+     * @param reportError Whether to log a failure to read the file as a warning, rather than at debug level. Reading
+     *                    the environment of another user's process requires elevated permissions.
+     * @return A pair whose first element is an unmodifiable map of variable names to values, in the order they appear
+     *         and empty if the file could not be read, and whose second element is true if the limit was reached
+     *         before the end of the environment. A variable defined more than once maps to its last definition, unlike
+     *         {@link #queryEnvironmentVariable(int, String, int, boolean)}.
+     */
+    public static Pair<Map<String, String>, Boolean> queryEnvironment(int pid, int maxBytes, boolean reportError) {
+        Map<String, String> env = new LinkedHashMap<>();
+        int result = read(String.format(ProcPath.PID_ENVIRON, pid), maxBytes, reportError,
+                (bytes, offset, length) -> {
+                    if (length == 0) {
+                        return false;
+                    }
+                    int eq = indexOf(bytes, offset, length, (byte) '=');
+                    if (eq < 0) {
+                        env.put(null, new String(bytes, offset, length, StandardCharsets.UTF_8));
+                    } else {
+                        env.put(new String(bytes, offset, eq - offset, StandardCharsets.UTF_8),
+                                new String(bytes, eq + 1, offset + length - eq - 1, StandardCharsets.UTF_8));
+                    }
+                    return true;
+                });
+        return new Pair<>(Collections.unmodifiableMap(env), result == TRUNCATED);
+    }
+
+    /**
+     * Reads the value of one environment variable of a process, stopping as soon as it is found. No strings are
+     * created for the other variables. If the variable is defined more than once, the first definition is returned, as
+     * by {@code getenv(3)}.
+     *
+     * @param pid         The process ID
+     * @param name        The variable name
+     * @param maxBytes    The maximum number of bytes to read, or 0 for no limit
+     * @param reportError Whether to log a failure to read the file as a warning, rather than at debug level
+     * @return The value of the first definition of the variable, or {@code null} if it is not set, it was not found
+     *         within the limit, or the file could not be read
+     */
+    public static String queryEnvironmentVariable(int pid, String name, int maxBytes, boolean reportError) {
+        byte[] key = (name + '=').getBytes(StandardCharsets.UTF_8);
+        String[] value = new String[1];
+        read(String.format(ProcPath.PID_ENVIRON, pid), maxBytes, reportError, (bytes, offset, length) -> {
+            if (length == 0) {
+                return false;
+            }
+            if (length >= key.length && startsWith(bytes, offset, key)) {
+                value[0] = new String(bytes, offset + key.length, length - key.length, StandardCharsets.UTF_8);
+                return false;
+            }
+            return true;
+        });
+        return value[0];
+    }
+
+    /**
+     * Reads the null-terminated strings of a file, passing each complete string to a consumer. A final string without
+     * a terminating null is passed if the end of the file is reached.
+     *
+     * @return {@link #COMPLETE} if the end of the file was reached or the consumer stopped, {@link #TRUNCATED} if the
+     *         limit was reached first, or {@link #UNREADABLE}
+     */
+    private static int read(String path, int maxBytes, boolean reportError, EntryConsumer consumer) {
+        byte[] buf = BUFFER.get();
+        // Holds a string which spans reads, grown as needed
+        byte[] carry = null;
+        int carryLen = 0;
+        long remaining = maxBytes > 0 ? maxBytes : Long.MAX_VALUE;
+        try (InputStream in = new FileInputStream(path)) {
+            int n;
+            while (remaining > 0 && (n = in.read(buf, 0, (int) Math.min(buf.length, remaining))) > 0) {
+                remaining -= n;
+                int start = 0;
+                for (int i = 0; i < n; i++) {
+                    if (buf[i] == 0) {
+                        boolean more;
+                        if (carryLen > 0) {
+                            carry = append(carry, carryLen, buf, start, i - start);
+                            carryLen += i - start;
+                            more = consumer.accept(carry, 0, carryLen);
+                            carryLen = 0;
+                        } else {
+                            more = consumer.accept(buf, start, i - start);
+                        }
+                        if (!more) {
+                            return COMPLETE;
+                        }
+                        start = i + 1;
+                    }
+                }
+                if (start < n) {
+                    carry = append(carry, carryLen, buf, start, n - start);
+                    carryLen += n - start;
+                }
+            }
+            if (remaining == 0 && in.read() >= 0) {
+                // The string in progress, if any, is incomplete
+                return TRUNCATED;
+            }
+            if (carryLen > 0) {
+                consumer.accept(carry, 0, carryLen);
+            }
+            return COMPLETE;
+        } catch (IOException | SecurityException e) {
+            if (reportError) {
+                LOG.warn("Unable to read {}: {}", path, e.getMessage());
+            } else {
+                LOG.debug("Unable to read {}: {}", path, e.getMessage());
+            }
+            return UNREADABLE;
+        }
+    }
+
+    private static byte[] append(byte[] dest, int destLen, byte[] src, int offset, int length) {
+        byte[] result = dest;
+        if (result == null || destLen + length > result.length) {
+            int capacity = Math.max(destLen + length, result == null ? 256 : result.length * 2);
+            result = result == null ? new byte[capacity] : Arrays.copyOf(result, capacity);
+        }
+        System.arraycopy(src, offset, result, destLen, length);
+        return result;
+    }
+
+    private static int indexOf(byte[] bytes, int offset, int length, byte b) {
+        for (int i = offset; i < offset + length; i++) {
+            if (bytes[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean startsWith(byte[] bytes, int offset, byte[] prefix) {
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[offset + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
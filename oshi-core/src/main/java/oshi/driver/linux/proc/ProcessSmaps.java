@@ -0,0 +1,175 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.driver.linux.proc;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import oshi.annotation.concurrent.ThreadSafe;
+import oshi.util.platform.linux.ProcPath;
+
+/**
+ * Utility to read proportional memory use from {@code /proc/[pid]/smaps_rollup}, or from {@code /proc/[pid]/smaps} on
+ * kernels before 4.14.
+ * <p>
+ * Both files are parsed as a byte stream with a fixed per-thread buffer. Only the lines needed are decoded, and no
+ * objects are created per line, so the many mappings of a large process in {@code smaps} cost no garbage.
+ */
+@ThreadSafe
+public final class ProcessSmaps {
+
+    /**
+     * Enum corresponding to the memory sizes summed from {@code smaps}, in bytes.
+     */
+    public enum SmapsField {
+        /**
+         * Proportional set size: resident memory, with each shared page divided by the number of processes mapping it.
+         */
+        PSS,
+        /**
+         * Unique set size: resident memory mapped only by this process, the sum of {@code Private_Clean} and
+         * {@code Private_Dirty}.
+         */
+        USS,
+        /**
+         * Resident memory also mapped by other processes, the sum of {@code Shared_Clean} and {@code Shared_Dirty}.
+         */
+        SHARED,
+        /**
+         * Anonymous memory swapped out.
+         */
+        SWAP;
+    }
+
+    private static final String SMAPS_ROLLUP = "/smaps_rollup";
+    private static final String SMAPS = "/smaps";
+
+    // Keys and the field each adds to. Lines of interest are short, longer lines are mapping headers
+    private static final byte[][] KEYS = { bytes("Pss"), bytes("Private_Clean"), bytes("Private_Dirty"),
+            bytes("Shared_Clean"), bytes("Shared_Dirty"), bytes("Swap") };
+    private static final SmapsField[] KEY_FIELDS = { SmapsField.PSS, SmapsField.USS, SmapsField.USS, SmapsField.SHARED,
+            SmapsField.SHARED, SmapsField.SWAP };
+    private static final int LINE_LENGTH = 64;
+
+    private static final boolean HAS_ROLLUP = new File(ProcPath.PROC + "/self" + SMAPS_ROLLUP).exists();
+
+    private static final ThreadLocal<byte[][]> BUFFERS = ThreadLocal
+            .withInitial(() -> new byte[][] { new byte[8192], new byte[LINE_LENGTH] });
+
+    private ProcessSmaps() {
+    }
+
+    /**
+     * Tests whether the kernel provides {@code smaps_rollup}. If not, {@code smaps} is read instead, which is
+     * considerably slower for processes with many mappings.
+     *
+     * @return True if {@code /proc/self/smaps_rollup} exists
+     */
+    public static boolean hasRollup() {
+        return HAS_ROLLUP;
+    }
+
+    /**
+     * Reads the proportional memory sizes of a process.
+     *
+     * @param pid   The process ID
+     * @param sizes An array indexed by {@link SmapsField} ordinal to fill, in bytes
+     * @return True if the sizes were read. False if the process has exited or its memory map is not readable, usually
+     *         because it belongs to another user; {@code sizes} is then zero.
+     */
+    public static boolean querySmaps(int pid, long[] sizes) {
+        return readSmaps(ProcPath.PROC + '/' + pid + (HAS_ROLLUP ? SMAPS_ROLLUP : SMAPS), sizes);
+    }
+
+    /**
+     * Reads and sums the memory sizes in an {@code smaps} or {@code smaps_rollup} file.
+     *
+     * @param path  The path of the file
+     * @param sizes An array indexed by {@link SmapsField} ordinal to fill, in bytes
+     * @return True if the file was read, false if it could not be opened or read
+     */
+    public static boolean readSmaps(String path, long[] sizes) {
+        Arrays.fill(sizes, 0L);
+        byte[][] buffers = BUFFERS.get();
+        byte[] buf = buffers[0];
+        byte[] line = buffers[1];
+        try (InputStream in = new FileInputStream(path)) {
+            // Line length, or -1 while skipping the rest of a line too long to be of interest
+            int lineLen = 0;
+            int n;
+            while ((n = in.read(buf)) > 0) {
+                for (int i = 0; i < n; i++) {
+                    byte b = buf[i];
+                    if (b == '\n') {
+                        if (lineLen > 0) {
+                            parseLine(line, lineLen, sizes);
+                        }
+                        lineLen = 0;
+                    } else if (lineLen >= 0) {
+                        if (lineLen < LINE_LENGTH) {
+                            line[lineLen++] = b;
+                        } else {
+                            lineLen = -1;
+                        }
+                    }
+                }
+            }
+            if (lineLen > 0) {
+                parseLine(line, lineLen, sizes);
+            }
+            return true;
+        } catch (IOException | SecurityException e) {
+            Arrays.fill(sizes, 0L);
+            return false;
+        }
+    }
+
+    /**
+     * Adds the value of a {@code Key: value kB} line to its field, if the key is one of interest.
+     */
+    private static void parseLine(byte[] line, int len, long[] sizes) {
+        int colon = 0;
+        while (colon < len && line[colon] != ':') {
+            colon++;
+        }
+        if (colon == len) {
+            return;
+        }
+        for (int k = 0; k < KEYS.length; k++) {
+            if (keyEquals(line, colon, KEYS[k])) {
+                int i = colon + 1;
+                while (i < len && (line[i] == ' ' || line[i] == '\t')) {
+                    i++;
+                }
+                long kb = 0L;
+                for (; i < len && line[i] >= '0' && line[i] <= '9'; i++) {
+                    kb = kb * 10 + line[i] - '0';
+                }
+                sizes[KEY_FIELDS[k].ordinal()] += kb << 10;
+                return;
+            }
+        }
+    }
+
+    private static boolean keyEquals(byte[] line, int keyLen, byte[] key) {
+        if (keyLen != key.length) {
+            return false;
+        }
+        for (int i = 0; i < keyLen; i++) {
+            if (line[i] != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2022 The OSHI Project Contributors
+ * Copyright 2020-2023 The OSHI Project Contributors
  * SPDX-License-Identifier: MIT
  */
 package oshi.driver.linux.proc;
@@ -12,13 +12,15 @@ import static oshi.software.os.OSProcess.State.WAITING;
 import static oshi.software.os.OSProcess.State.ZOMBIE;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import oshi.annotation.concurrent.ThreadSafe;
@@ -35,7 +37,7 @@ import oshi.util.tuples.Triplet;
 @ThreadSafe
 public final class ProcessStat {
 
-    private static final Pattern SOCKET = Pattern.compile("socket:\\[(\\d+)\\]");
+    private static final String SOCKET_PREFIX = "socket:[";
 
     /**
      * Enum corresponding to the fields in the output of {@code /proc/[pid]/stat}
@@ -350,9 +352,159 @@ public final class ProcessStat {
         }
     }
 
+    /**
+     * A buffer size sufficient for the contents of any {@code /proc/[pid]/stat} file: the command name is at most 16
+     * bytes, and each of the remaining fields at most 20 digits.
+     */
+    public static final int STAT_BUFFER_SIZE = 2048;
+
+    private static final ThreadLocal<StatBuffer> STAT_BUFFER = ThreadLocal.withInitial(StatBuffer::new);
+
     private ProcessStat() {
     }
 
+    /**
+     * Reusable storage for reading and parsing a stat file on one thread, so that repeated reads produce no garbage.
+     */
+    public static final class StatBuffer {
+        private final byte[] bytes = new byte[STAT_BUFFER_SIZE];
+        private final long[] fields = new long[PidStat.values().length];
+
+        private StatBuffer() {
+        }
+
+        /**
+         * Gets the byte buffer to read a stat file into.
+         *
+         * @return A byte array of {@link ProcessStat#STAT_BUFFER_SIZE} bytes
+         */
+        public byte[] getBytes() {
+            return this.bytes;
+        }
+
+        /**
+         * Gets the array to parse stat fields into.
+         *
+         * @return An array indexed by {@link PidStat} ordinal
+         */
+        public long[] getFields() {
+            return this.fields;
+        }
+    }
+
+    /**
+     * Gets the stat buffer for the calling thread. The buffer is reused by subsequent calls on the same thread, so its
+     * contents must be consumed before calling methods which may use it again.
+     *
+     * @return The calling thread's buffer
+     */
+    public static StatBuffer getStatBuffer() {
+        return STAT_BUFFER.get();
+    }
+
+    /**
+     * Reads a stat file into a byte array.
+     *
+     * @param path The path of the file
+     * @param buf  The array to read into
+     * @return The number of bytes read, or 0 if the file could not be read
+     */
+    public static int readStat(String path, byte[] buf) {
+        try (InputStream in = new FileInputStream(path)) {
+            int len = 0;
+            int n;
+            while (len < buf.length && (n = in.read(buf, len, buf.length - len)) > 0) {
+                len += n;
+            }
+            return len;
+        } catch (IOException | SecurityException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Parses the contents of a {@code /proc/[pid]/stat} or {@code /proc/[pid]/task/[tid]/stat} file without creating
+     * any objects.
+     * <p>
+     * The command name is delimited by the first {@code (} and the last {@code )}, so names containing spaces and
+     * parentheses are handled. Following the name, every space-delimited field is parsed into {@code fields} at the
+     * index of its {@link PidStat} ordinal:
+     * <ul>
+     * <li>{@link PidStat#COMM} holds the offsets of the name within {@code buf}, which may be decoded with
+     * {@link #getName(byte[], long[])}.</li>
+     * <li>{@link PidStat#STATE} holds the state character.</li>
+     * <li>Unsigned values too large for a {@code long} wrap to negative, as in C; for example an unlimited
+     * {@link PidStat#RSSLIM} reads as -1.</li>
+     * <li>Fields not present in the file, for example on older kernels, are set to zero.</li>
+     * </ul>
+     *
+     * @param buf    The contents of the file
+     * @param len    The number of valid bytes in {@code buf}
+     * @param fields The array to fill, normally of length {@code PidStat.values().length}. Extra fields in the file are
+     *               ignored.
+     * @return The number of fields present in the file including the pid, name, and state, or 0 if the contents are
+     *         not a valid stat line
+     */
+    public static int parseStat(byte[] buf, int len, long[] fields) {
+        int nameStart = 0;
+        while (nameStart < len && buf[nameStart] != '(') {
+            nameStart++;
+        }
+        int nameEnd = len - 1;
+        while (nameEnd > nameStart && buf[nameEnd] != ')') {
+            nameEnd--;
+        }
+        // Need at least ") S" after the name
+        if (nameStart >= len || nameEnd <= nameStart || nameEnd + 2 >= len
+                || fields.length <= PidStat.STATE.ordinal()) {
+            return 0;
+        }
+        Arrays.fill(fields, 0L);
+        long pid = 0L;
+        for (int i = 0; i < nameStart; i++) {
+            if (buf[i] >= '0' && buf[i] <= '9') {
+                pid = pid * 10 + buf[i] - '0';
+            }
+        }
+        fields[PidStat.PID.ordinal()] = pid;
+        fields[PidStat.COMM.ordinal()] = ((long) (nameStart + 1) << 32) | nameEnd;
+        fields[PidStat.STATE.ordinal()] = buf[nameEnd + 2];
+
+        int field = PidStat.STATE.ordinal() + 1;
+        int i = nameEnd + 3;
+        while (field < fields.length) {
+            while (i < len && buf[i] == ' ') {
+                i++;
+            }
+            if (i >= len || buf[i] == '\n') {
+                break;
+            }
+            boolean negative = buf[i] == '-';
+            if (negative) {
+                i++;
+            }
+            long value = 0L;
+            for (; i < len && buf[i] != ' ' && buf[i] != '\n'; i++) {
+                value = value * 10 + buf[i] - '0';
+            }
+            fields[field++] = negative ? -value : value;
+        }
+        return field;
+    }
+
+    /**
+     * Decodes the command name located by {@link #parseStat(byte[], int, long[])}.
+     *
+     * @param buf    The contents of the stat file
+     * @param fields The parsed fields
+     * @return The command name
+     */
+    public static String getName(byte[] buf, long[] fields) {
+        long offsets = fields[PidStat.COMM.ordinal()];
+        int start = (int) (offsets >>> 32);
+        return new String(buf, start, (int) offsets - start, StandardCharsets.UTF_8);
+    }
+
     /**
      * Reads the statistics in {@code /proc/[pid]/stat} and returns the results.
      *
@@ -364,25 +516,20 @@ public final class ProcessStat {
      *         If the process doesn't exist, returns null.
      */
     public static Triplet<String, Character, Map<PidStat, Long>> getPidStats(int pid) {
-        String stat = FileUtil.getStringFromFile(String.format(ProcPath.PID_STAT, pid));
-        if (stat.isEmpty()) {
+        StatBuffer sb = getStatBuffer();
+        byte[] buf = sb.getBytes();
+        long[] fields = sb.getFields();
+        int count = parseStat(buf, readStat(String.format(ProcPath.PID_STAT, pid), buf), fields);
+        if (count == 0) {
             // If pid doesn't exist
             return null;
         }
-        // Get process name from between parentheses and state immediately after
-        int nameStart = stat.indexOf('(') + 1;
-        int nameEnd = stat.indexOf(')');
-        String name = stat.substring(nameStart, nameEnd);
-        Character state = stat.charAt(nameEnd + 2);
-        // Split everything after the state
-        String[] split = ParseUtil.whitespaces.split(stat.substring(nameEnd + 4).trim());
-
         Map<PidStat, Long> statMap = new EnumMap<>(PidStat.class);
         PidStat[] enumArray = PidStat.class.getEnumConstants();
-        for (int i = 3; i < enumArray.length && i - 3 < split.length; i++) {
-            statMap.put(enumArray[i], ParseUtil.parseLongOrDefault(split[i - 3], 0L));
+        for (int i = PidStat.STATE.ordinal() + 1; i < count; i++) {
+            statMap.put(enumArray[i], fields[i]);
         }
-        return new Triplet<>(name, state, statMap);
+        return new Triplet<>(getName(buf, fields), (char) fields[PidStat.STATE.ordinal()], statMap);
     }
 
     /**
@@ -440,18 +587,37 @@ public final class ProcessStat {
             int pid = ParseUtil.parseIntOrDefault(f.getName(), -1);
             File[] fds = getFileDescriptorFiles(pid);
             for (File fd : fds) {
-                String symLink = FileUtil.readSymlinkTarget(fd);
-                if (symLink != null) {
-                    Matcher m = SOCKET.matcher(symLink);
-                    if (m.matches()) {
-                        pidMap.put(ParseUtil.parseIntOrDefault(m.group(1), -1), pid);
-                    }
+                long inode = parseSocketInode(FileUtil.readSymlinkTarget(fd));
+                if (inode >= 0) {
+                    pidMap.put((int) inode, pid);
                 }
             }
         }
         return pidMap;
     }
 
+    /**
+     * Parses the inode number from the target of a file descriptor link of the form {@code socket:[12345]}.
+     *
+     * @param link The link target, may be null
+     * @return The socket inode, or -1 if the link is not a socket
+     */
+    public static long parseSocketInode(String link) {
+        if (link == null || !link.startsWith(SOCKET_PREFIX) || link.length() < SOCKET_PREFIX.length() + 2
+                || link.charAt(link.length() - 1) != ']') {
+            return -1L;
+        }
+        long inode = 0L;
+        for (int i = SOCKET_PREFIX.length(); i < link.length() - 1; i++) {
+            char c = link.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1L;
+            }
+            inode = inode * 10 + c - '0';
+        }
+        return inode;
+    }
+
     /**
      * Gets a List of thread ids for a process from the {@code /proc/[pid]/task/} directory with only numeric digit
      * filenames, corresponding to the threads.
@@ -1,11 +1,12 @@
 /*
- * Copyright 2016-2022 The OSHI Project Contributors
+ * Copyright 2016-2023 The OSHI Project Contributors
  * SPDX-License-Identifier: MIT
  */
 package oshi.hardware;
 
 import static oshi.util.Memoizer.memoize;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Properties;
@@ -62,6 +63,20 @@ public interface CentralProcessor {
      */
     long[] getCurrentFreq();
 
+    /**
+     * Returns the frequency scaling limits and governor of each logical processor, where the operating system scales
+     * processor frequency by a policy.
+     * <p>
+     * Only implemented on Linux, from the {@code cpufreq} subsystem. The values change only when the policy is changed,
+     * so they are read separately from {@link #getCurrentFreq()}.
+     *
+     * @return An {@code UnmodifiableList} of the scaling of each logical processor in the same order as
+     *         {@link #getCurrentFreq()}, or an empty list if not available.
+     */
+    default List<FrequencyScaling> getFrequencyScaling() {
+        return Collections.emptyList();
+    }
+
     /**
      * Returns an {@code UnmodifiableList} of the CPU's logical processors. The list will be sorted in order of
      * increasing NUMA node number, and then processor number. This order is (usually) consistent with other methods
@@ -240,6 +255,67 @@ public interface CentralProcessor {
      */
     long[][] getProcessorCpuLoadTicks();
 
+    /**
+     * Get Processor CPU Load tick counters into a caller-supplied array. Fills the same values as
+     * {@link #getProcessorCpuLoadTicks()}, but in a single flat array ordered by processor, so the ticks of processor
+     * {@code cpu} of type {@code t} are at index {@code cpu * TickType.values().length + t.getIndex()}.
+     * <p>
+     * Reusing the array between calls avoids allocating an array per logical processor on each sample, which matters
+     * on machines with many logical processors sampled frequently.
+     *
+     * @param ticks An array of at least {@link #getLogicalProcessorCount()} times {@code TickType.values().length}
+     *              elements to fill
+     * @return The number of logical processors filled
+     * @throws IllegalArgumentException if the array is too small.
+     */
+    default int getProcessorCpuLoadTicks(long[] ticks) {
+        long[][] procTicks = getProcessorCpuLoadTicks();
+        int tickCount = TickType.values().length;
+        if (ticks.length < procTicks.length * tickCount) {
+            throw new IllegalArgumentException("Provided tick array length " + ticks.length + " should be at least "
+                    + procTicks.length * tickCount);
+        }
+        for (int cpu = 0; cpu < procTicks.length; cpu++) {
+            System.arraycopy(procTicks[cpu], 0, ticks, cpu * tickCount, tickCount);
+        }
+        return procTicks.length;
+    }
+
+    /**
+     * Calculates the "recent cpu usage" for each logical processor between two flat tick arrays filled by
+     * {@link #getProcessorCpuLoadTicks(long[])}, into a caller-supplied array. Does not read the current ticks, and
+     * does not allocate.
+     *
+     * @param oldTicks A tick array from an earlier call to {@link #getProcessorCpuLoadTicks(long[])}
+     * @param newTicks A tick array from a later call to {@link #getProcessorCpuLoadTicks(long[])}
+     * @param count    The number of logical processors, as returned by {@link #getProcessorCpuLoadTicks(long[])}
+     * @param load     An array of at least {@code count} elements to fill with the CPU load between 0 and 1 (100%) of
+     *                 each logical processor
+     * @return The number of elements filled
+     * @throws IllegalArgumentException if any array is too small.
+     */
+    default int getProcessorCpuLoadBetweenTicks(long[] oldTicks, long[] newTicks, int count, double[] load) {
+        int tickCount = TickType.values().length;
+        if (oldTicks.length < count * tickCount || newTicks.length < count * tickCount || load.length < count) {
+            throw new IllegalArgumentException("Provided tick arrays should have at least " + count * tickCount
+                    + " elements and the load array at least " + count);
+        }
+        int idle = TickType.IDLE.getIndex();
+        int iowait = TickType.IOWAIT.getIndex();
+        for (int cpu = 0; cpu < count; cpu++) {
+            int base = cpu * tickCount;
+            long total = 0;
+            for (int i = base; i < base + tickCount; i++) {
+                total += newTicks[i] - oldTicks[i];
+            }
+            // Calculate idle from difference in idle and IOwait
+            long idleTicks = newTicks[base + idle] + newTicks[base + iowait] - oldTicks[base + idle]
+                    - oldTicks[base + iowait];
+            load[cpu] = total > 0 && idleTicks >= 0 ? (double) (total - idleTicks) / total : 0d;
+        }
+        return count;
+    }
+
     /**
      * Get the number of logical CPUs available for processing. This value may be higher than physical CPUs if
      * hyperthreading is enabled.
@@ -647,6 +723,68 @@ public interface CentralProcessor {
         }
     }
 
+    /**
+     * A class representing the frequency scaling policy of a logical processor.
+     */
+    @Immutable
+    class FrequencyScaling {
+
+        private final int processorNumber;
+        private final long minFreq;
+        private final long maxFreq;
+        private final String governor;
+
+        public FrequencyScaling(int processorNumber, long minFreq, long maxFreq, String governor) {
+            this.processorNumber = processorNumber;
+            this.minFreq = minFreq;
+            this.maxFreq = maxFreq;
+            this.governor = governor;
+        }
+
+        /**
+         * The logical processor number, as returned by {@link LogicalProcessor#getProcessorNumber()}.
+         *
+         * @return the processor number
+         */
+        public int getProcessorNumber() {
+            return processorNumber;
+        }
+
+        /**
+         * The lowest frequency the policy allows, in Hz.
+         *
+         * @return the minimum frequency, or -1 if unknown
+         */
+        public long getMinFreq() {
+            return minFreq;
+        }
+
+        /**
+         * The highest frequency the policy allows, in Hz.
+         *
+         * @return the maximum frequency, or -1 if unknown
+         */
+        public long getMaxFreq() {
+            return maxFreq;
+        }
+
+        /**
+         * The governor which selects the frequency within the limits, for example {@code performance} or
+         * {@code powersave}.
+         *
+         * @return the governor, or an empty string if unknown
+         */
+        public String getGovernor() {
+            return governor;
+        }
+
+        @Override
+        public String toString() {
+            return "FrequencyScaling [processor=" + processorNumber + ", minFreq=" + minFreq + ", maxFreq=" + maxFreq
+                    + ", governor=" + governor + "]";
+        }
+    }
+
     /**
      * A class encapsulating ghe CPU's identifier strings ,including name, vendor, stepping, model, and family
      * information (also called the signature of a CPU)
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.hardware;
+
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import oshi.annotation.concurrent.GuardedBy;
+import oshi.annotation.concurrent.ThreadSafe;
+import oshi.hardware.CentralProcessor.TickType;
+
+/**
+ * Samples CPU ticks on a fixed schedule so that recent CPU load can be queried without waiting.
+ * <p>
+ * {@link CentralProcessor#getSystemCpuLoad(long)} and {@link CentralProcessor#getProcessorCpuLoad(long)} sleep the
+ * calling thread for the measurement interval, and {@link CentralProcessor#getSystemCpuLoadBetweenTicks(long[])}
+ * requires the caller to keep previous ticks. Once {@link #start()}ed, a sampler instead records the system and
+ * per-processor ticks from a daemon thread into a ring buffer of primitive arrays, and answers the load over any window
+ * up to its history, such as the last 1, 10 or 60 seconds, from the recorded ticks. Queries do not block on sampling,
+ * do not read the operating system, and do not allocate.
+ * <p>
+ * Samples may also be taken by calling {@link #sample()} directly, for example from an existing scheduler, in which
+ * case {@link #start()} need not be called.
+ */
+@ThreadSafe
+public final class CpuLoadSampler implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CpuLoadSampler.class);
+
+    private static final int TICK_COUNT = TickType.values().length;
+    private static final int IDLE = TickType.IDLE.getIndex();
+    private static final int IOWAIT = TickType.IOWAIT.getIndex();
+
+    private final CentralProcessor processor;
+    private final long intervalMillis;
+    private final int processorCount;
+    private final int capacity;
+
+    // Ring buffer of samples; slot i holds system ticks at [i * TICK_COUNT] and processor ticks in the flat layout of
+    // CentralProcessor#getProcessorCpuLoadTicks(long[]) at [i]
+    @GuardedBy("this")
+    private final long[] nanos;
+    @GuardedBy("this")
+    private final long[] systemTicks;
+    @GuardedBy("this")
+    private final long[][] processorTicks;
+    // Reused to read the processor ticks without holding the lock queries wait on
+    private final Object sampleLock = new Object();
+    @GuardedBy("sampleLock")
+    private final long[] sampleTicks;
+    @GuardedBy("this")
+    private int newest = -1;
+    @GuardedBy("this")
+    private int count;
+    @GuardedBy("this")
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Creates a sampler which samples every second and retains a minute of history.
+     *
+     * @param processor The processor to sample
+     */
+    public CpuLoadSampler(CentralProcessor processor) {
+        this(processor, 1000L, 60_000L);
+    }
+
+    /**
+     * Creates a sampler.
+     *
+     * @param processor      The processor to sample
+     * @param intervalMillis The interval between samples, in milliseconds. Tick counters are memoized for a short time
+     *                       and advance with the operating system's clock tick, so an interval of at least a second is
+     *                       recommended.
+     * @param historyMillis  The longest window which may be queried, in milliseconds
+     */
+    public CpuLoadSampler(CentralProcessor processor, long intervalMillis, long historyMillis) {
+        if (intervalMillis <= 0 || historyMillis < intervalMillis) {
+            throw new IllegalArgumentException("Interval must be positive and no longer than the history.");
+        }
+        this.processor = processor;
+        this.intervalMillis = intervalMillis;
+        this.processorCount = processor.getLogicalProcessorCount();
+        // One sample at each end of the longest window, and one spare for a late sample
+        this.capacity = (int) (historyMillis / intervalMillis) + 2;
+        this.nanos = new long[this.capacity];
+        this.systemTicks = new long[this.capacity * TICK_COUNT];
+        this.processorTicks = new long[this.capacity][this.processorCount * TICK_COUNT];
+        this.sampleTicks = new long[this.processorCount * TICK_COUNT];
+    }
+
+    /**
+     * Starts sampling on a daemon thread. Has no effect if already started.
+     */
+    public synchronized void start() {
+        if (this.scheduler == null) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "oshi-cpu-sampler");
+                t.setDaemon(true);
+                return t;
+            });
+            this.scheduler.scheduleAtFixedRate(this::sampleOrLog, 0L, this.intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops sampling. Recorded samples remain available, and the sampler may be started again.
+     */
+    @Override
+    public synchronized void close() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Records the current ticks, replacing the oldest sample if the buffer is full.
+     */
+    public void sample() {
+        long[] system = this.processor.getSystemCpuLoadTicks();
+        synchronized (this.sampleLock) {
+            int filled = Math.min(this.processor.getProcessorCpuLoadTicks(this.sampleTicks), this.processorCount);
+            // Processors which were not reported have no ticks
+            Arrays.fill(this.sampleTicks, filled * TICK_COUNT, this.sampleTicks.length, 0L);
+            long now = System.nanoTime();
+            synchronized (this) {
+                int slot = (this.newest + 1) % this.capacity;
+                this.nanos[slot] = now;
+                System.arraycopy(system, 0, this.systemTicks, slot * TICK_COUNT, TICK_COUNT);
+                System.arraycopy(this.sampleTicks, 0, this.processorTicks[slot], 0, this.sampleTicks.length);
+                this.newest = slot;
+                if (this.count < this.capacity) {
+                    this.count++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes a sample on the scheduler thread. An exception would cancel all further samples, so it is logged instead.
+     */
+    private void sampleOrLog() {
+        try {
+            sample();
+        } catch (RuntimeException e) {
+            LOG.warn("Failed to sample CPU ticks. {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the number of samples recorded, up to the capacity of the buffer.
+     *
+     * @return The number of samples
+     */
+    public synchronized int getSampleCount() {
+        return this.count;
+    }
+
+    /**
+     * Gets the number of logical processors sampled.
+     *
+     * @return The length of the array filled by {@link #getProcessorCpuLoad(long, double[])}
+     */
+    public int getLogicalProcessorCount() {
+        return this.processorCount;
+    }
+
+    /**
+     * Gets the CPU load of the system over a recent window, calculated as by
+     * {@link CentralProcessor#getSystemCpuLoadBetweenTicks(long[])}.
+     *
+     * @param windowMillis The window ending at the newest sample, in milliseconds. If the history does not yet cover
+     *                     the window, the load since the oldest sample is returned.
+     * @return The CPU load between 0 and 1, or 0 if fewer than two samples have been recorded
+     */
+    public synchronized double getSystemCpuLoad(long windowMillis) {
+        int oldest = findStart(windowMillis);
+        if (oldest < 0) {
+            return 0d;
+        }
+        return load(this.systemTicks, oldest * TICK_COUNT, this.systemTicks, this.newest * TICK_COUNT);
+    }
+
+    /**
+     * Gets the CPU load of one logical processor over a recent window.
+     *
+     * @param cpu          The index of the logical processor
+     * @param windowMillis The window ending at the newest sample, in milliseconds, see {@link #getSystemCpuLoad(long)}
+     * @return The CPU load between 0 and 1, or 0 if fewer than two samples have been recorded
+     */
+    public synchronized double getProcessorCpuLoad(int cpu, long windowMillis) {
+        if (cpu < 0 || cpu >= this.processorCount) {
+            throw new IndexOutOfBoundsException("Processor " + cpu + " is not between 0 and " + this.processorCount);
+        }
+        int oldest = findStart(windowMillis);
+        if (oldest < 0) {
+            return 0d;
+        }
+        return load(this.processorTicks[oldest], cpu * TICK_COUNT, this.processorTicks[this.newest], cpu * TICK_COUNT);
+    }
+
+    /**
+     * Gets the CPU load of each logical processor over a recent window, into a caller-supplied array.
+     *
+     * @param windowMillis The window ending at the newest sample, in milliseconds, see {@link #getSystemCpuLoad(long)}
+     * @param load         An array of at least {@link #getLogicalProcessorCount()} elements to fill with the load of
+     *                     each processor, between 0 and 1, or 0 if fewer than two samples have been recorded
+     * @return The number of elements filled
+     */
+    public synchronized int getProcessorCpuLoad(long windowMillis, double[] load) {
+        if (load.length < this.processorCount) {
+            throw new IllegalArgumentException(
+                    "Array length " + load.length + " is less than the processor count " + this.processorCount);
+        }
+        int oldest = findStart(windowMillis);
+        if (oldest < 0) {
+            Arrays.fill(load, 0, this.processorCount, 0d);
+            return this.processorCount;
+        }
+        return this.processor.getProcessorCpuLoadBetweenTicks(this.processorTicks[oldest],
+                this.processorTicks[this.newest], this.processorCount, load);
+    }
+
+    /**
+     * Finds the newest sample at least the window older than the newest sample, or the oldest sample if none is.
+     *
+     * @return The slot of that sample, or -1 if there are fewer than two samples
+     */
+    @GuardedBy("this")
+    private int findStart(long windowMillis) {
+        if (this.count < 2) {
+            return -1;
+        }
+        long target = this.nanos[this.newest] - windowMillis * 1_000_000L;
+        int slot = this.newest;
+        for (int i = 1; i < this.count; i++) {
+            slot = (slot + this.capacity - 1) % this.capacity;
+            if (this.nanos[slot] - target <= 0L) {
+                return slot;
+            }
+        }
+        return slot;
+    }
+
+    // Calculated as by CentralProcessor#getProcessorCpuLoadBetweenTicks(long[], long[], int, double[])
+    private static double load(long[] oldTicks, int from, long[] newTicks, int to) {
+        long total = 0L;
+        for (int i = 0; i < TICK_COUNT; i++) {
+            total += newTicks[to + i] - oldTicks[from + i];
+        }
+        long idle = newTicks[to + IDLE] + newTicks[to + IOWAIT] - oldTicks[from + IDLE] - oldTicks[from + IOWAIT];
+        return total > 0L && idle >= 0L ? (double) (total - idle) / total : 0d;
+    }
+}
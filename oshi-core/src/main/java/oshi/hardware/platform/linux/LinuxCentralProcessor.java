@@ -1,10 +1,12 @@
 /*
- * Copyright 2016-2022 The OSHI Project Contributors
+ * Copyright 2016-2023 The OSHI Project Contributors
  * SPDX-License-Identifier: MIT
  */
 package oshi.hardware.platform.linux;
 
 import static oshi.software.os.linux.LinuxOperatingSystem.HAS_UDEV;
+import static oshi.util.Memoizer.defaultExpiration;
+import static oshi.util.Memoizer.memoize;
 import static oshi.util.platform.linux.ProcPath.CPUINFO;
 import static oshi.util.platform.linux.ProcPath.MODEL;
 
@@ -22,8 +24,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
-import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
@@ -36,8 +38,9 @@ import com.sun.jna.platform.linux.Udev.UdevEnumerate;
 import com.sun.jna.platform.linux.Udev.UdevListEntry;
 
 import oshi.annotation.concurrent.ThreadSafe;
+import oshi.driver.linux.CpuFrequency;
 import oshi.driver.linux.Lshw;
-import oshi.driver.linux.proc.CpuStat;
+import oshi.driver.linux.proc.ProcStatSnapshot;
 import oshi.hardware.CentralProcessor.ProcessorCache.Type;
 import oshi.hardware.common.AbstractCentralProcessor;
 import oshi.jna.platform.linux.LinuxLibc;
@@ -57,6 +60,14 @@ final class LinuxCentralProcessor extends AbstractCentralProcessor {
 
     private static final Logger LOG = LoggerFactory.getLogger(LinuxCentralProcessor.class);
 
+    // The tick, context switch and interrupt counters are read from one /proc/stat snapshot per expiration
+    private final Supplier<ProcStatCounters> procStat = memoize(this::queryProcStat, defaultExpiration());
+
+    // The cpufreq files of each logical processor, resolved once
+    private final CpuFrequency cpuFrequency = new CpuFrequency(getLogicalProcessorCount());
+    private final Supplier<List<FrequencyScaling>> frequencyScaling = memoize(
+            this.cpuFrequency::queryFrequencyScaling, defaultExpiration());
+
     @Override
     protected ProcessorIdentifier queryProcessorId() {
         String cpuVendor = "";
@@ -292,57 +303,22 @@ final class LinuxCentralProcessor extends AbstractCentralProcessor {
         }
     }
 
+    @Override
+    public long[] getSystemCpuLoadTicks() {
+        return procStat.get().systemTicks;
+    }
+
     @Override
     public long[] querySystemCpuLoadTicks() {
-        // convert the Linux Jiffies to Milliseconds.
-        long[] ticks = CpuStat.getSystemCpuLoadTicks();
-        // In rare cases, /proc/stat reading fails. If so, try again.
-        if (LongStream.of(ticks).sum() == 0) {
-            ticks = CpuStat.getSystemCpuLoadTicks();
-        }
-        long hz = LinuxOperatingSystem.getHz();
-        for (int i = 0; i < ticks.length; i++) {
-            ticks[i] = ticks[i] * 1000L / hz;
-        }
-        return ticks;
+        return queryProcStat().systemTicks;
     }
 
     @Override
     public long[] queryCurrentFreq() {
         long[] freqs = new long[getLogicalProcessorCount()];
         // Attempt to fill array from cpu-freq source
-        long max = 0L;
-        UdevContext udev = Udev.INSTANCE.udev_new();
-        try {
-            UdevEnumerate enumerate = udev.enumerateNew();
-            try {
-                enumerate.addMatchSubsystem("cpu");
-                enumerate.scanDevices();
-                for (UdevListEntry entry = enumerate.getListEntry(); entry != null; entry = entry.getNext()) {
-                    String syspath = entry.getName(); // /sys/devices/system/cpu/cpuX
-                    int cpu = ParseUtil.getFirstIntValue(syspath);
-                    if (cpu >= 0 && cpu < freqs.length) {
-                        freqs[cpu] = FileUtil.getLongFromFile(syspath + "/cpufreq/scaling_cur_freq");
-                        if (freqs[cpu] == 0) {
-                            freqs[cpu] = FileUtil.getLongFromFile(syspath + "/cpufreq/cpuinfo_cur_freq");
-                        }
-                    }
-                    if (max < freqs[cpu]) {
-                        max = freqs[cpu];
-                    }
-                }
-                if (max > 0L) {
-                    // If successful, array is filled with values in KHz.
-                    for (int i = 0; i < freqs.length; i++) {
-                        freqs[i] *= 1000L;
-                    }
-                    return freqs;
-                }
-            } finally {
-                enumerate.unref();
-            }
-        } finally {
-            udev.unref();
+        if (this.cpuFrequency.queryCurrentFreq(freqs) > 0L) {
+            return freqs;
         }
         // If unsuccessful, try from /proc/cpuinfo
         Arrays.fill(freqs, -1);
@@ -359,6 +335,11 @@ final class LinuxCentralProcessor extends AbstractCentralProcessor {
         return freqs;
     }
 
+    @Override
+    public List<FrequencyScaling> getFrequencyScaling() {
+        return frequencyScaling.get();
+    }
+
     @Override
     public long queryMaxFreq() {
         long max = Arrays.stream(this.getCurrentFreq()).max().orElse(-1L);
@@ -428,23 +409,34 @@ final class LinuxCentralProcessor extends AbstractCentralProcessor {
         return average;
     }
 
+    @Override
+    public long[][] getProcessorCpuLoadTicks() {
+        return procStat.get().getProcessorTicks();
+    }
+
+    @Override
+    public int getProcessorCpuLoadTicks(long[] ticks) {
+        long[] flatTicks = procStat.get().flatProcessorTicks;
+        if (ticks.length < flatTicks.length) {
+            throw new IllegalArgumentException(
+                    "Provided tick array length " + ticks.length + " should be at least " + flatTicks.length);
+        }
+        System.arraycopy(flatTicks, 0, ticks, 0, flatTicks.length);
+        return flatTicks.length / TickType.values().length;
+    }
+
     @Override
     public long[][] queryProcessorCpuLoadTicks() {
-        long[][] ticks = CpuStat.getProcessorCpuLoadTicks(getLogicalProcessorCount());
+        return queryProcStat().getProcessorTicks();
+    }
+
+    private ProcStatCounters queryProcStat() {
+        ProcStatSnapshot snapshot = ProcStatSnapshot.query();
         // In rare cases, /proc/stat reading fails. If so, try again.
-        // In theory we should check all of them, but on failure we can expect all 0's
-        // so we only need to check for processor 0
-        if (LongStream.of(ticks[0]).sum() == 0) {
-            ticks = CpuStat.getProcessorCpuLoadTicks(getLogicalProcessorCount());
-        }
-        // convert the Linux Jiffies to Milliseconds.
-        long hz = LinuxOperatingSystem.getHz();
-        for (int i = 0; i < ticks.length; i++) {
-            for (int j = 0; j < ticks[i].length; j++) {
-                ticks[i][j] = ticks[i][j] * 1000L / hz;
-            }
+        if (snapshot.isEmpty()) {
+            snapshot = ProcStatSnapshot.query();
         }
-        return ticks;
+        return new ProcStatCounters(snapshot, getLogicalProcessorCount(), LinuxOperatingSystem.getHz());
     }
 
     /**
@@ -521,13 +513,66 @@ final class LinuxCentralProcessor extends AbstractCentralProcessor {
         return String.format("%08X", midrBytes);
     }
 
+    @Override
+    public long getContextSwitches() {
+        return procStat.get().contextSwitches;
+    }
+
     @Override
     public long queryContextSwitches() {
-        return CpuStat.getContextSwitches();
+        return queryProcStat().contextSwitches;
+    }
+
+    @Override
+    public long getInterrupts() {
+        return procStat.get().interrupts;
     }
 
     @Override
     public long queryInterrupts() {
-        return CpuStat.getInterrupts();
+        return queryProcStat().interrupts;
+    }
+
+    /**
+     * The counters of one {@code /proc/stat} snapshot, with ticks converted from jiffies to milliseconds.
+     */
+    private static final class ProcStatCounters {
+        private final long[] systemTicks;
+        // The processor ticks, ordered by processor, for copying into caller-supplied arrays
+        private final long[] flatProcessorTicks;
+        // The same ticks split by processor, built on first request. Concurrent requests may each build an equal copy.
+        private volatile long[][] processorTicks;
+        private final long contextSwitches;
+        private final long interrupts;
+
+        private ProcStatCounters(ProcStatSnapshot snapshot, int logicalProcessorCount, long hz) {
+            this.systemTicks = snapshot.getSystemCpuLoadTicks();
+            toMillis(this.systemTicks, hz);
+            int tickCount = TickType.values().length;
+            this.flatProcessorTicks = new long[logicalProcessorCount * tickCount];
+            snapshot.getProcessorCpuLoadTicks(logicalProcessorCount, this.flatProcessorTicks);
+            toMillis(this.flatProcessorTicks, hz);
+            this.contextSwitches = snapshot.getContextSwitches();
+            this.interrupts = snapshot.getInterrupts();
+        }
+
+        private long[][] getProcessorTicks() {
+            long[][] ticks = this.processorTicks;
+            if (ticks == null) {
+                int tickCount = TickType.values().length;
+                ticks = new long[this.flatProcessorTicks.length / tickCount][];
+                for (int cpu = 0; cpu < ticks.length; cpu++) {
+                    ticks[cpu] = Arrays.copyOfRange(this.flatProcessorTicks, cpu * tickCount, (cpu + 1) * tickCount);
+                }
+                this.processorTicks = ticks;
+            }
+            return ticks;
+        }
+
+        private static void toMillis(long[] ticks, long hz) {
+            for (int i = 0; i < ticks.length; i++) {
+                ticks[i] = ticks[i] * 1000L / hz;
+            }
+        }
     }
 }
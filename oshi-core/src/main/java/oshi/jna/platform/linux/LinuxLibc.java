@@ -1,10 +1,11 @@
 /*
- * Copyright 2019-2022 The OSHI Project Contributors
+ * Copyright 2019-2023 The OSHI Project Contributors
  * SPDX-License-Identifier: MIT
  */
 package oshi.jna.platform.linux;
 
 import com.sun.jna.Native;
+import com.sun.jna.Pointer;
 import com.sun.jna.Structure;
 import com.sun.jna.Structure.FieldOrder;
 import com.sun.jna.platform.linux.LibC;
@@ -19,6 +20,18 @@ public interface LinuxLibc extends LibC, CLibrary {
 
     LinuxLibc INSTANCE = Native.load("c", LinuxLibc.class);
 
+    int AF_NETLINK = 16;
+    int SOCK_DGRAM = 2;
+    int NETLINK_CONNECTOR = 11;
+    int SOL_SOCKET = 1;
+    int SO_RCVBUF = 8;
+    int SO_RCVTIMEO = 20;
+
+    int EINTR = 4;
+    int EAGAIN = 11;
+    int EINVAL = 22;
+    int ENOBUFS = 105;
+
     /**
      * Return type for getutxent()
      */
@@ -73,4 +86,69 @@ public interface LinuxLibc extends LibC, CLibrary {
      * @return the thread ID of the calling thread.
      */
     int gettid();
+
+    /**
+     * Creates an endpoint for communication.
+     *
+     * @param domain   The protocol family, e.g., {@link #AF_NETLINK}
+     * @param type     The socket type, e.g., {@link #SOCK_DGRAM}
+     * @param protocol The protocol within the family, e.g., {@link #NETLINK_CONNECTOR}
+     * @return A file descriptor for the new socket, or -1 on failure; sets errno on failure
+     */
+    int socket(int domain, int type, int protocol);
+
+    /**
+     * Assigns an address to a socket.
+     *
+     * @param sockfd  The socket file descriptor
+     * @param addr    The address structure, in native byte order
+     * @param addrlen The length of the address structure
+     * @return 0 on success, -1 on failure; sets errno on failure
+     */
+    int bind(int sockfd, byte[] addr, int addrlen);
+
+    /**
+     * Sets an option on a socket.
+     *
+     * @param sockfd  The socket file descriptor
+     * @param level   The protocol level, e.g., {@link #SOL_SOCKET}
+     * @param optname The option name
+     * @param optval  The option value
+     * @param optlen  The length of the option value
+     * @return 0 on success, -1 on failure; sets errno on failure
+     */
+    int setsockopt(int sockfd, int level, int optname, Pointer optval, int optlen);
+
+    /**
+     * Transmits a message on a connected or bound socket.
+     *
+     * @param sockfd The socket file descriptor
+     * @param buf    The message
+     * @param len    The length of the message
+     * @param flags  Bitwise OR of send flags
+     * @return The number of bytes sent, or -1 on failure; sets errno on failure
+     */
+    ssize_t send(int sockfd, byte[] buf, size_t len, int flags);
+
+    /**
+     * Receives a message from a socket, blocking until one is available or a receive timeout expires.
+     *
+     * @param sockfd The socket file descriptor
+     * @param buf    The buffer to receive into
+     * @param len    The length of the buffer
+     * @param flags  Bitwise OR of receive flags
+     * @return The number of bytes received, or -1 on failure; sets errno on failure
+     */
+    ssize_t recv(int sockfd, byte[] buf, size_t len, int flags);
+
+    /**
+     * Gets the CPU affinity mask of a thread. The mask is an array of unsigned longs in which bit {@code i} of the
+     * array represents CPU {@code i}; on little-endian platforms this matches a Java {@code long[]}.
+     *
+     * @param pid        The thread ID, or 0 for the calling thread. For a process ID, this is its main thread.
+     * @param cpusetsize The size of the mask in bytes, which must be at least the kernel's CPU mask size
+     * @param mask       The array to receive the mask
+     * @return 0 on success, -1 on failure; sets errno to {@link #EINVAL} if the mask is too small
+     */
+    int sched_getaffinity(int pid, size_t cpusetsize, long[] mask);
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2016-2022 The OSHI Project Contributors
+ * Copyright 2016-2023 The OSHI Project Contributors
  * SPDX-License-Identifier: MIT
  */
 package oshi.software.common;
@@ -8,14 +8,11 @@ import static oshi.software.os.OperatingSystem.ProcessFiltering.ALL_PROCESSES;
 import static oshi.software.os.OperatingSystem.ProcessSorting.NO_SORTING;
 import static oshi.util.Memoizer.memoize;
 
-import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Queue;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -25,6 +22,8 @@ import com.sun.jna.Platform;
 
 import oshi.software.os.OSProcess;
 import oshi.software.os.OperatingSystem;
+import oshi.software.os.ProcessQuery;
+import oshi.software.os.ProcessTree;
 import oshi.util.GlobalConfig;
 import oshi.util.tuples.Pair;
 
@@ -83,6 +82,9 @@ public abstract class AbstractOperatingSystem implements OperatingSystem {
 
     @Override
     public List<OSProcess> getProcesses(Predicate<OSProcess> filter, Comparator<OSProcess> sort, int limit) {
+        if (limit > 0 && (filter == null || filter == ALL_PROCESSES)) {
+            return getProcesses(ProcessQuery.all(), ProcessField.defaults(), sort, limit);
+        }
         return queryAllProcesses().stream().filter(filter == null ? ALL_PROCESSES : filter)
                 .sorted(sort == null ? NO_SORTING : sort).limit(limit > 0 ? limit : Long.MAX_VALUE)
                 .collect(Collectors.toList());
@@ -90,6 +92,65 @@ public abstract class AbstractOperatingSystem implements OperatingSystem {
 
     protected abstract List<OSProcess> queryAllProcesses();
 
+    @Override
+    public List<OSProcess> getProcesses(Set<ProcessField> fields, Predicate<OSProcess> filter,
+            Comparator<OSProcess> sort, int limit) {
+        if (limit > 0 && (filter == null || filter == ALL_PROCESSES)) {
+            return getProcesses(ProcessQuery.all(), fields, sort, limit);
+        }
+        return queryAllProcesses(fields).stream().filter(filter == null ? ALL_PROCESSES : filter)
+                .sorted(sort == null ? NO_SORTING : sort).limit(limit > 0 ? limit : Long.MAX_VALUE)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Queries all processes, populating at least the requested attributes. Subclasses able to skip unneeded reads
+     * should override this method. The default implementation populates all attributes.
+     *
+     * @param fields The attributes to populate
+     * @return A list of all processes
+     */
+    protected List<OSProcess> queryAllProcesses(Set<ProcessField> fields) {
+        return queryAllProcesses();
+    }
+
+    @Override
+    public List<OSProcess> getProcesses(ProcessQuery query, Set<ProcessField> fields, Comparator<OSProcess> sort,
+            int limit) {
+        return queryProcesses(query, fields, sort, limit).stream().sorted(sort == null ? NO_SORTING : sort)
+                .limit(limit > 0 ? limit : Long.MAX_VALUE).collect(Collectors.toList());
+    }
+
+    /**
+     * Queries the processes matching a query, populating at least the requested attributes. Subclasses able to
+     * evaluate the criteria before loading each process should override this method. The default implementation
+     * filters all processes.
+     *
+     * @param query  The criteria processes must match
+     * @param fields The attributes to populate
+     * @return A list of matching processes
+     */
+    protected List<OSProcess> queryProcesses(ProcessQuery query, Set<ProcessField> fields) {
+        List<OSProcess> procs = queryAllProcesses(fields);
+        return query == ProcessQuery.all() ? procs : procs.stream().filter(query).collect(Collectors.toList());
+    }
+
+    /**
+     * Queries the processes matching a query which are candidates for the top {@code limit} in the given sort order.
+     * Subclasses able to rank processes before loading them should override this method to return only the winners.
+     * The result is sorted and limited by the caller. The default implementation returns all matching processes.
+     *
+     * @param query  The criteria processes must match
+     * @param fields The attributes to populate
+     * @param sort   The sorting order, or {@code null} for no sorting
+     * @param limit  Max number of results required, or 0 for all results
+     * @return A list containing at least the top matching processes
+     */
+    protected List<OSProcess> queryProcesses(ProcessQuery query, Set<ProcessField> fields, Comparator<OSProcess> sort,
+            int limit) {
+        return queryProcesses(query, fields);
+    }
+
     @Override
     public List<OSProcess> getChildProcesses(int parentPid, Predicate<OSProcess> filter, Comparator<OSProcess> sort,
             int limit) {
@@ -100,7 +161,7 @@ public abstract class AbstractOperatingSystem implements OperatingSystem {
         // Get the parent's start time
         long parentStartTime = parent == null ? 0 : parent.getStartTime();
         // Get children after parent
-        return queryChildProcesses(parentPid).stream().filter(filter == null ? ALL_PROCESSES : filter)
+        return childProcs.stream().filter(filter == null ? ALL_PROCESSES : filter)
                 .filter(p -> p.getProcessID() != parentPid && p.getStartTime() >= parentStartTime)
                 .sorted(sort == null ? NO_SORTING : sort).limit(limit > 0 ? limit : Long.MAX_VALUE)
                 .collect(Collectors.toList());
@@ -118,7 +179,7 @@ public abstract class AbstractOperatingSystem implements OperatingSystem {
         // Get the parent's start time
         long parentStartTime = parent == null ? 0 : parent.getStartTime();
         // Get descendants after parent
-        return queryDescendantProcesses(parentPid).stream().filter(filter == null ? ALL_PROCESSES : filter)
+        return descendantProcs.stream().filter(filter == null ? ALL_PROCESSES : filter)
                 .filter(p -> p.getProcessID() != parentPid && p.getStartTime() >= parentStartTime)
                 .sorted(sort == null ? NO_SORTING : sort).limit(limit > 0 ? limit : Long.MAX_VALUE)
                 .collect(Collectors.toList());
@@ -153,28 +214,26 @@ public abstract class AbstractOperatingSystem implements OperatingSystem {
      */
     protected static Set<Integer> getChildrenOrDescendants(Map<Integer, Integer> parentPidMap, int parentPid,
             boolean allDescendants) {
-        // Set to hold results
-        Set<Integer> descendantPids = new HashSet<>();
-        descendantPids.add(parentPid);
-        // Queue for BFS algorithm
-        Queue<Integer> queue = new ArrayDeque<>();
-        queue.add(parentPid);
-        // Add children, repeating if recursive
-        do {
-            for (int pid : getChildren(parentPidMap, queue.poll())) {
-                if (!descendantPids.contains(pid)) {
-                    descendantPids.add(pid);
-                    queue.add(pid);
-                }
-            }
-        } while (allDescendants && !queue.isEmpty());
-        return descendantPids;
+        return getChildrenOrDescendants(ProcessTree.of(parentPidMap), parentPid, allDescendants);
     }
 
-    private static Set<Integer> getChildren(Map<Integer, Integer> parentPidMap, int parentPid) {
-        return parentPidMap.entrySet().stream()
-                .filter(e -> e.getValue().equals(parentPid) && !e.getKey().equals(parentPid)).map(Entry::getKey)
-                .collect(Collectors.toSet());
+    /**
+     * Utility method for subclasses to take a process tree as input and return the children or descendants of a
+     * particular process.
+     *
+     * @param tree           a tree of all processes
+     * @param parentPid      The process ID whose children or descendants to return
+     * @param allDescendants If false, only gets immediate children of this process. If true, gets all descendants.
+     * @return Set of children or descendants of parentPid, including the parent
+     */
+    protected static Set<Integer> getChildrenOrDescendants(ProcessTree tree, int parentPid, boolean allDescendants) {
+        int[] pids = allDescendants ? tree.getDescendants(parentPid) : tree.getChildren(parentPid);
+        Set<Integer> descendantPids = new HashSet<>(pids.length * 2 + 2);
+        descendantPids.add(parentPid);
+        for (int pid : pids) {
+            descendantPids.add(pid);
+        }
+        return descendantPids;
     }
 
     @Override
@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2022 The OSHI Project Contributors
+ * Copyright 2020-2023 The OSHI Project Contributors
  * SPDX-License-Identifier: MIT
  */
 package oshi.software.os;
@@ -8,9 +8,11 @@ import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
 
 import oshi.annotation.concurrent.Immutable;
 import oshi.annotation.concurrent.ThreadSafe;
+import oshi.util.Memoizer;
 
 /**
  * Includes key statistics of TCP and UDP protocols
@@ -285,10 +287,30 @@ public interface InternetProtocolStats {
         private final TcpState state;
         private final int transmitQueue;
         private final int receiveQueue;
-        private int owningProcessId;
+        private final Supplier<Integer> owningProcessId;
 
         public IPConnection(String type, byte[] localAddress, int localPort, byte[] foreignAddress, int foreignPort,
                 TcpState state, int transmitQueue, int receiveQueue, int owningProcessId) {
+            this(type, localAddress, localPort, foreignAddress, foreignPort, state, transmitQueue, receiveQueue,
+                    () -> owningProcessId);
+        }
+
+        /**
+         * Creates a connection whose owning process is looked up only if and when it is first requested, for
+         * operating systems on which finding the owner of each connection is expensive.
+         *
+         * @param type            The connection type
+         * @param localAddress    The local address
+         * @param localPort       The local port
+         * @param foreignAddress  The foreign address
+         * @param foreignPort     The foreign port
+         * @param state           The connection state
+         * @param transmitQueue   The transmit queue size
+         * @param receiveQueue    The receive queue size
+         * @param owningProcessId Supplies the owning process id, or -1 if unknown. Called at most once.
+         */
+        public IPConnection(String type, byte[] localAddress, int localPort, byte[] foreignAddress, int foreignPort,
+                TcpState state, int transmitQueue, int receiveQueue, Supplier<Integer> owningProcessId) {
             this.type = type;
             this.localAddress = Arrays.copyOf(localAddress, localAddress.length);
             this.localPort = localPort;
@@ -297,7 +319,7 @@ public interface InternetProtocolStats {
             this.state = state;
             this.transmitQueue = transmitQueue;
             this.receiveQueue = receiveQueue;
-            this.owningProcessId = owningProcessId;
+            this.owningProcessId = Memoizer.memoize(owningProcessId);
         }
 
         /**
@@ -386,7 +408,7 @@ public interface InternetProtocolStats {
          * @return The process id of the process which holds this connection if known, -1 otherwise.
          */
         public int getowningProcessId() {
-            return owningProcessId;
+            return owningProcessId.get();
         }
 
         @Override
@@ -404,7 +426,7 @@ public interface InternetProtocolStats {
             return "IPConnection [type=" + type + ", localAddress=" + localIp + ", localPort=" + localPort
                     + ", foreignAddress=" + foreignIp + ", foreignPort=" + foreignPort + ", state=" + state
                     + ", transmitQueue=" + transmitQueue + ", receiveQueue=" + receiveQueue + ", owningProcessId="
-                    + owningProcessId + "]";
+                    + getowningProcessId() + "]";
         }
     }
 }
@@ -1,9 +1,10 @@
 /*
- * Copyright 2016-2022 The OSHI Project Contributors
+ * Copyright 2016-2023 The OSHI Project Contributors
  * SPDX-License-Identifier: MIT
  */
 package oshi.software.os;
 
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 
@@ -71,10 +72,49 @@ public interface OSProcess {
      * or same-user ownership.
      *
      * @return A map representing the environment variables and their values. May return an empty map if there was a
-     *         failure (for example, because the process is already dead or permission was denied).
+     *         failure (for example, because the process is already dead or permission was denied). On Linux, a variable
+     *         defined more than once maps to its last definition.
      */
     Map<String, String> getEnvironmentVariables();
 
+    /**
+     * Makes a best effort attempt to obtain the value of one environment variable of the process. May require elevated
+     * permissions or same-user ownership.
+     * <p>
+     * On Linux, the environment is read only until the variable is found, and no strings are created for the other
+     * variables, which is considerably cheaper than {@link #getEnvironmentVariables()} for large environments. If the
+     * variable is defined more than once, the first definition is returned, as by {@code getenv(3)}, whereas
+     * {@link #getEnvironmentVariables()} keeps the last.
+     *
+     * @param name The name of the variable
+     * @return The value of the variable, or {@code null} if it is not set or the environment could not be read
+     */
+    default String getEnvironmentVariable(String name) {
+        return getEnvironmentVariables().get(name);
+    }
+
+    /**
+     * Tests whether {@link #getArguments()} and {@link #getCommandLine()} were cut short by a size limit. On Linux, the
+     * number of bytes read from {@code /proc/[pid]/cmdline} is limited by the
+     * {@code oshi.os.linux.procfs.cmdline.maxbytes} configuration property.
+     *
+     * @return True if arguments beyond the limit were omitted
+     */
+    default boolean isArgumentsTruncated() {
+        return false;
+    }
+
+    /**
+     * Tests whether {@link #getEnvironmentVariables()} was cut short by a size limit. On Linux, the number of bytes
+     * read from {@code /proc/[pid]/environ} is limited by the {@code oshi.os.linux.procfs.environ.maxbytes}
+     * configuration property.
+     *
+     * @return True if variables beyond the limit were omitted
+     */
+    default boolean isEnvironmentTruncated() {
+        return false;
+    }
+
     /**
      * Makes a best effort attempt to obtain the current working directory for the process.
      *
@@ -193,6 +233,53 @@ public interface OSProcess {
      */
     long getResidentSetSize();
 
+    /**
+     * Gets the Proportional Set Size (PSS), the resident memory of the process with each shared page divided by the
+     * number of processes mapping it. Summed over all processes, PSS approximates total memory use without counting
+     * shared libraries more than once.
+     * <p>
+     * On Linux, read from {@code /proc/[pid]/smaps_rollup}, or {@code /proc/[pid]/smaps} on kernels before 4.14, which
+     * are only readable for processes of the same user unless elevated. Reading these is much slower than
+     * {@code stat}, so process lists only include this value when
+     * {@link OperatingSystem.ProcessField#PROPORTIONAL_MEMORY} is requested, and read it on demand otherwise.
+     * <p>
+     * The default implementation returns 0, for operating systems which do not report it.
+     *
+     * @return the Proportional Set Size in bytes, or 0 if not available
+     */
+    default long getProportionalSetSize() {
+        return 0L;
+    }
+
+    /**
+     * Gets the Unique Set Size (USS), the resident memory mapped only by this process. This is the memory which would
+     * be freed if the process exited. See {@link #getProportionalSetSize()} for availability.
+     *
+     * @return the Unique Set Size in bytes, or 0 if not available
+     */
+    default long getUniqueSetSize() {
+        return 0L;
+    }
+
+    /**
+     * Gets the resident memory of this process which is also mapped by other processes. See
+     * {@link #getProportionalSetSize()} for availability.
+     *
+     * @return the shared resident memory in bytes, or 0 if not available
+     */
+    default long getSharedMemorySize() {
+        return 0L;
+    }
+
+    /**
+     * Gets the memory of this process which is swapped out. See {@link #getProportionalSetSize()} for availability.
+     *
+     * @return the swapped memory in bytes, or 0 if not available
+     */
+    default long getSwappedMemorySize() {
+        return 0L;
+    }
+
     /**
      * Gets kernel/system (privileged) time used by the process.
      *
@@ -324,6 +411,19 @@ public interface OSProcess {
      */
     long getAffinityMask();
 
+    /**
+     * Gets the set of logical processors this process is allowed to run on. Unlike {@link #getAffinityMask()}, this is
+     * not limited to 64 processors on operating systems which support more.
+     * <p>
+     * The default implementation converts the result of {@link #getAffinityMask()}.
+     *
+     * @return a new bit set in which each set bit is the index of a processor the process is allowed to run on, empty
+     *         if the Operating System fails to retrieve the affinity
+     */
+    default BitSet getAffinity() {
+        return BitSet.valueOf(new long[] { getAffinityMask() });
+    }
+
     /**
      * Attempts to update process attributes. Returns false if the update fails, which will occur if the process no
      * longer exists.
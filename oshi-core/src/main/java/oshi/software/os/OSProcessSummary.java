@@ -0,0 +1,105 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.software.os;
+
+import java.util.Arrays;
+
+import oshi.annotation.concurrent.Immutable;
+import oshi.software.os.OSProcess.State;
+
+/**
+ * Counts of processes by state and of threads, suitable for health checks which do not need the processes themselves.
+ */
+@Immutable
+public final class OSProcessSummary {
+
+    private final int[] stateCounts;
+    private final int processCount;
+    private final int threadCount;
+    private final int runnableThreadCount;
+    private final int blockedThreadCount;
+
+    /**
+     * Creates a summary.
+     *
+     * @param stateCounts         The number of processes in each state, indexed by {@link State} ordinal
+     * @param threadCount         The total number of threads
+     * @param runnableThreadCount The number of threads running or ready to run, or -1 if not available
+     * @param blockedThreadCount  The number of threads blocked waiting for I/O, or -1 if not available
+     */
+    public OSProcessSummary(int[] stateCounts, int threadCount, int runnableThreadCount, int blockedThreadCount) {
+        this.stateCounts = Arrays.copyOf(stateCounts, State.values().length);
+        int total = 0;
+        for (int count : this.stateCounts) {
+            total += count;
+        }
+        this.processCount = total;
+        this.threadCount = threadCount;
+        this.runnableThreadCount = runnableThreadCount;
+        this.blockedThreadCount = blockedThreadCount;
+    }
+
+    /**
+     * Gets the number of processes.
+     *
+     * @return The number of processes in any state
+     */
+    public int getProcessCount() {
+        return this.processCount;
+    }
+
+    /**
+     * Gets the number of processes in a state, as {@link OSProcess#getState()}. On Linux, {@link State#WAITING} counts
+     * processes in uninterruptible sleep, usually blocked on I/O.
+     *
+     * @param state The state
+     * @return The number of processes in that state
+     */
+    public int getCount(State state) {
+        return this.stateCounts[state.ordinal()];
+    }
+
+    /**
+     * Gets the total number of threads of all processes.
+     *
+     * @return The number of threads
+     */
+    public int getThreadCount() {
+        return this.threadCount;
+    }
+
+    /**
+     * Gets the number of threads running or ready to run. On Linux, this is {@code procs_running} from
+     * {@code /proc/stat}.
+     *
+     * @return The number of runnable threads, or -1 if not available
+     */
+    public int getRunnableThreadCount() {
+        return this.runnableThreadCount;
+    }
+
+    /**
+     * Gets the number of threads blocked waiting for I/O to complete. On Linux, this is {@code procs_blocked} from
+     * {@code /proc/stat}.
+     *
+     * @return The number of blocked threads, or -1 if not available
+     */
+    public int getBlockedThreadCount() {
+        return this.blockedThreadCount;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("OSProcessSummary [processCount=").append(this.processCount);
+        for (State state : State.values()) {
+            if (this.stateCounts[state.ordinal()] > 0) {
+                sb.append(", ").append(state).append('=').append(this.stateCounts[state.ordinal()]);
+            }
+        }
+        return sb.append(", threadCount=").append(this.threadCount).append(", runnableThreadCount=")
+                .append(this.runnableThreadCount).append(", blockedThreadCount=").append(this.blockedThreadCount)
+                .append(']').toString();
+    }
+}
@@ -1,16 +1,20 @@
 /*
- * Copyright 2016-2022 The OSHI Project Contributors
+ * Copyright 2016-2023 The OSHI Project Contributors
  * SPDX-License-Identifier: MIT
  */
 package oshi.software.os;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import oshi.annotation.concurrent.Immutable;
 import oshi.annotation.concurrent.ThreadSafe;
@@ -109,6 +113,93 @@ public interface OperatingSystem {
                 String.CASE_INSENSITIVE_ORDER);
     }
 
+    /**
+     * Groups of {@link OSProcess} attributes which may be requested in
+     * {@link #getProcesses(Set, Predicate, Comparator, int)}, allowing implementations to skip reading the sources of
+     * attributes which are not needed. The process ID is always populated.
+     */
+    enum ProcessField {
+        /**
+         * The process name, see {@link OSProcess#getName()}.
+         */
+        NAME,
+        /**
+         * The process state, see {@link OSProcess#getState()}.
+         */
+        STATE,
+        /**
+         * The parent process ID, see {@link OSProcess#getParentProcessID()}.
+         */
+        PARENT_PROCESS_ID,
+        /**
+         * The thread count and priority, see {@link OSProcess#getThreadCount()} and {@link OSProcess#getPriority()}.
+         */
+        THREADS,
+        /**
+         * The virtual and resident memory sizes, see {@link OSProcess#getVirtualSize()} and
+         * {@link OSProcess#getResidentSetSize()}.
+         */
+        MEMORY,
+        /**
+         * The kernel and user CPU times, see {@link OSProcess#getKernelTime()} and {@link OSProcess#getUserTime()}.
+         */
+        CPU_TIMES,
+        /**
+         * The start time and up time, see {@link OSProcess#getStartTime()} and {@link OSProcess#getUpTime()}.
+         */
+        START_TIME,
+        /**
+         * The minor and major page faults, see {@link OSProcess#getMinorFaults()} and
+         * {@link OSProcess#getMajorFaults()}.
+         */
+        FAULTS,
+        /**
+         * The context switches, see {@link OSProcess#getContextSwitches()}.
+         */
+        CONTEXT_SWITCHES,
+        /**
+         * The user and user ID, see {@link OSProcess#getUser()} and {@link OSProcess#getUserID()}.
+         */
+        USER,
+        /**
+         * The group and group ID, see {@link OSProcess#getGroup()} and {@link OSProcess#getGroupID()}.
+         */
+        GROUP,
+        /**
+         * The bytes read and written, see {@link OSProcess#getBytesRead()} and {@link OSProcess#getBytesWritten()}.
+         */
+        BYTES_IO,
+        /**
+         * The path of the executable, see {@link OSProcess#getPath()}.
+         */
+        PATH,
+        /**
+         * The processor affinity, see {@link OSProcess#getAffinity()} and {@link OSProcess#getAffinityMask()}.
+         */
+        AFFINITY,
+        /**
+         * The proportional, unique, shared and swapped memory sizes, see {@link OSProcess#getProportionalSetSize()},
+         * {@link OSProcess#getUniqueSetSize()}, {@link OSProcess#getSharedMemorySize()} and
+         * {@link OSProcess#getSwappedMemorySize()}. Reading these walks the memory map of each process, so they are not
+         * among the {@link #defaults()} and are only populated when requested.
+         */
+        PROPORTIONAL_MEMORY;
+
+        private static final Set<ProcessField> DEFAULTS = Collections
+                .unmodifiableSet(EnumSet.complementOf(EnumSet.of(PROPORTIONAL_MEMORY)));
+
+        /**
+         * Gets the fields populated when none are specified, such as by
+         * {@link OperatingSystem#getProcesses(Predicate, Comparator, int)}. Fields which are costly to read for every
+         * process are excluded.
+         *
+         * @return An unmodifiable set of fields
+         */
+        public static Set<ProcessField> defaults() {
+            return DEFAULTS;
+        }
+    }
+
     /**
      * Get the Operating System family.
      *
@@ -171,6 +262,81 @@ public interface OperatingSystem {
      */
     List<OSProcess> getProcesses(Predicate<OSProcess> filter, Comparator<OSProcess> sort, int limit);
 
+    /**
+     * Gets currently running processes, populating only the requested attributes, optionally filtering, sorting, and
+     * limited to the top "N".
+     * <p>
+     * Implementations may skip reading the sources of attributes which were not requested, in which case those
+     * attributes return default values (zero or an empty string). The filter and sort should only rely on requested
+     * attributes. Attributes which are always fetched on demand, such as {@link OSProcess#getCommandLine()}, are
+     * unaffected.
+     * <p>
+     * The default implementation populates all attributes.
+     *
+     * @param fields The attributes to populate
+     * @param filter An optional {@link Predicate} limiting the results to the specified filter. May be {@code null}
+     *               for no filtering.
+     * @param sort   An optional {@link Comparator} specifying the sorting order. May be {@code null} for no sorting.
+     * @param limit  Max number of results to return, or 0 to return all results
+     * @return A list of {@link oshi.software.os.OSProcess} objects, optionally filtered, sorted, and limited to the
+     *         specified number.
+     */
+    default List<OSProcess> getProcesses(Set<ProcessField> fields, Predicate<OSProcess> filter,
+            Comparator<OSProcess> sort, int limit) {
+        return getProcesses(filter, sort, limit);
+    }
+
+    /**
+     * Gets currently running processes matching a structured query, populating only the requested attributes,
+     * optionally sorted and limited to the top "N".
+     * <p>
+     * Implementations may evaluate the criteria of the {@link ProcessQuery} against the cheapest available source, so
+     * that processes which do not match are never fully loaded.
+     * <p>
+     * The default implementation applies the query as a filter to all processes.
+     *
+     * @param query  The criteria processes must match
+     * @param fields The attributes to populate, see {@link #getProcesses(Set, Predicate, Comparator, int)}
+     * @param sort   An optional {@link Comparator} specifying the sorting order. May be {@code null} for no sorting.
+     * @param limit  Max number of results to return, or 0 to return all results
+     * @return A list of {@link oshi.software.os.OSProcess} objects matching the query, optionally sorted and limited
+     *         to the specified number.
+     */
+    default List<OSProcess> getProcesses(ProcessQuery query, Set<ProcessField> fields, Comparator<OSProcess> sort,
+            int limit) {
+        return getProcesses(fields, query, sort, limit);
+    }
+
+    /**
+     * Gets a lazily evaluated stream of the currently running processes matching a query, populating only the
+     * requested attributes.
+     * <p>
+     * Implementations may read each process only when the stream reaches it, so that a pipeline which stops early,
+     * such as one ending in {@link Stream#findFirst()}, does not pay for the processes it does not reach. Such streams
+     * may hold an open directory until exhausted, and should be closed, for example in a try-with-resources statement,
+     * if they may not be fully consumed. Processes which terminate before they are reached are omitted. The order of
+     * processes is unspecified.
+     * <p>
+     * The default implementation streams the result of {@link #getProcesses(ProcessQuery, Set, Comparator, int)}.
+     *
+     * @param query  The criteria processes must match
+     * @param fields The attributes to populate, see {@link #getProcesses(Set, Predicate, Comparator, int)}
+     * @return A stream of {@link oshi.software.os.OSProcess} objects matching the query
+     */
+    default Stream<OSProcess> processStream(ProcessQuery query, Set<ProcessField> fields) {
+        return getProcesses(query, fields, null, 0).stream();
+    }
+
+    /**
+     * Gets a lazily evaluated stream of the currently running processes, populating the
+     * {@link ProcessField#defaults()}. See {@link #processStream(ProcessQuery, Set)}.
+     *
+     * @return A stream of {@link oshi.software.os.OSProcess} objects
+     */
+    default Stream<OSProcess> processStream() {
+        return processStream(ProcessQuery.all(), ProcessField.defaults());
+    }
+
     /**
      * Gets information on a {@link Collection} of currently running processes. This has potentially improved
      * performance vs. iterating individual processes.
@@ -230,6 +396,23 @@ public interface OperatingSystem {
     List<OSProcess> getDescendantProcesses(int parentPid, Predicate<OSProcess> filter, Comparator<OSProcess> sort,
             int limit);
 
+    /**
+     * Gets an index of the parent/child relationships of all currently running processes, which may be used for
+     * repeated child, descendant, and ancestor queries without re-enumerating processes.
+     *
+     * @return A {@link ProcessTree} of the currently running processes
+     */
+    default ProcessTree getProcessTree() {
+        List<OSProcess> procs = getProcesses();
+        int[] pids = new int[procs.size()];
+        int[] parentPids = new int[pids.length];
+        for (int i = 0; i < pids.length; i++) {
+            pids[i] = procs.get(i).getProcessID();
+            parentPids[i] = procs.get(i).getParentProcessID();
+        }
+        return ProcessTree.of(pids, parentPids);
+    }
+
     /**
      * Gets the current process ID (PID).
      *
@@ -280,6 +463,41 @@ public interface OperatingSystem {
      */
     int getThreadCount();
 
+    /**
+     * Gets counts of processes by state, and of threads, without returning the processes.
+     * <p>
+     * Implementations may read only the state of each process, which is considerably cheaper than
+     * {@link #getProcesses()} followed by {@link OSProcess#getState()}. The default implementation populates the state
+     * and thread count of every process.
+     *
+     * @return A summary of the current processes
+     */
+    default OSProcessSummary getProcessSummary() {
+        int[] stateCounts = new int[State.values().length];
+        int threads = 0;
+        for (OSProcess p : getProcesses(ProcessQuery.all(), EnumSet.of(ProcessField.STATE, ProcessField.THREADS), null,
+                0)) {
+            stateCounts[p.getState().ordinal()]++;
+            threads += p.getThreadCount();
+        }
+        return new OSProcessSummary(stateCounts, threads, -1, -1);
+    }
+
+    /**
+     * Gets a snapshot of the cumulative counters of the processes matching a query, such as CPU time and bytes read,
+     * from which {@link ProcessMonitor} calculates rates.
+     * <p>
+     * Implementations may read the counters directly from the operating system without creating an
+     * {@link OSProcess} for each process. The default implementation populates the {@link ProcessCounters#FIELDS} of
+     * every matching process.
+     *
+     * @param query The criteria processes must match
+     * @return The counters of the matching processes, in process ID order
+     */
+    default ProcessCounters getProcessCounters(ProcessQuery query) {
+        return new ProcessListCounters(getProcesses(query, ProcessCounters.FIELDS, ProcessSorting.PID_ASC, 0));
+    }
+
     /**
      * Gets the bitness (32 or 64) of the operating system.
      *
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.software.os;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import oshi.annotation.concurrent.Immutable;
+import oshi.software.os.OperatingSystem.ProcessField;
+
+/**
+ * A snapshot of the cumulative counters of a set of processes, one row per process in increasing process ID order,
+ * from which rates can be calculated by comparing successive snapshots. See {@link ProcessMonitor}.
+ * <p>
+ * Implementations omit processes which terminated while the snapshot was taken.
+ */
+@Immutable
+public interface ProcessCounters {
+
+    /**
+     * The process attributes needed to populate the counters.
+     */
+    Set<ProcessField> FIELDS = Collections.unmodifiableSet(EnumSet.of(ProcessField.NAME, ProcessField.CPU_TIMES,
+            ProcessField.START_TIME, ProcessField.FAULTS, ProcessField.CONTEXT_SWITCHES, ProcessField.BYTES_IO));
+
+    /**
+     * Gets the number of processes in the snapshot.
+     *
+     * @return The number of rows
+     */
+    int size();
+
+    int getProcessID(int row);
+
+    String getName(int row);
+
+    /**
+     * Gets the start time of a process, see {@link OSProcess#getStartTime()}.
+     *
+     * @param row The row index
+     * @return The start time, in milliseconds since the epoch
+     */
+    long getStartTime(int row);
+
+    /**
+     * Gets a value which, together with the process ID, identifies a process. Unlike {@link #getStartTime(int)}, the
+     * value does not change for the life of the process, so a different value for the same process ID indicates the ID
+     * was reused.
+     *
+     * @param row The row index
+     * @return The start key, in units which depend on the implementation
+     */
+    long getStartKey(int row);
+
+    long getKernelTime(int row);
+
+    long getUserTime(int row);
+
+    long getBytesRead(int row);
+
+    long getBytesWritten(int row);
+
+    long getMinorFaults(int row);
+
+    long getMajorFaults(int row);
+
+    long getContextSwitches(int row);
+}
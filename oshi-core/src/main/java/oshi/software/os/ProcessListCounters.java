@@ -0,0 +1,95 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.software.os;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import oshi.annotation.concurrent.Immutable;
+
+/**
+ * Process counters read from a list of processes, used where the operating system provides no cheaper source.
+ */
+@Immutable
+final class ProcessListCounters implements ProcessCounters {
+
+    private final List<OSProcess> procs;
+
+    /**
+     * Creates counters from a list of processes.
+     *
+     * @param procs Processes in increasing process ID order. Processes with an invalid state are omitted.
+     */
+    ProcessListCounters(List<OSProcess> procs) {
+        List<OSProcess> valid = new ArrayList<>(procs.size());
+        for (OSProcess p : procs) {
+            // Processes which exited during the scan may be returned with a placeholder state
+            if (p.getState() != OSProcess.State.INVALID) {
+                valid.add(p);
+            }
+        }
+        this.procs = valid;
+    }
+
+    @Override
+    public int size() {
+        return this.procs.size();
+    }
+
+    @Override
+    public int getProcessID(int row) {
+        return this.procs.get(row).getProcessID();
+    }
+
+    @Override
+    public String getName(int row) {
+        return this.procs.get(row).getName();
+    }
+
+    @Override
+    public long getStartTime(int row) {
+        return this.procs.get(row).getStartTime();
+    }
+
+    @Override
+    public long getStartKey(int row) {
+        return this.procs.get(row).getStartTime();
+    }
+
+    @Override
+    public long getKernelTime(int row) {
+        return this.procs.get(row).getKernelTime();
+    }
+
+    @Override
+    public long getUserTime(int row) {
+        return this.procs.get(row).getUserTime();
+    }
+
+    @Override
+    public long getBytesRead(int row) {
+        return this.procs.get(row).getBytesRead();
+    }
+
+    @Override
+    public long getBytesWritten(int row) {
+        return this.procs.get(row).getBytesWritten();
+    }
+
+    @Override
+    public long getMinorFaults(int row) {
+        return this.procs.get(row).getMinorFaults();
+    }
+
+    @Override
+    public long getMajorFaults(int row) {
+        return this.procs.get(row).getMajorFaults();
+    }
+
+    @Override
+    public long getContextSwitches(int row) {
+        return this.procs.get(row).getContextSwitches();
+    }
+}
@@ -0,0 +1,439 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.software.os;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import oshi.annotation.concurrent.GuardedBy;
+import oshi.annotation.concurrent.Immutable;
+import oshi.annotation.concurrent.ThreadSafe;
+import oshi.software.os.OperatingSystem.ProcessSorting;
+
+/**
+ * Tracks changes to the process table between successive updates.
+ * <p>
+ * {@link OSProcess#getProcessCpuLoadBetweenTicks(OSProcess)} requires the caller to retain a prior snapshot of each
+ * process and match them up, and {@link ProcessSorting#CPU_DESC} ranks processes by their lifetime average. A monitor
+ * instead retains the counters of every process from its previous update, keyed by process ID and start time, and on
+ * each {@link #update()} reports the processes whose counters changed, with their CPU load and I/O, page fault, and
+ * context switch rates over the interval, along with the processes which started, exited, or reused a process ID.
+ * <p>
+ * Counters are obtained from {@link OperatingSystem#getProcessCounters(ProcessQuery)} and retained in primitive arrays
+ * which are reused between updates, so objects are only created for processes which changed or were started or exited.
+ * A process is identified by {@link ProcessCounters#getStartKey(int)}, as {@link OSProcess#getStartTime()} may change
+ * between updates for a process started in the last second.
+ */
+@ThreadSafe
+public final class ProcessMonitor {
+
+    private final OperatingSystem os;
+    private final ProcessQuery query;
+
+    @GuardedBy("this")
+    private Counters previous = new Counters();
+    @GuardedBy("this")
+    private Counters current = new Counters();
+    @GuardedBy("this")
+    private boolean primed;
+
+    /**
+     * Creates a monitor of all processes.
+     *
+     * @param os The operating system to query
+     */
+    public ProcessMonitor(OperatingSystem os) {
+        this(os, ProcessQuery.all());
+    }
+
+    /**
+     * Creates a monitor of the processes matching a query. A process which stops matching the query is reported as
+     * exited, and one which starts matching it as started.
+     *
+     * @param os    The operating system to query
+     * @param query The processes to monitor
+     */
+    public ProcessMonitor(OperatingSystem os, ProcessQuery query) {
+        this.os = os;
+        this.query = query;
+    }
+
+    /**
+     * Captures the current process counters and compares them to those of the previous update.
+     * <p>
+     * The first update establishes the baseline and reports no changes or events. The accuracy of the rates depends on
+     * the precision of the operating system's counters; an interval of at least a second is recommended.
+     *
+     * @return The changes since the previous update
+     */
+    public synchronized Update update() {
+        Counters cur = this.current;
+        cur.fill(this.os.getProcessCounters(this.query), System.nanoTime());
+        long now = cur.nanos;
+        Counters prev = this.previous;
+        this.previous = cur;
+        this.current = prev;
+        if (!this.primed) {
+            this.primed = true;
+            return new Update(now, 0L, Collections.emptyList(), Collections.emptyList());
+        }
+
+        long elapsed = now - prev.nanos;
+        List<ProcessDelta> changed = Collections.emptyList();
+        List<ProcessEvent> events = Collections.emptyList();
+        int i = 0;
+        int j = 0;
+        while (i < prev.size || j < cur.size) {
+            int prevPid = i < prev.size ? prev.pid[i] : Integer.MAX_VALUE;
+            int curPid = j < cur.size ? cur.pid[j] : Integer.MAX_VALUE;
+            if (i < prev.size && (j >= cur.size || prevPid < curPid)) {
+                events = add(events, new ProcessEvent(EventType.EXITED, prevPid, prev.name[i], prev.startTime[i]));
+                i++;
+            } else if (j < cur.size && (i >= prev.size || curPid < prevPid)) {
+                events = add(events, new ProcessEvent(EventType.STARTED, curPid, cur.name[j], cur.startTime[j]));
+                j++;
+            } else {
+                if (prev.startKey[i] != cur.startKey[j]) {
+                    events = add(events,
+                            new ProcessEvent(EventType.PID_REUSED, curPid, cur.name[j], cur.startTime[j]));
+                } else if (cur.differs(j, prev, i)) {
+                    changed = add(changed, cur.delta(j, prev, i, elapsed));
+                }
+                i++;
+                j++;
+            }
+        }
+        return new Update(now, elapsed, Collections.unmodifiableList(changed), Collections.unmodifiableList(events));
+    }
+
+    private static <T> List<T> add(List<T> list, T item) {
+        List<T> result = list.isEmpty() ? new ArrayList<>() : list;
+        result.add(item);
+        return result;
+    }
+
+    /**
+     * The counters of every monitored process at one update, in process ID order.
+     */
+    private static final class Counters {
+        private int size;
+        private long nanos;
+        private int[] pid = new int[0];
+        private String[] name = new String[0];
+        private long[] startTime = new long[0];
+        // Identifies the process together with its ID, see ProcessCounters#getStartKey
+        private long[] startKey = new long[0];
+        private long[] cpuTime = new long[0];
+        private long[] bytesRead = new long[0];
+        private long[] bytesWritten = new long[0];
+        private long[] minorFaults = new long[0];
+        private long[] majorFaults = new long[0];
+        private long[] contextSwitches = new long[0];
+
+        private void fill(ProcessCounters counters, long now) {
+            int n = counters.size();
+            ensureCapacity(n);
+            for (int row = 0; row < n; row++) {
+                this.pid[row] = counters.getProcessID(row);
+                this.name[row] = counters.getName(row);
+                this.startTime[row] = counters.getStartTime(row);
+                this.startKey[row] = counters.getStartKey(row);
+                this.cpuTime[row] = counters.getKernelTime(row) + counters.getUserTime(row);
+                this.bytesRead[row] = counters.getBytesRead(row);
+                this.bytesWritten[row] = counters.getBytesWritten(row);
+                this.minorFaults[row] = counters.getMinorFaults(row);
+                this.majorFaults[row] = counters.getMajorFaults(row);
+                this.contextSwitches[row] = counters.getContextSwitches(row);
+            }
+            setSize(n, now);
+        }
+
+        private void ensureCapacity(int n) {
+            if (n > this.pid.length) {
+                int capacity = Math.max(n, this.pid.length + (this.pid.length >> 1));
+                this.pid = new int[capacity];
+                this.name = new String[capacity];
+                this.startTime = new long[capacity];
+                this.startKey = new long[capacity];
+                this.cpuTime = new long[capacity];
+                this.bytesRead = new long[capacity];
+                this.bytesWritten = new long[capacity];
+                this.minorFaults = new long[capacity];
+                this.majorFaults = new long[capacity];
+                this.contextSwitches = new long[capacity];
+            }
+        }
+
+        private void setSize(int row, long now) {
+            // Release names of processes no longer present
+            Arrays.fill(this.name, row, this.size > row ? this.size : row, null);
+            this.size = row;
+            this.nanos = now;
+        }
+
+        private boolean differs(int row, Counters prior, int priorRow) {
+            return this.cpuTime[row] != prior.cpuTime[priorRow] || this.bytesRead[row] != prior.bytesRead[priorRow]
+                    || this.bytesWritten[row] != prior.bytesWritten[priorRow]
+                    || this.minorFaults[row] != prior.minorFaults[priorRow]
+                    || this.majorFaults[row] != prior.majorFaults[priorRow]
+                    || this.contextSwitches[row] != prior.contextSwitches[priorRow];
+        }
+
+        private ProcessDelta delta(int row, Counters prior, int priorRow, long elapsedNanos) {
+            double seconds = elapsedNanos > 0L ? elapsedNanos / 1e9 : Double.POSITIVE_INFINITY;
+            return new ProcessDelta(this.pid[row], this.name[row], this.startTime[row],
+                    nonNegative(this.cpuTime[row] - prior.cpuTime[priorRow]) / (seconds * 1000d),
+                    nonNegative(this.bytesRead[row] - prior.bytesRead[priorRow]) / seconds,
+                    nonNegative(this.bytesWritten[row] - prior.bytesWritten[priorRow]) / seconds,
+                    nonNegative(this.minorFaults[row] - prior.minorFaults[priorRow]) / seconds,
+                    nonNegative(this.majorFaults[row] - prior.majorFaults[priorRow]) / seconds,
+                    nonNegative(this.contextSwitches[row] - prior.contextSwitches[priorRow]) / seconds);
+        }
+
+        private static long nonNegative(long delta) {
+            return delta < 0L ? 0L : delta;
+        }
+    }
+
+    /**
+     * The result of a {@link ProcessMonitor#update()}.
+     */
+    @Immutable
+    public static final class Update {
+        private final long timestamp;
+        private final long interval;
+        private final List<ProcessDelta> changed;
+        private final List<ProcessEvent> events;
+
+        private Update(long timestamp, long interval, List<ProcessDelta> changed, List<ProcessEvent> events) {
+            this.timestamp = timestamp;
+            this.interval = interval;
+            this.changed = changed;
+            this.events = events;
+        }
+
+        /**
+         * Gets the time of this update.
+         *
+         * @return The value of {@link System#nanoTime()} when the processes were captured
+         */
+        public long getTimestamp() {
+            return this.timestamp;
+        }
+
+        /**
+         * Gets the time elapsed since the previous update, over which rates are calculated.
+         *
+         * @return The interval in nanoseconds, or 0 for the first update
+         */
+        public long getInterval() {
+            return this.interval;
+        }
+
+        /**
+         * Gets the processes which were present in both updates and whose counters changed.
+         *
+         * @return An unmodifiable list of changes, in process ID order
+         */
+        public List<ProcessDelta> getChanged() {
+            return this.changed;
+        }
+
+        /**
+         * Gets the processes which started, exited, or reused a process ID since the previous update.
+         *
+         * @return An unmodifiable list of events, in process ID order
+         */
+        public List<ProcessEvent> getEvents() {
+            return this.events;
+        }
+
+        @Override
+        public String toString() {
+            return "Update [interval=" + this.interval + ", changed=" + this.changed.size() + ", events="
+                    + this.events.size() + "]";
+        }
+    }
+
+    /**
+     * The rates of change of a process's counters between two updates.
+     */
+    @Immutable
+    public static final class ProcessDelta {
+        private final int processId;
+        private final String name;
+        private final long startTime;
+        private final double cpuLoad;
+        private final double bytesReadRate;
+        private final double bytesWrittenRate;
+        private final double minorFaultRate;
+        private final double majorFaultRate;
+        private final double contextSwitchRate;
+
+        private ProcessDelta(int processId, String name, long startTime, double cpuLoad, double bytesReadRate,
+                double bytesWrittenRate, double minorFaultRate, double majorFaultRate, double contextSwitchRate) {
+            this.processId = processId;
+            this.name = name;
+            this.startTime = startTime;
+            this.cpuLoad = cpuLoad;
+            this.bytesReadRate = bytesReadRate;
+            this.bytesWrittenRate = bytesWrittenRate;
+            this.minorFaultRate = minorFaultRate;
+            this.majorFaultRate = majorFaultRate;
+            this.contextSwitchRate = contextSwitchRate;
+        }
+
+        public int getProcessID() {
+            return this.processId;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         * Gets the start time of the process, see {@link OSProcess#getStartTime()}.
+         *
+         * @return The start time, in milliseconds since the epoch
+         */
+        public long getStartTime() {
+            return this.startTime;
+        }
+
+        /**
+         * Gets the proportion of the interval that the process was executing in kernel or user mode. As with
+         * {@link OSProcess#getProcessCpuLoadBetweenTicks(OSProcess)}, this sums time across all processors and may
+         * exceed 1 for multi-threaded processes.
+         *
+         * @return The CPU load, where 1 represents one fully used logical processor
+         */
+        public double getCpuLoad() {
+            return this.cpuLoad;
+        }
+
+        /**
+         * Gets the rate at which the process read bytes, see {@link OSProcess#getBytesRead()}.
+         *
+         * @return Bytes read per second
+         */
+        public double getBytesReadRate() {
+            return this.bytesReadRate;
+        }
+
+        /**
+         * Gets the rate at which the process wrote bytes, see {@link OSProcess#getBytesWritten()}.
+         *
+         * @return Bytes written per second
+         */
+        public double getBytesWrittenRate() {
+            return this.bytesWrittenRate;
+        }
+
+        /**
+         * Gets the rate of minor page faults.
+         *
+         * @return Minor faults per second
+         */
+        public double getMinorFaultRate() {
+            return this.minorFaultRate;
+        }
+
+        /**
+         * Gets the rate of major page faults.
+         *
+         * @return Major faults per second
+         */
+        public double getMajorFaultRate() {
+            return this.majorFaultRate;
+        }
+
+        /**
+         * Gets the rate of context switches.
+         *
+         * @return Context switches per second
+         */
+        public double getContextSwitchRate() {
+            return this.contextSwitchRate;
+        }
+
+        @Override
+        public String toString() {
+            return "ProcessDelta [processID=" + this.processId + ", name=" + this.name + ", cpuLoad=" + this.cpuLoad
+                    + ", bytesReadRate=" + this.bytesReadRate + ", bytesWrittenRate=" + this.bytesWrittenRate
+                    + ", minorFaultRate=" + this.minorFaultRate + ", majorFaultRate=" + this.majorFaultRate
+                    + ", contextSwitchRate=" + this.contextSwitchRate + "]";
+        }
+    }
+
+    /**
+     * The type of a {@link ProcessEvent}.
+     */
+    public enum EventType {
+        /**
+         * A process which was not present at the previous update.
+         */
+        STARTED,
+        /**
+         * A process which was present at the previous update and no longer is.
+         */
+        EXITED,
+        /**
+         * A process ID which now belongs to a different process, identified by a different start time. The previous
+         * process exited and the new one started between updates.
+         */
+        PID_REUSED;
+    }
+
+    /**
+     * A change in the set of monitored processes.
+     */
+    @Immutable
+    public static final class ProcessEvent {
+        private final EventType type;
+        private final int processId;
+        private final String name;
+        private final long startTime;
+
+        private ProcessEvent(EventType type, int processId, String name, long startTime) {
+            this.type = type;
+            this.processId = processId;
+            this.name = name;
+            this.startTime = startTime;
+        }
+
+        public EventType getType() {
+            return this.type;
+        }
+
+        public int getProcessID() {
+            return this.processId;
+        }
+
+        /**
+         * Gets the name of the process, which for {@link EventType#EXITED} is its name at the previous update.
+         *
+         * @return The process name
+         */
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         * Gets the start time of the process, which for {@link EventType#PID_REUSED} is that of the new process.
+         *
+         * @return The start time, in milliseconds since the epoch
+         */
+        public long getStartTime() {
+            return this.startTime;
+        }
+
+        @Override
+        public String toString() {
+            return "ProcessEvent [type=" + this.type + ", processID=" + this.processId + ", name=" + this.name + "]";
+        }
+    }
+}
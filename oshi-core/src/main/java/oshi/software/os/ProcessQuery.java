@@ -0,0 +1,285 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.software.os;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import oshi.annotation.concurrent.Immutable;
+import oshi.software.os.OSProcess.State;
+
+/**
+ * Structured criteria for selecting processes.
+ * <p>
+ * Unlike an arbitrary {@link Predicate}, each criterion is known to the operating system implementation, which may
+ * evaluate it against the cheapest available source before loading any other process attributes. For example, on Linux
+ * the process ID set is applied before reading {@code /proc}, and the parent, name, state, and kernel thread criteria
+ * are evaluated from {@code /proc/[pid]/stat} alone.
+ * <p>
+ * Queries are immutable; each {@code with} method returns a new query with the additional criterion. A process must
+ * satisfy every criterion to match. A query also acts as a {@link Predicate} on fully loaded processes, which is how it
+ * is evaluated on platforms without pushdown.
+ */
+@Immutable
+public final class ProcessQuery implements Predicate<OSProcess> {
+
+    private static final ProcessQuery ALL = new ProcessQuery(null, -1, -1, null, null, null, false);
+
+    private final int[] pids;
+    private final int parentPid;
+    private final int userId;
+    private final String nameGlob;
+    private final Pattern namePattern;
+    private final Set<State> states;
+    private final boolean excludeKernelThreads;
+
+    private ProcessQuery(int[] pids, int parentPid, int userId, String nameGlob, Pattern namePattern,
+            Set<State> states, boolean excludeKernelThreads) {
+        this.pids = pids;
+        this.parentPid = parentPid;
+        this.userId = userId;
+        this.nameGlob = nameGlob;
+        this.namePattern = namePattern;
+        this.states = states;
+        this.excludeKernelThreads = excludeKernelThreads;
+    }
+
+    /**
+     * Gets a query matching all processes, to which criteria may be added.
+     *
+     * @return A query with no criteria
+     */
+    public static ProcessQuery all() {
+        return ALL;
+    }
+
+    /**
+     * Restricts the query to a set of process IDs. Duplicate IDs are ignored.
+     *
+     * @param processIds The process IDs to include
+     * @return A new query
+     */
+    public ProcessQuery withProcessIDs(int... processIds) {
+        int[] sorted = Arrays.copyOf(processIds, processIds.length);
+        Arrays.sort(sorted);
+        // Remove duplicates in place so each process is read at most once
+        int unique = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (unique == 0 || sorted[i] != sorted[unique - 1]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        if (unique < sorted.length) {
+            sorted = Arrays.copyOf(sorted, unique);
+        }
+        return new ProcessQuery(sorted, this.parentPid, this.userId, this.nameGlob, this.namePattern, this.states,
+                this.excludeKernelThreads);
+    }
+
+    /**
+     * Restricts the query to the immediate children of a process.
+     *
+     * @param parentProcessId The parent process ID
+     * @return A new query
+     */
+    public ProcessQuery withParentProcessID(int parentProcessId) {
+        if (parentProcessId < 0) {
+            throw new IllegalArgumentException("Parent process ID must not be negative.");
+        }
+        return new ProcessQuery(this.pids, parentProcessId, this.userId, this.nameGlob, this.namePattern, this.states,
+                this.excludeKernelThreads);
+    }
+
+    /**
+     * Restricts the query to processes owned by a user.
+     *
+     * @param userId The numeric user ID
+     * @return A new query
+     */
+    public ProcessQuery withUserID(int userId) {
+        if (userId < 0) {
+            throw new IllegalArgumentException("User ID must not be negative.");
+        }
+        return new ProcessQuery(this.pids, this.parentPid, userId, this.nameGlob, this.namePattern, this.states,
+                this.excludeKernelThreads);
+    }
+
+    /**
+     * Restricts the query to processes whose name matches a glob pattern, where {@code *} matches any sequence of
+     * characters and {@code ?} matches any single character. Matching is case sensitive.
+     *
+     * @param glob The pattern, for example {@code java*}
+     * @return A new query
+     */
+    public ProcessQuery withName(String glob) {
+        return new ProcessQuery(this.pids, this.parentPid, this.userId, glob, globToPattern(glob), this.states,
+                this.excludeKernelThreads);
+    }
+
+    /**
+     * Restricts the query to processes in any of the given states.
+     *
+     * @param first The first state to include
+     * @param rest  Additional states to include
+     * @return A new query
+     */
+    public ProcessQuery withStates(State first, State... rest) {
+        return new ProcessQuery(this.pids, this.parentPid, this.userId, this.nameGlob, this.namePattern,
+                Collections.unmodifiableSet(EnumSet.of(first, rest)), this.excludeKernelThreads);
+    }
+
+    /**
+     * Excludes kernel threads from the query. On Linux these are identified by the kernel's process flags. Elsewhere,
+     * a process with neither an executable path nor a command line is treated as a kernel thread.
+     *
+     * @return A new query
+     */
+    public ProcessQuery excludingKernelThreads() {
+        return new ProcessQuery(this.pids, this.parentPid, this.userId, this.nameGlob, this.namePattern, this.states,
+                true);
+    }
+
+    /**
+     * Gets the process IDs this query is restricted to.
+     *
+     * @return A sorted copy of the distinct process IDs, or {@code null} if the query is not restricted by process ID
+     */
+    public int[] getProcessIDs() {
+        return this.pids == null ? null : Arrays.copyOf(this.pids, this.pids.length);
+    }
+
+    /**
+     * Tests whether this query requires a particular user ID, which may require reading more than the cheapest
+     * source.
+     *
+     * @return True if {@link #withUserID(int)} was applied
+     */
+    public boolean hasUserID() {
+        return this.userId >= 0;
+    }
+
+    /**
+     * Tests whether this query excludes kernel threads.
+     *
+     * @return True if {@link #excludingKernelThreads()} was applied
+     */
+    public boolean isExcludingKernelThreads() {
+        return this.excludeKernelThreads;
+    }
+
+    /**
+     * Tests the process ID criterion.
+     *
+     * @param pid The process ID
+     * @return True if the query is not restricted by process ID or includes this one
+     */
+    public boolean matchesProcessID(int pid) {
+        return this.pids == null || Arrays.binarySearch(this.pids, pid) >= 0;
+    }
+
+    /**
+     * Tests the parent process ID criterion.
+     *
+     * @param parentProcessId The parent process ID
+     * @return True if the query is not restricted by parent or the parent matches
+     */
+    public boolean matchesParentProcessID(int parentProcessId) {
+        return this.parentPid < 0 || this.parentPid == parentProcessId;
+    }
+
+    /**
+     * Tests the user ID criterion.
+     *
+     * @param uid The numeric user ID
+     * @return True if the query is not restricted by user or the user matches
+     */
+    public boolean matchesUserID(int uid) {
+        return this.userId < 0 || this.userId == uid;
+    }
+
+    /**
+     * Tests the name criterion.
+     *
+     * @param name The process name
+     * @return True if the query is not restricted by name or the name matches the glob
+     */
+    public boolean matchesName(String name) {
+        return this.namePattern == null || this.namePattern.matcher(name).matches();
+    }
+
+    /**
+     * Tests the state criterion.
+     *
+     * @param state The process state
+     * @return True if the query is not restricted by state or the state is included
+     */
+    public boolean matchesState(State state) {
+        return this.states == null || this.states.contains(state);
+    }
+
+    /**
+     * Tests a fully loaded process against every criterion.
+     *
+     * @param p The process
+     * @return True if the process matches this query
+     */
+    @Override
+    public boolean test(OSProcess p) {
+        return matchesProcessID(p.getProcessID()) && matchesParentProcessID(p.getParentProcessID())
+                && matchesName(p.getName()) && matchesState(p.getState())
+                && (this.userId < 0 || String.valueOf(this.userId).equals(p.getUserID()))
+                && !(this.excludeKernelThreads && p.getPath().isEmpty() && p.getCommandLine().isEmpty());
+    }
+
+    private static Pattern globToPattern(String glob) {
+        StringBuilder sb = new StringBuilder(glob.length() + 8);
+        int literalStart = 0;
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*' || c == '?') {
+                if (i > literalStart) {
+                    sb.append(Pattern.quote(glob.substring(literalStart, i)));
+                }
+                sb.append(c == '*' ? ".*" : ".");
+                literalStart = i + 1;
+            }
+        }
+        if (literalStart < glob.length()) {
+            sb.append(Pattern.quote(glob.substring(literalStart)));
+        }
+        return Pattern.compile(sb.toString(), Pattern.DOTALL);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ProcessQuery[");
+        if (this.pids != null) {
+            sb.append("pids=").append(Arrays.toString(this.pids)).append(", ");
+        }
+        if (this.parentPid >= 0) {
+            sb.append("ppid=").append(this.parentPid).append(", ");
+        }
+        if (this.userId >= 0) {
+            sb.append("uid=").append(this.userId).append(", ");
+        }
+        if (this.nameGlob != null) {
+            sb.append("name=").append(this.nameGlob).append(", ");
+        }
+        if (this.states != null) {
+            sb.append("states=").append(this.states).append(", ");
+        }
+        if (this.excludeKernelThreads) {
+            sb.append("excludeKernelThreads, ");
+        }
+        if (sb.charAt(sb.length() - 1) == ' ') {
+            sb.setLength(sb.length() - 2);
+        }
+        return sb.append(']').toString();
+    }
+}
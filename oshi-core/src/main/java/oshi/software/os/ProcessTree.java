@@ -0,0 +1,330 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.software.os;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import oshi.annotation.concurrent.Immutable;
+
+/**
+ * An index of parent/child relationships between processes, built once from a snapshot of process IDs and their parent
+ * process IDs.
+ * <p>
+ * Processes are stored in increasing process ID order and identified either by process ID or by their index in that
+ * order. Children are stored in a compact adjacency list, so that child, descendant, and ancestor queries and subtree
+ * roll-ups take time proportional to the size of the result rather than the number of processes.
+ * <p>
+ * A process whose parent is not in the snapshot, or which is its own parent, is a root of the tree. In the unlikely
+ * event that process ID reuse during the snapshot produces a cycle, it is broken at its lowest process ID.
+ */
+@Immutable
+public final class ProcessTree {
+
+    private static final int[] EMPTY = new int[0];
+
+    // Process IDs, sorted, and parent index (-1 for roots) for each
+    private final int[] pids;
+    private final int[] parentPids;
+    private final int[] parentIndex;
+    // Children of node i are childIndex[childStart[i]] to childIndex[childStart[i + 1] - 1]
+    private final int[] childStart;
+    private final int[] childIndex;
+    // Every node in breadth-first order from the roots, so parents precede their children
+    private final int[] order;
+
+    private ProcessTree(int[] pids, int[] parentPids) {
+        int n = pids.length;
+        this.pids = pids;
+        this.parentPids = parentPids;
+        this.parentIndex = new int[n];
+        this.childStart = new int[n + 1];
+        int[] childCount = new int[n];
+        for (int i = 0; i < n; i++) {
+            int parent = pids[i] == parentPids[i] ? -1 : Arrays.binarySearch(pids, parentPids[i]);
+            this.parentIndex[i] = parent < 0 ? -1 : parent;
+            if (parent >= 0) {
+                childCount[parent]++;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            this.childStart[i + 1] = this.childStart[i] + childCount[i];
+        }
+        this.childIndex = new int[this.childStart[n]];
+        int[] fill = Arrays.copyOf(this.childStart, n);
+        for (int i = 0; i < n; i++) {
+            if (this.parentIndex[i] >= 0) {
+                this.childIndex[fill[this.parentIndex[i]]++] = i;
+            }
+        }
+        this.order = breadthFirstOrder();
+    }
+
+    /**
+     * Creates a process tree from parallel arrays of process IDs and parent process IDs.
+     *
+     * @param pids       The process IDs. Duplicate process IDs are not permitted.
+     * @param parentPids The parent process ID of each process
+     * @return A new process tree
+     */
+    public static ProcessTree of(int[] pids, int[] parentPids) {
+        if (pids.length != parentPids.length) {
+            throw new IllegalArgumentException("Process and parent arrays must be the same length.");
+        }
+        int n = pids.length;
+        // Sort by pid, carrying the parent along
+        long[] packed = new long[n];
+        for (int i = 0; i < n; i++) {
+            packed[i] = ((long) pids[i] << 32) | (parentPids[i] & 0xffffffffL);
+        }
+        Arrays.sort(packed);
+        int[] sortedPids = new int[n];
+        int[] sortedParents = new int[n];
+        for (int i = 0; i < n; i++) {
+            sortedPids[i] = (int) (packed[i] >>> 32);
+            sortedParents[i] = (int) packed[i];
+        }
+        return new ProcessTree(sortedPids, sortedParents);
+    }
+
+    /**
+     * Creates a process tree from a map of process IDs to parent process IDs.
+     *
+     * @param parentPidMap A map with process ID as key and parent process ID as value
+     * @return A new process tree
+     */
+    public static ProcessTree of(Map<Integer, Integer> parentPidMap) {
+        int[] pids = new int[parentPidMap.size()];
+        int[] parents = new int[pids.length];
+        int i = 0;
+        for (Entry<Integer, Integer> e : parentPidMap.entrySet()) {
+            pids[i] = e.getKey();
+            parents[i++] = e.getValue();
+        }
+        return of(pids, parents);
+    }
+
+    private int[] breadthFirstOrder() {
+        int n = this.pids.length;
+        int[] queue = new int[n];
+        boolean[] visited = new boolean[n];
+        int tail = 0;
+        for (int i = 0; i < n; i++) {
+            if (this.parentIndex[i] < 0) {
+                visited[i] = true;
+                queue[tail++] = i;
+            }
+        }
+        int head = 0;
+        while (tail < n) {
+            if (head == tail) {
+                // Remaining nodes form a cycle unreachable from any root; break it at the lowest pid
+                int i = 0;
+                while (visited[i]) {
+                    i++;
+                }
+                this.parentIndex[i] = -1;
+                visited[i] = true;
+                queue[tail++] = i;
+            }
+            int node = queue[head++];
+            for (int c = this.childStart[node]; c < this.childStart[node + 1]; c++) {
+                int child = this.childIndex[c];
+                if (!visited[child]) {
+                    visited[child] = true;
+                    queue[tail++] = child;
+                }
+            }
+        }
+        return queue;
+    }
+
+    /**
+     * Gets the number of processes in this tree.
+     *
+     * @return The number of processes
+     */
+    public int size() {
+        return this.pids.length;
+    }
+
+    /**
+     * Gets the index of a process in this tree.
+     *
+     * @param pid The process ID
+     * @return The index of the process, or a negative value if the process is not in this tree
+     */
+    public int indexOf(int pid) {
+        return Arrays.binarySearch(this.pids, pid);
+    }
+
+    /**
+     * Gets the process ID at an index of this tree.
+     *
+     * @param index The index, between 0 and {@link #size()} - 1
+     * @return The process ID
+     */
+    public int getProcessID(int index) {
+        return this.pids[index];
+    }
+
+    /**
+     * Tests whether a process is in this tree.
+     *
+     * @param pid The process ID
+     * @return True if the process is in this tree
+     */
+    public boolean contains(int pid) {
+        return indexOf(pid) >= 0;
+    }
+
+    /**
+     * Gets the parent process ID of a process, as recorded when this tree was built.
+     *
+     * @param pid The process ID
+     * @return The parent process ID, or -1 if the process is not in this tree
+     */
+    public int getParentProcessID(int pid) {
+        int i = indexOf(pid);
+        return i < 0 ? -1 : this.parentPids[i];
+    }
+
+    /**
+     * Gets the immediate children of a process. The process itself need not be in the tree; for example, on Linux the
+     * children of process 0 are {@code init} and {@code kthreadd}.
+     *
+     * @param pid The process ID
+     * @return The process IDs of the children, in increasing order
+     */
+    public int[] getChildren(int pid) {
+        return toPids(childNodes(pid));
+    }
+
+    /**
+     * Gets all descendants of a process: its children, their children, and so on. The process itself need not be in
+     * the tree.
+     *
+     * @param pid The process ID
+     * @return The process IDs of the descendants, in breadth-first order, not including the process itself
+     */
+    public int[] getDescendants(int pid) {
+        return toPids(descendantNodes(pid));
+    }
+
+    /**
+     * Gets the chain of ancestors of a process: its parent, its parent's parent, and so on up to a root.
+     *
+     * @param pid The process ID
+     * @return The process IDs of the ancestors, nearest first, not including the process itself
+     */
+    public int[] getAncestors(int pid) {
+        int i = indexOf(pid);
+        if (i < 0) {
+            return EMPTY;
+        }
+        int[] chain = new int[8];
+        int count = 0;
+        for (int p = this.parentIndex[i]; p >= 0; p = this.parentIndex[p]) {
+            if (count == chain.length) {
+                chain = Arrays.copyOf(chain, count * 2);
+            }
+            chain[count++] = this.pids[p];
+        }
+        return Arrays.copyOf(chain, count);
+    }
+
+    /**
+     * Sums a value over a process and all of its descendants.
+     *
+     * @param pid    The process ID of the subtree root
+     * @param values Values indexed in the same order as this tree, see {@link #indexOf(int)}
+     * @return The sum of the values in the subtree, or of the descendants only if the process is not in this tree
+     */
+    public long sumSubtree(int pid, long[] values) {
+        int i = indexOf(pid);
+        long sum = i < 0 ? 0L : values[i];
+        for (int node : descendantNodes(pid)) {
+            sum += values[node];
+        }
+        return sum;
+    }
+
+    /**
+     * Computes subtree totals for every process in a single bottom-up pass.
+     *
+     * @param values Values indexed in the same order as this tree, see {@link #indexOf(int)}
+     * @return An array in the same order, where each element is the sum of the values of that process and all of its
+     *         descendants
+     */
+    public long[] rollUp(long[] values) {
+        if (values.length != this.pids.length) {
+            throw new IllegalArgumentException("Values must be indexed in the same order as the tree.");
+        }
+        long[] totals = Arrays.copyOf(values, values.length);
+        // Children follow parents in breadth-first order, so iterate in reverse to finish children first
+        for (int o = this.order.length - 1; o >= 0; o--) {
+            int node = this.order[o];
+            int parent = this.parentIndex[node];
+            if (parent >= 0) {
+                totals[parent] += totals[node];
+            }
+        }
+        return totals;
+    }
+
+    private int[] toPids(int[] nodes) {
+        int[] result = new int[nodes.length];
+        for (int n = 0; n < nodes.length; n++) {
+            result[n] = this.pids[nodes[n]];
+        }
+        return result;
+    }
+
+    private int[] childNodes(int pid) {
+        int i = indexOf(pid);
+        int[] children = new int[i < 0 ? 8 : this.childStart[i + 1] - this.childStart[i]];
+        int count = 0;
+        if (i >= 0) {
+            for (int n = this.childStart[i]; n < this.childStart[i + 1]; n++) {
+                // Skip a child whose link was removed to break a cycle
+                if (this.parentIndex[this.childIndex[n]] == i) {
+                    children[count++] = this.childIndex[n];
+                }
+            }
+        } else {
+            // Not in the tree, but may be the recorded parent of some roots
+            for (int n = 0; n < this.pids.length; n++) {
+                if (this.parentIndex[n] < 0 && this.parentPids[n] == pid && this.pids[n] != pid) {
+                    if (count == children.length) {
+                        children = Arrays.copyOf(children, count * 2);
+                    }
+                    children[count++] = n;
+                }
+            }
+        }
+        return count == children.length ? children : Arrays.copyOf(children, count);
+    }
+
+    private int[] descendantNodes(int pid) {
+        int[] children = childNodes(pid);
+        int[] queue = Arrays.copyOf(children, Math.max(16, children.length * 2));
+        int head = 0;
+        int tail = children.length;
+        while (head < tail) {
+            int node = queue[head++];
+            for (int n = this.childStart[node]; n < this.childStart[node + 1]; n++) {
+                int child = this.childIndex[n];
+                if (this.parentIndex[child] == node) {
+                    if (tail == queue.length) {
+                        queue = Arrays.copyOf(queue, tail * 2);
+                    }
+                    queue[tail++] = child;
+                }
+            }
+        }
+        return Arrays.copyOf(queue, tail);
+    }
+}
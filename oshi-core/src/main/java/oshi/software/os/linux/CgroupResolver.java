@@ -0,0 +1,219 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.software.os.linux;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import oshi.annotation.concurrent.GuardedBy;
+import oshi.annotation.concurrent.ThreadSafe;
+import oshi.driver.linux.Cgroup;
+import oshi.driver.linux.proc.ProcessStat;
+import oshi.driver.linux.proc.ProcessStat.PidStat;
+import oshi.driver.linux.proc.ProcessStat.StatBuffer;
+import oshi.software.os.OSProcess;
+import oshi.util.platform.linux.ProcPath;
+
+/**
+ * Resolves processes to their cgroup v2 control group and container, caching the result for each process.
+ * <p>
+ * Cgroup membership rarely changes after a process starts, so reading {@code /proc/[pid]/cgroup} for every process on
+ * every poll is mostly wasted. Entries are keyed by process ID and validated against the start time recorded by the
+ * kernel in {@code /proc/[pid]/stat}, so a reused process ID is never attributed to another process's group. A process
+ * moved to another group is seen once its entry is older than the maximum age given to the constructor. Container
+ * runtimes and systemd move a new process into its group just after it is forked, so by default entries are re-read
+ * after {@value #DEFAULT_MAX_AGE_MILLIS} milliseconds.
+ * <p>
+ * Entries of processes which have exited are removed by {@link #prune()}, which is also called whenever the number of
+ * entries has doubled since the last pruning.
+ * <p>
+ * Usage of a group is best read from the group itself with {@link CgroupStats#query(String)}, which costs a few file
+ * reads per group rather than a read per process.
+ */
+@ThreadSafe
+public final class CgroupResolver {
+
+    /**
+     * The maximum age of an entry for a resolver created with {@link #CgroupResolver()}, in milliseconds.
+     */
+    public static final long DEFAULT_MAX_AGE_MILLIS = 10_000L;
+
+    private static final int MIN_PRUNE_THRESHOLD = 256;
+
+    private final long maxAgeNanos;
+
+    @GuardedBy("this")
+    private final Map<Integer, Membership> entries = new HashMap<>();
+    @GuardedBy("this")
+    private int pruneThreshold = MIN_PRUNE_THRESHOLD;
+
+    /**
+     * Creates a resolver whose entries are re-read after {@link #DEFAULT_MAX_AGE_MILLIS}.
+     */
+    public CgroupResolver() {
+        this(DEFAULT_MAX_AGE_MILLIS);
+    }
+
+    /**
+     * Creates a resolver whose entries are re-read after a maximum age.
+     *
+     * @param maxAgeMillis The time after which an entry is re-read, in milliseconds, or 0 to keep entries until the
+     *                     process exits
+     */
+    public CgroupResolver(long maxAgeMillis) {
+        if (maxAgeMillis < 0) {
+            throw new IllegalArgumentException("Maximum age must not be negative.");
+        }
+        this.maxAgeNanos = maxAgeMillis * 1_000_000L;
+    }
+
+    /**
+     * Gets the cgroup path of a process.
+     *
+     * @param pid        The process ID
+     * @param startTicks The start time of the process as recorded by the kernel, as
+     *                   {@link LinuxProcessTable#getStartTicks(int)}
+     * @return The path relative to the unified hierarchy root, beginning with {@code /}, or an empty string if it
+     *         could not be read
+     */
+    public String getPath(int pid, long startTicks) {
+        return lookup(pid, startTicks).path;
+    }
+
+    /**
+     * Gets the cgroup path of a process.
+     *
+     * @param process The process
+     * @return The path, see {@link #getPath(int, long)}
+     */
+    public String getPath(OSProcess process) {
+        return getPath(process.getProcessID(), startTicks(process));
+    }
+
+    /**
+     * Gets the ID of the container running a process, derived from its cgroup path.
+     *
+     * @param pid        The process ID
+     * @param startTicks The start time of the process as recorded by the kernel, as
+     *                   {@link LinuxProcessTable#getStartTicks(int)}
+     * @return The 64 hexadecimal character container ID, or an empty string if the process is not in a recognized
+     *         container
+     */
+    public String getContainerID(int pid, long startTicks) {
+        return lookup(pid, startTicks).containerId;
+    }
+
+    /**
+     * Gets the ID of the container running a process.
+     *
+     * @param process The process
+     * @return The container ID, see {@link #getContainerID(int, long)}
+     */
+    public String getContainerID(OSProcess process) {
+        return getContainerID(process.getProcessID(), startTicks(process));
+    }
+
+    /**
+     * Groups processes by their cgroup path.
+     *
+     * @param processes The processes to group
+     * @return A map from cgroup path to the processes in that group, in the order they were first encountered.
+     *         Processes whose group could not be read are grouped under an empty string.
+     */
+    public Map<String, List<OSProcess>> groupByPath(Collection<OSProcess> processes) {
+        Map<String, List<OSProcess>> groups = new LinkedHashMap<>();
+        for (OSProcess p : processes) {
+            groups.computeIfAbsent(getPath(p), k -> new ArrayList<>()).add(p);
+        }
+        return groups;
+    }
+
+    /**
+     * Removes the entries of processes which are no longer running.
+     */
+    public void prune() {
+        int[] pids = LinuxProcessTable.queryPids();
+        synchronized (this) {
+            this.entries.keySet().removeIf(pid -> Arrays.binarySearch(pids, pid) < 0);
+            this.pruneThreshold = Math.max(MIN_PRUNE_THRESHOLD, 2 * this.entries.size());
+        }
+    }
+
+    /**
+     * Gets the number of cached processes.
+     *
+     * @return The number of entries
+     */
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Removes all cached entries.
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+    }
+
+    private Membership lookup(int pid, long startTicks) {
+        long now = System.nanoTime();
+        synchronized (this) {
+            Membership m = this.entries.get(pid);
+            if (m != null && m.startTicks == startTicks
+                    && (this.maxAgeNanos == 0L || now - m.readNanos < this.maxAgeNanos)) {
+                return m;
+            }
+        }
+        // Read outside the lock; concurrent misses for one process store equal results
+        String path = Cgroup.queryPath(pid);
+        Membership m = new Membership(startTicks, now, path, Cgroup.parseContainerId(path));
+        boolean full;
+        synchronized (this) {
+            this.entries.put(pid, m);
+            full = this.entries.size() > this.pruneThreshold;
+        }
+        if (full) {
+            prune();
+        }
+        return m;
+    }
+
+    private static long startTicks(OSProcess process) {
+        long ticks = LinuxProcessTable.getStartTicks(process);
+        if (ticks >= 0L) {
+            return ticks;
+        }
+        StatBuffer statBuffer = ProcessStat.getStatBuffer();
+        byte[] buf = statBuffer.getBytes();
+        long[] fields = statBuffer.getFields();
+        String path = String.format(ProcPath.PID_STAT, process.getProcessID());
+        if (ProcessStat.parseStat(buf, ProcessStat.readStat(path, buf), fields) == 0) {
+            return -1L;
+        }
+        return fields[PidStat.STARTTIME.ordinal()];
+    }
+
+    /**
+     * The group of one process when it was read.
+     */
+    private static final class Membership {
+        private final long startTicks;
+        private final long readNanos;
+        private final String path;
+        private final String containerId;
+
+        private Membership(long startTicks, long readNanos, String path, String containerId) {
+            this.startTicks = startTicks;
+            this.readNanos = readNanos;
+            this.path = path;
+            this.containerId = containerId;
+        }
+    }
+}
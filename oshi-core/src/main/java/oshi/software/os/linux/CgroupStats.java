@@ -0,0 +1,192 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.software.os.linux;
+
+import java.io.File;
+import java.util.Map;
+
+import oshi.annotation.concurrent.Immutable;
+import oshi.driver.linux.Cgroup;
+
+/**
+ * Resource usage of a cgroup v2 control group and all of its descendants, read from {@code cpu.stat},
+ * {@code memory.current}, {@code io.stat} and {@code pids.current} in the unified hierarchy.
+ * <p>
+ * The kernel maintains these totals for the group, so the usage of a container or service is read from a few files
+ * rather than summed over its processes, and includes processes which have already exited. Values for a controller
+ * which is not enabled for the group are -1.
+ */
+@Immutable
+public final class CgroupStats {
+
+    private final String path;
+    private final long timestamp;
+    private final long usageMicros;
+    private final long userMicros;
+    private final long systemMicros;
+    private final long throttledCount;
+    private final long throttledMicros;
+    private final long memoryCurrent;
+    private final long bytesRead;
+    private final long bytesWritten;
+    private final long readOps;
+    private final long writeOps;
+    private final long processCount;
+
+    private CgroupStats(String path) {
+        this.path = path;
+        this.timestamp = System.currentTimeMillis();
+        Map<String, Long> cpu = Cgroup.queryFlatKeyed(path, "cpu.stat");
+        this.usageMicros = cpu.getOrDefault("usage_usec", -1L);
+        this.userMicros = cpu.getOrDefault("user_usec", -1L);
+        this.systemMicros = cpu.getOrDefault("system_usec", -1L);
+        this.throttledCount = cpu.getOrDefault("nr_throttled", -1L);
+        this.throttledMicros = cpu.getOrDefault("throttled_usec", -1L);
+        this.memoryCurrent = Cgroup.querySingleValue(path, "memory.current");
+        // io.stat omits devices without I/O, so an empty file is no I/O if the controller is enabled
+        Map<String, Long> io = Cgroup.queryNestedKeyedTotals(path, "io.stat");
+        long ioDefault = io.isEmpty() && !new File(Cgroup.UNIFIED_ROOT + path + "/io.stat").exists() ? -1L : 0L;
+        this.bytesRead = io.getOrDefault("rbytes", ioDefault);
+        this.bytesWritten = io.getOrDefault("wbytes", ioDefault);
+        this.readOps = io.getOrDefault("rios", ioDefault);
+        this.writeOps = io.getOrDefault("wios", ioDefault);
+        this.processCount = Cgroup.querySingleValue(path, "pids.current");
+    }
+
+    /**
+     * Reads the statistics of a control group.
+     *
+     * @param path The cgroup path relative to the unified hierarchy root, as returned by
+     *             {@link CgroupResolver#getPath(int, long)}; {@code /} or an empty string for the root group
+     * @return The statistics. If the group does not exist, all values are -1.
+     */
+    public static CgroupStats query(String path) {
+        return new CgroupStats("/".equals(path) ? "" : path);
+    }
+
+    /**
+     * Gets the cgroup path.
+     *
+     * @return The path relative to the unified hierarchy root, empty for the root group
+     */
+    public String getPath() {
+        return this.path;
+    }
+
+    /**
+     * Gets the time these statistics were read.
+     *
+     * @return The time, in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    /**
+     * Gets the total CPU time used by the group.
+     *
+     * @return The CPU time in microseconds
+     */
+    public long getCpuUsageMicros() {
+        return this.usageMicros;
+    }
+
+    /**
+     * Gets the user CPU time used by the group.
+     *
+     * @return The CPU time in microseconds
+     */
+    public long getUserMicros() {
+        return this.userMicros;
+    }
+
+    /**
+     * Gets the system CPU time used by the group.
+     *
+     * @return The CPU time in microseconds
+     */
+    public long getSystemMicros() {
+        return this.systemMicros;
+    }
+
+    /**
+     * Gets the number of periods in which the group was throttled by its CPU limit.
+     *
+     * @return The number of throttled periods, or -1 if the cpu controller is not enabled
+     */
+    public long getThrottledCount() {
+        return this.throttledCount;
+    }
+
+    /**
+     * Gets the time for which the group was throttled by its CPU limit.
+     *
+     * @return The throttled time in microseconds, or -1 if the cpu controller is not enabled
+     */
+    public long getThrottledMicros() {
+        return this.throttledMicros;
+    }
+
+    /**
+     * Gets the memory currently used by the group, including page cache.
+     *
+     * @return The memory in bytes, or -1 if the memory controller is not enabled
+     */
+    public long getMemoryCurrent() {
+        return this.memoryCurrent;
+    }
+
+    /**
+     * Gets the bytes read from block devices by the group.
+     *
+     * @return The bytes read, or -1 if the io controller is not enabled
+     */
+    public long getBytesRead() {
+        return this.bytesRead;
+    }
+
+    /**
+     * Gets the bytes written to block devices by the group.
+     *
+     * @return The bytes written, or -1 if the io controller is not enabled
+     */
+    public long getBytesWritten() {
+        return this.bytesWritten;
+    }
+
+    /**
+     * Gets the read operations on block devices by the group.
+     *
+     * @return The read operations, or -1 if the io controller is not enabled
+     */
+    public long getReadOps() {
+        return this.readOps;
+    }
+
+    /**
+     * Gets the write operations on block devices by the group.
+     *
+     * @return The write operations, or -1 if the io controller is not enabled
+     */
+    public long getWriteOps() {
+        return this.writeOps;
+    }
+
+    /**
+     * Gets the number of processes and threads in the group.
+     *
+     * @return The number of tasks, or -1 if the pids controller is not enabled
+     */
+    public long getProcessCount() {
+        return this.processCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CgroupStats [path=" + this.path + ", usageMicros=" + this.usageMicros + ", memoryCurrent="
+                + this.memoryCurrent + ", bytesRead=" + this.bytesRead + ", bytesWritten=" + this.bytesWritten
+                + ", processCount=" + this.processCount + "]";
+    }
+}
@@ -0,0 +1,479 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.software.os.linux;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import oshi.annotation.concurrent.GuardedBy;
+import oshi.annotation.concurrent.Immutable;
+import oshi.annotation.concurrent.ThreadSafe;
+import oshi.driver.linux.proc.ProcessStat;
+import oshi.driver.linux.proc.ProcessStat.PidStat;
+import oshi.driver.linux.proc.ProcessStat.StatBuffer;
+import oshi.software.os.OSThread;
+import oshi.util.ProcScanner;
+import oshi.util.platform.linux.ProcPath;
+
+/**
+ * Finds the busiest threads of a process between successive samples.
+ * <p>
+ * {@link OSThread#getThreadCpuLoadBetweenTicks(OSThread)} requires the caller to retain and match a prior snapshot of
+ * every thread, which creates several objects per thread on each poll. A sampler instead reads
+ * {@code /proc/[pid]/task/[tid]/stat} for every thread into primitive arrays which are reused between samples, matches
+ * them to the previous sample by thread ID and start time, and on each {@link #sample(int)} reports only the top
+ * threads by CPU load, context switch rate and page fault rate. Objects are created only for the reported threads, so
+ * processes with thousands of threads, such as large JVMs, can be sampled every second.
+ * <p>
+ * Threads are read with the {@link ProcScanner} in use, so sampling is parallel if {@code /proc} scans are.
+ */
+@ThreadSafe
+public final class HotThreadSampler {
+
+    // The kernel's TASK_COMM_LEN, including the terminating null which is not written to stat
+    private static final int NAME_LENGTH = 16;
+
+    private final int pid;
+    private final String taskPath;
+    private final boolean contextSwitches;
+
+    @GuardedBy("this")
+    private Tasks previous = new Tasks();
+    @GuardedBy("this")
+    private Tasks current = new Tasks();
+    @GuardedBy("this")
+    private boolean primed;
+    // Rates of the rows of the current sample
+    @GuardedBy("this")
+    private double[] cpuLoad = new double[0];
+    @GuardedBy("this")
+    private double[] switchRate = new double[0];
+    @GuardedBy("this")
+    private double[] faultRate = new double[0];
+    @GuardedBy("this")
+    private double[] heapKeys = new double[0];
+    @GuardedBy("this")
+    private int[] heapRows = new int[0];
+    @GuardedBy("this")
+    private int[] tids = new int[0];
+
+    /**
+     * Creates a sampler of the threads of a process which reads only their {@code stat} files. Context switch rates
+     * are reported as 0.
+     *
+     * @param pid The process ID
+     */
+    public HotThreadSampler(int pid) {
+        this(pid, false);
+    }
+
+    /**
+     * Creates a sampler of the threads of a process.
+     *
+     * @param pid             The process ID
+     * @param contextSwitches Whether to also read {@code /proc/[pid]/task/[tid]/schedstat} for each thread to rank
+     *                        threads by context switches. This doubles the number of files read per sample.
+     */
+    public HotThreadSampler(int pid, boolean contextSwitches) {
+        this.pid = pid;
+        this.taskPath = String.format(ProcPath.TASK_PATH, pid);
+        this.contextSwitches = contextSwitches;
+    }
+
+    /**
+     * Gets the process ID of the sampled process.
+     *
+     * @return The process ID
+     */
+    public int getProcessID() {
+        return this.pid;
+    }
+
+    /**
+     * Captures the counters of every thread of the process and compares them to those of the previous sample.
+     * <p>
+     * The first sample establishes the baseline and reports no threads. A thread which started since the previous
+     * sample is reported with all of its usage attributed to the interval. The CPU counters have the resolution of the
+     * kernel's clock tick, usually 10 milliseconds; an interval of at least a second is recommended.
+     *
+     * @param n The maximum number of threads in each ranking
+     * @return The top threads since the previous sample. If the process is no longer running, the sample reports no
+     *         threads.
+     */
+    public synchronized Sample sample(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Number of threads must not be negative.");
+        }
+        Tasks cur = this.current;
+        fill(cur);
+        Tasks prev = this.previous;
+        this.previous = cur;
+        this.current = prev;
+        if (!this.primed) {
+            this.primed = true;
+            return new Sample(cur.nanos, 0L, cur.size, Collections.emptyList(), Collections.emptyList(),
+                    Collections.emptyList());
+        }
+
+        long elapsed = cur.nanos - prev.nanos;
+        computeRates(cur, prev, elapsed);
+        // No ranking holds more than the threads sampled; the arrays are only replaced when a larger heap is needed
+        int capacity = Math.min(n, cur.size);
+        if (this.heapKeys.length < capacity) {
+            this.heapKeys = new double[capacity];
+            this.heapRows = new int[capacity];
+        }
+        return new Sample(cur.nanos, elapsed, cur.size, top(cur, this.cpuLoad, capacity),
+                top(cur, this.switchRate, capacity), top(cur, this.faultRate, capacity));
+    }
+
+    /**
+     * Lists and reads the threads of the process into the given storage, in thread ID order.
+     */
+    private void fill(Tasks tasks) {
+        String[] names = new File(this.taskPath).list();
+        int count = 0;
+        if (names != null) {
+            if (names.length > this.tids.length) {
+                this.tids = new int[Math.max(names.length, this.tids.length + (this.tids.length >> 1))];
+            }
+            for (String name : names) {
+                int tid = LinuxProcessTable.parsePid(name);
+                if (tid >= 0) {
+                    this.tids[count++] = tid;
+                }
+            }
+            Arrays.sort(this.tids, 0, count);
+        }
+        tasks.ensureCapacity(count);
+        int[] listed = this.tids;
+        ProcScanner.get().forEachRange(count, (range, from, to) -> readRange(tasks, listed, from, to));
+        // Remove threads which exited during the scan
+        int row = 0;
+        for (int i = 0; i < count; i++) {
+            if (tasks.tid[i] >= 0) {
+                if (i != row) {
+                    tasks.moveRow(i, row);
+                }
+                row++;
+            }
+        }
+        tasks.size = row;
+        tasks.nanos = System.nanoTime();
+    }
+
+    private void readRange(Tasks tasks, int[] listed, int from, int to) {
+        StatBuffer statBuffer = ProcessStat.getStatBuffer();
+        byte[] buf = statBuffer.getBytes();
+        long[] statArray = statBuffer.getFields();
+        StringBuilder sb = new StringBuilder(this.taskPath.length() + 24);
+        for (int i = from; i < to; i++) {
+            int tid = listed[i];
+            sb.setLength(0);
+            sb.append(this.taskPath).append('/').append(tid);
+            int dirLength = sb.length();
+            if (ProcessStat.parseStat(buf, ProcessStat.readStat(sb.append("/stat").toString(), buf), statArray) == 0) {
+                tasks.tid[i] = -1;
+                continue;
+            }
+            tasks.tid[i] = tid;
+            tasks.startTime[i] = statArray[PidStat.STARTTIME.ordinal()];
+            tasks.cpuTicks[i] = statArray[PidStat.UTIME.ordinal()] + statArray[PidStat.STIME.ordinal()];
+            tasks.minorFaults[i] = statArray[PidStat.MINFLT.ordinal()];
+            tasks.majorFaults[i] = statArray[PidStat.MAJFLT.ordinal()];
+            long offsets = statArray[PidStat.COMM.ordinal()];
+            int start = (int) (offsets >>> 32);
+            int length = Math.min((int) offsets - start, NAME_LENGTH);
+            System.arraycopy(buf, start, tasks.names, i * NAME_LENGTH, length);
+            tasks.nameLength[i] = (byte) length;
+            if (this.contextSwitches) {
+                sb.setLength(dirLength);
+                tasks.switches[i] = parseScheduledCount(buf,
+                        ProcessStat.readStat(sb.append("/schedstat").toString(), buf));
+            }
+        }
+    }
+
+    /**
+     * Parses the third field of a {@code schedstat} file, the number of times the thread was scheduled onto a
+     * processor. Each such time follows a voluntary or involuntary context switch.
+     *
+     * @return The count, or 0 if the file could not be read
+     */
+    private static long parseScheduledCount(byte[] buf, int len) {
+        int i = 0;
+        for (int field = 0; field < 2; field++) {
+            while (i < len && buf[i] != ' ') {
+                i++;
+            }
+            i++;
+        }
+        long value = 0L;
+        for (; i < len && buf[i] >= '0' && buf[i] <= '9'; i++) {
+            value = value * 10 + buf[i] - '0';
+        }
+        return value;
+    }
+
+    private void computeRates(Tasks cur, Tasks prev, long elapsedNanos) {
+        if (cur.size > this.cpuLoad.length) {
+            this.cpuLoad = new double[cur.tid.length];
+            this.switchRate = new double[cur.tid.length];
+            this.faultRate = new double[cur.tid.length];
+        }
+        double seconds = elapsedNanos > 0L ? elapsedNanos / 1e9 : Double.POSITIVE_INFINITY;
+        double ticks = seconds * LinuxOperatingSystem.getHz();
+        int i = 0;
+        for (int j = 0; j < cur.size; j++) {
+            while (i < prev.size && prev.tid[i] < cur.tid[j]) {
+                i++;
+            }
+            if (i < prev.size && prev.tid[i] == cur.tid[j] && prev.startTime[i] == cur.startTime[j]) {
+                this.cpuLoad[j] = nonNegative(cur.cpuTicks[j] - prev.cpuTicks[i]) / ticks;
+                this.switchRate[j] = nonNegative(cur.switches[j] - prev.switches[i]) / seconds;
+                this.faultRate[j] = nonNegative(
+                        cur.minorFaults[j] + cur.majorFaults[j] - prev.minorFaults[i] - prev.majorFaults[i]) / seconds;
+            } else {
+                // Started since the previous sample, so all of its usage is within the interval
+                this.cpuLoad[j] = cur.cpuTicks[j] / ticks;
+                this.switchRate[j] = cur.switches[j] / seconds;
+                this.faultRate[j] = (cur.minorFaults[j] + cur.majorFaults[j]) / seconds;
+            }
+        }
+    }
+
+    private static long nonNegative(long delta) {
+        return delta < 0L ? 0L : delta;
+    }
+
+    /**
+     * Selects the rows with the highest positive values of a rate, in descending order.
+     */
+    private List<HotThread> top(Tasks cur, double[] rates, int capacity) {
+        int heapSize = 0;
+        if (capacity > 0) {
+            for (int row = 0; row < cur.size; row++) {
+                if (rates[row] > 0d) {
+                    heapSize = LinuxProcessTable.offer(this.heapKeys, this.heapRows, heapSize, capacity, rates[row],
+                            row);
+                }
+            }
+        }
+        if (heapSize == 0) {
+            return Collections.emptyList();
+        }
+        LinuxProcessTable.sortDescending(this.heapKeys, this.heapRows, heapSize);
+        List<HotThread> threads = new ArrayList<>(heapSize);
+        for (int k = 0; k < heapSize; k++) {
+            int row = this.heapRows[k];
+            threads.add(new HotThread(cur.tid[row],
+                    new String(cur.names, row * NAME_LENGTH, cur.nameLength[row], StandardCharsets.UTF_8),
+                    this.cpuLoad[row], this.switchRate[row], this.faultRate[row]));
+        }
+        return Collections.unmodifiableList(threads);
+    }
+
+    /**
+     * The counters of every thread at one sample, in thread ID order.
+     */
+    private static final class Tasks {
+        private int size;
+        private long nanos;
+        private int[] tid = new int[0];
+        private long[] startTime = new long[0];
+        private long[] cpuTicks = new long[0];
+        private long[] minorFaults = new long[0];
+        private long[] majorFaults = new long[0];
+        private long[] switches = new long[0];
+        // Names are stored as bytes and decoded only for reported threads
+        private byte[] names = new byte[0];
+        private byte[] nameLength = new byte[0];
+
+        private void ensureCapacity(int n) {
+            if (n > this.tid.length) {
+                int capacity = Math.max(n, this.tid.length + (this.tid.length >> 1));
+                this.tid = new int[capacity];
+                this.startTime = new long[capacity];
+                this.cpuTicks = new long[capacity];
+                this.minorFaults = new long[capacity];
+                this.majorFaults = new long[capacity];
+                this.switches = new long[capacity];
+                this.names = new byte[capacity * NAME_LENGTH];
+                this.nameLength = new byte[capacity];
+            }
+        }
+
+        private void moveRow(int from, int to) {
+            this.tid[to] = this.tid[from];
+            this.startTime[to] = this.startTime[from];
+            this.cpuTicks[to] = this.cpuTicks[from];
+            this.minorFaults[to] = this.minorFaults[from];
+            this.majorFaults[to] = this.majorFaults[from];
+            this.switches[to] = this.switches[from];
+            System.arraycopy(this.names, from * NAME_LENGTH, this.names, to * NAME_LENGTH, NAME_LENGTH);
+            this.nameLength[to] = this.nameLength[from];
+        }
+    }
+
+    /**
+     * The result of a {@link HotThreadSampler#sample(int)}.
+     */
+    @Immutable
+    public static final class Sample {
+        private final long timestamp;
+        private final long interval;
+        private final int threadCount;
+        private final List<HotThread> topByCpu;
+        private final List<HotThread> topByContextSwitches;
+        private final List<HotThread> topByFaults;
+
+        private Sample(long timestamp, long interval, int threadCount, List<HotThread> topByCpu,
+                List<HotThread> topByContextSwitches, List<HotThread> topByFaults) {
+            this.timestamp = timestamp;
+            this.interval = interval;
+            this.threadCount = threadCount;
+            this.topByCpu = topByCpu;
+            this.topByContextSwitches = topByContextSwitches;
+            this.topByFaults = topByFaults;
+        }
+
+        /**
+         * Gets the time of this sample.
+         *
+         * @return The value of {@link System#nanoTime()} when the threads were read
+         */
+        public long getTimestamp() {
+            return this.timestamp;
+        }
+
+        /**
+         * Gets the time elapsed since the previous sample, over which rates are calculated.
+         *
+         * @return The interval in nanoseconds, or 0 for the first sample
+         */
+        public long getInterval() {
+            return this.interval;
+        }
+
+        /**
+         * Gets the number of threads of the process at this sample.
+         *
+         * @return The number of threads, 0 if the process is not running
+         */
+        public int getThreadCount() {
+            return this.threadCount;
+        }
+
+        /**
+         * Gets the threads which used the most CPU time during the interval.
+         *
+         * @return An unmodifiable list of threads with a positive CPU load, in descending order of CPU load
+         */
+        public List<HotThread> getTopByCpu() {
+            return this.topByCpu;
+        }
+
+        /**
+         * Gets the threads which were switched onto a processor most often during the interval. Empty unless the
+         * sampler was created to read context switches.
+         *
+         * @return An unmodifiable list of threads with a positive context switch rate, in descending order of that rate
+         */
+        public List<HotThread> getTopByContextSwitches() {
+            return this.topByContextSwitches;
+        }
+
+        /**
+         * Gets the threads which caused the most minor and major page faults during the interval.
+         *
+         * @return An unmodifiable list of threads with a positive fault rate, in descending order of that rate
+         */
+        public List<HotThread> getTopByFaults() {
+            return this.topByFaults;
+        }
+
+        @Override
+        public String toString() {
+            return "Sample [interval=" + this.interval + ", threadCount=" + this.threadCount + ", topByCpu="
+                    + this.topByCpu + "]";
+        }
+    }
+
+    /**
+     * The rates of one thread between two samples.
+     */
+    @Immutable
+    public static final class HotThread {
+        private final int threadId;
+        private final String name;
+        private final double cpuLoad;
+        private final double contextSwitchRate;
+        private final double faultRate;
+
+        private HotThread(int threadId, String name, double cpuLoad, double contextSwitchRate, double faultRate) {
+            this.threadId = threadId;
+            this.name = name;
+            this.cpuLoad = cpuLoad;
+            this.contextSwitchRate = contextSwitchRate;
+            this.faultRate = faultRate;
+        }
+
+        /**
+         * Gets the thread ID, see {@link OSThread#getThreadId()}.
+         *
+         * @return The thread ID
+         */
+        public int getThreadId() {
+            return this.threadId;
+        }
+
+        /**
+         * Gets the name of the thread, as set by the application, truncated by the kernel to 15 bytes.
+         *
+         * @return The thread name
+         */
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         * Gets the proportion of the interval that the thread was executing in kernel or user mode.
+         *
+         * @return The CPU load, where 1 represents one fully used logical processor
+         */
+        public double getCpuLoad() {
+            return this.cpuLoad;
+        }
+
+        /**
+         * Gets the rate at which the thread was scheduled onto a processor, following a voluntary or involuntary
+         * context switch.
+         *
+         * @return Context switches per second, or 0 if the sampler does not read context switches
+         */
+        public double getContextSwitchRate() {
+            return this.contextSwitchRate;
+        }
+
+        /**
+         * Gets the rate at which the thread caused minor and major page faults.
+         *
+         * @return Page faults per second
+         */
+        public double getFaultRate() {
+            return this.faultRate;
+        }
+
+        @Override
+        public String toString() {
+            return "HotThread [threadId=" + this.threadId + ", name=" + this.name + ", cpuLoad=" + this.cpuLoad
+                    + ", contextSwitchRate=" + this.contextSwitchRate + ", faultRate=" + this.faultRate + "]";
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2022 The OSHI Project Contributors
+ * Copyright 2020-2023 The OSHI Project Contributors
  * SPDX-License-Identifier: MIT
  */
 package oshi.software.os.linux;
@@ -19,10 +19,8 @@ import static oshi.software.os.InternetProtocolStats.TcpState.UNKNOWN;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import oshi.annotation.concurrent.ThreadSafe;
-import oshi.driver.linux.proc.ProcessStat;
 import oshi.driver.unix.NetStat;
 import oshi.software.common.AbstractInternetProtocolStats;
 import oshi.util.FileUtil;
@@ -36,6 +34,8 @@ import oshi.util.tuples.Pair;
 @ThreadSafe
 public class LinuxInternetProtocolStats extends AbstractInternetProtocolStats {
 
+    private static final SocketInodeIndex SOCKET_INDEX = new SocketInodeIndex();
+
     @Override
     public TcpStats getTCPv4Stats() {
         return NetStat.queryTcpStats("netstat -st4");
@@ -53,16 +53,18 @@ public class LinuxInternetProtocolStats extends AbstractInternetProtocolStats {
 
     @Override
     public List<IPConnection> getConnections() {
+        // Owners are resolved from the socket index only for connections whose owner is requested, refreshing the
+        // index at most once for this call
+        long asOf = System.nanoTime();
         List<IPConnection> conns = new ArrayList<>();
-        Map<Integer, Integer> pidMap = ProcessStat.querySocketToPidMap();
-        conns.addAll(queryConnections("tcp", 4, pidMap));
-        conns.addAll(queryConnections("tcp", 6, pidMap));
-        conns.addAll(queryConnections("udp", 4, pidMap));
-        conns.addAll(queryConnections("udp", 6, pidMap));
+        conns.addAll(queryConnections("tcp", 4, asOf));
+        conns.addAll(queryConnections("tcp", 6, asOf));
+        conns.addAll(queryConnections("udp", 4, asOf));
+        conns.addAll(queryConnections("udp", 6, asOf));
         return conns;
     }
 
-    private static List<IPConnection> queryConnections(String protocol, int ipver, Map<Integer, Integer> pidMap) {
+    private static List<IPConnection> queryConnections(String protocol, int ipver, long asOf) {
         List<IPConnection> conns = new ArrayList<>();
         for (String s : FileUtil.readFile(ProcPath.NET + "/" + protocol + (ipver == 6 ? "6" : ""))) {
             if (s.indexOf(':') >= 0) {
@@ -72,9 +74,9 @@ public class LinuxInternetProtocolStats extends AbstractInternetProtocolStats {
                     Pair<byte[], Integer> fAddr = parseIpAddr(split[2]);
                     TcpState state = stateLookup(ParseUtil.hexStringToInt(split[3], 0));
                     Pair<Integer, Integer> txQrxQ = parseHexColonHex(split[4]);
-                    int inode = ParseUtil.parseIntOrDefault(split[9], 0);
+                    long inode = ParseUtil.parseLongOrDefault(split[9], 0L);
                     conns.add(new IPConnection(protocol + ipver, lAddr.getA(), lAddr.getB(), fAddr.getA(), fAddr.getB(),
-                            state, txQrxQ.getA(), txQrxQ.getB(), pidMap.getOrDefault(inode, -1)));
+                            state, txQrxQ.getA(), txQrxQ.getB(), () -> SOCKET_INDEX.getProcessID(inode, asOf)));
                 }
             }
         }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2022 The OSHI Project Contributors
+ * Copyright 2020-2023 The OSHI Project Contributors
  * SPDX-License-Identifier: MIT
  */
 package oshi.software.os.linux;
@@ -12,35 +12,44 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.math.BigInteger;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import com.sun.jna.Native;
+import com.sun.jna.platform.unix.LibCAPI;
 import com.sun.jna.platform.unix.Resource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import oshi.annotation.concurrent.ThreadSafe;
+import oshi.driver.linux.proc.ProcessArguments;
+import oshi.driver.linux.proc.ProcessSmaps;
+import oshi.driver.linux.proc.ProcessSmaps.SmapsField;
 import oshi.driver.linux.proc.ProcessStat;
+import oshi.driver.linux.proc.ProcessStat.PidStat;
+import oshi.driver.linux.proc.ProcessStat.StatBuffer;
 import oshi.jna.platform.linux.LinuxLibc;
 import oshi.software.common.AbstractOSProcess;
 import oshi.software.os.OSThread;
-import oshi.util.ExecutingCommand;
 import oshi.util.FileUtil;
 import oshi.util.GlobalConfig;
 import oshi.util.ParseUtil;
+import oshi.util.ProcScanner;
 import oshi.util.UserGroupInfo;
 import oshi.util.Util;
 import oshi.util.platform.linux.ProcPath;
+import oshi.util.platform.linux.ProcStatHandleCache;
+import oshi.util.tuples.Pair;
 
 /**
  * OSProcess implementation
@@ -52,24 +61,25 @@ public class LinuxOSProcess extends AbstractOSProcess {
 
     private static final boolean LOG_PROCFS_WARNING = GlobalConfig.get(GlobalConfig.OSHI_OS_LINUX_PROCFS_LOGWARNING,
             false);
+    private static final int CMDLINE_MAX_BYTES = queryMaxBytesConfig(
+            GlobalConfig.OSHI_OS_LINUX_PROCFS_CMDLINE_MAXBYTES);
+    private static final int ENVIRON_MAX_BYTES = queryMaxBytesConfig(
+            GlobalConfig.OSHI_OS_LINUX_PROCFS_ENVIRON_MAXBYTES);
 
-    // Get a list of orders to pass to ParseUtil
-    private static final int[] PROC_PID_STAT_ORDERS = new int[ProcPidStat.values().length];
-
-    static {
-        for (ProcPidStat stat : ProcPidStat.values()) {
-            // The PROC_PID_STAT enum indices are 1-indexed.
-            // Subtract one to get a zero-based index
-            PROC_PID_STAT_ORDERS[stat.ordinal()] = stat.getOrder() - 1;
-        }
-    }
+    // Largest affinity mask to try, in 64-bit words: 1024 words covers 65536 CPUs
+    private static final int MAX_AFFINITY_MASK_WORDS = 1024;
+    // Current mask size in 64-bit words, starting at 16 words for glibc's CPU_SETSIZE of 1024 CPUs
+    private static volatile int affinityMaskWords = 16;
 
     private final LinuxOperatingSystem os;
 
     private Supplier<Integer> bitness = memoize(this::queryBitness);
     private Supplier<String> commandLine = memoize(this::queryCommandLine);
-    private Supplier<List<String>> arguments = memoize(this::queryArguments);
-    private Supplier<Map<String, String>> environmentVariables = memoize(this::queryEnvironmentVariables);
+    private Supplier<Pair<List<String>, Boolean>> arguments = memoize(this::queryArguments);
+    private Supplier<Pair<Map<String, String>, Boolean>> environmentVariables = memoize(
+            this::queryEnvironmentVariables);
+    // Read on first request after each update, as smaps is costly
+    private volatile Supplier<long[]> smaps = memoize(() -> querySmaps(getProcessID()));
 
     private String name;
     private String path = "";
@@ -86,6 +96,7 @@ public class LinuxOSProcess extends AbstractOSProcess {
     private long kernelTime;
     private long userTime;
     private long startTime;
+    private long startTicks;
     private long upTime;
     private long bytesRead;
     private long bytesWritten;
@@ -115,41 +126,80 @@ public class LinuxOSProcess extends AbstractOSProcess {
     }
 
     private String queryCommandLine() {
-        return Arrays
-                .stream(FileUtil.getStringFromFile(String.format(ProcPath.PID_CMDLINE, getProcessID())).split("\0"))
-                .collect(Collectors.joining(" "));
+        return queryCommandLine(getProcessID());
+    }
+
+    static String queryCommandLine(int pid) {
+        return ProcessArguments.queryCommandLine(pid, CMDLINE_MAX_BYTES);
     }
 
     @Override
     public List<String> getArguments() {
-        return arguments.get();
+        return arguments.get().getA();
+    }
+
+    @Override
+    public boolean isArgumentsTruncated() {
+        return arguments.get().getB();
+    }
+
+    private Pair<List<String>, Boolean> queryArguments() {
+        return queryArguments(getProcessID());
     }
 
-    private List<String> queryArguments() {
-        return Collections.unmodifiableList(ParseUtil
-                .parseByteArrayToStrings(FileUtil.readAllBytes(String.format(ProcPath.PID_CMDLINE, getProcessID()))));
+    static Pair<List<String>, Boolean> queryArguments(int pid) {
+        return ProcessArguments.queryArguments(pid, CMDLINE_MAX_BYTES);
     }
 
     @Override
     public Map<String, String> getEnvironmentVariables() {
-        return environmentVariables.get();
+        return environmentVariables.get().getA();
     }
 
-    private Map<String, String> queryEnvironmentVariables() {
-        return Collections.unmodifiableMap(ParseUtil.parseByteArrayToStringMap(
-                FileUtil.readAllBytes(String.format(ProcPath.PID_ENVIRON, getProcessID()), LOG_PROCFS_WARNING)));
+    @Override
+    public String getEnvironmentVariable(String name) {
+        return queryEnvironmentVariable(getProcessID(), name);
+    }
+
+    @Override
+    public boolean isEnvironmentTruncated() {
+        return environmentVariables.get().getB();
+    }
+
+    private Pair<Map<String, String>, Boolean> queryEnvironmentVariables() {
+        return queryEnvironmentVariables(getProcessID());
+    }
+
+    static Pair<Map<String, String>, Boolean> queryEnvironmentVariables(int pid) {
+        return ProcessArguments.queryEnvironment(pid, ENVIRON_MAX_BYTES, LOG_PROCFS_WARNING);
+    }
+
+    static String queryEnvironmentVariable(int pid, String name) {
+        return ProcessArguments.queryEnvironmentVariable(pid, name, ENVIRON_MAX_BYTES, LOG_PROCFS_WARNING);
+    }
+
+    private static int queryMaxBytesConfig(String key) {
+        int maxBytes = GlobalConfig.get(key, 0);
+        if (maxBytes < 0) {
+            throw new GlobalConfig.PropertyException(key, "The value must not be negative");
+        }
+        return maxBytes;
     }
 
     @Override
     public String getCurrentWorkingDirectory() {
+        return queryCurrentWorkingDirectory(getProcessID());
+    }
+
+    static String queryCurrentWorkingDirectory(int pid) {
         try {
-            String cwdLink = String.format(ProcPath.PID_CWD, getProcessID());
+            String cwdLink = String.format(ProcPath.PID_CWD, pid);
             String cwd = new File(cwdLink).getCanonicalPath();
             if (!cwd.equals(cwdLink)) {
                 return cwd;
             }
         } catch (IOException e) {
-            LOG.trace("Couldn't find cwd for pid {}: {}", getProcessID(), e.getMessage());
+            LOG.trace("Couldn't find cwd for pid {}: {}", pid, e.getMessage());
         }
         return "";
     }
@@ -204,6 +254,26 @@ public class LinuxOSProcess extends AbstractOSProcess {
         return this.residentSetSize;
     }
 
+    @Override
+    public long getProportionalSetSize() {
+        return this.smaps.get()[SmapsField.PSS.ordinal()];
+    }
+
+    @Override
+    public long getUniqueSetSize() {
+        return this.smaps.get()[SmapsField.USS.ordinal()];
+    }
+
+    @Override
+    public long getSharedMemorySize() {
+        return this.smaps.get()[SmapsField.SHARED.ordinal()];
+    }
+
+    @Override
+    public long getSwappedMemorySize() {
+        return this.smaps.get()[SmapsField.SWAP.ordinal()];
+    }
+
     @Override
     public long getKernelTime() {
         return this.kernelTime;
@@ -224,6 +294,15 @@ public class LinuxOSProcess extends AbstractOSProcess {
         return this.startTime;
     }
 
+    /**
+     * Gets the start time as recorded by the kernel, which unlike {@link #getStartTime()} is never adjusted.
+     *
+     * @return The {@code starttime} field of {@code /proc/[pid]/stat}, in clock ticks since boot
+     */
+    long getStartTicks() {
+        return this.startTicks;
+    }
+
     @Override
     public long getBytesRead() {
         return this.bytesRead;
@@ -236,8 +315,19 @@ public class LinuxOSProcess extends AbstractOSProcess {
 
     @Override
     public List<OSThread> getThreadDetails() {
-        return ProcessStat.getThreadIds(getProcessID()).stream().parallel()
-                .map(id -> new LinuxOSThread(getProcessID(), id)).filter(VALID_THREAD).collect(Collectors.toList());
+        return queryThreadDetails(getProcessID());
+    }
+
+    static List<OSThread> queryThreadDetails(int pid) {
+        List<Integer> ids = ProcessStat.getThreadIds(pid);
+        OSThread[] threads = new OSThread[ids.size()];
+        ProcScanner.get().forEachRange(threads.length, (range, from, to) -> {
+            for (int i = from; i < to; i++) {
+                OSThread thread = new LinuxOSThread(pid, ids.get(i));
+                threads[i] = VALID_THREAD.test(thread) ? thread : null;
+            }
+        });
+        return Arrays.stream(threads).filter(Objects::nonNull).collect(Collectors.toList());
     }
 
     @Override
@@ -262,23 +352,21 @@ public class LinuxOSProcess extends AbstractOSProcess {
 
     @Override
     public long getSoftOpenFileLimit() {
-        if (getProcessID() == this.os.getProcessId()) {
-            final Resource.Rlimit rlimit = new Resource.Rlimit();
-            LinuxLibc.INSTANCE.getrlimit(LinuxLibc.RLIMIT_NOFILE, rlimit);
-            return rlimit.rlim_cur;
-        } else {
-            return getProcessOpenFileLimit(getProcessID(), 1);
-        }
+        return queryOpenFileLimit(getProcessID(), getProcessID() == this.os.getProcessId(), true);
     }
 
     @Override
     public long getHardOpenFileLimit() {
-        if (getProcessID() == this.os.getProcessId()) {
+        return queryOpenFileLimit(getProcessID(), getProcessID() == this.os.getProcessId(), false);
+    }
+
+    static long queryOpenFileLimit(int pid, boolean isCurrentProcess, boolean soft) {
+        if (isCurrentProcess) {
             final Resource.Rlimit rlimit = new Resource.Rlimit();
             LinuxLibc.INSTANCE.getrlimit(LinuxLibc.RLIMIT_NOFILE, rlimit);
-            return rlimit.rlim_max;
+            return soft ? rlimit.rlim_cur : rlimit.rlim_max;
         } else {
-            return getProcessOpenFileLimit(getProcessID(), 2);
+            return getProcessOpenFileLimit(pid, soft ? 1 : 2);
         }
     }
 
@@ -288,6 +376,10 @@ public class LinuxOSProcess extends AbstractOSProcess {
     }
 
     private int queryBitness() {
+        return queryBitness(this.path);
+    }
+
+    static int queryBitness(String path) {
         // get 5th byte of file for 64-bit check
         // https://en.wikipedia.org/wiki/Executable_and_Linkable_Format#File_header
         byte[] buffer = new byte[5];
@@ -305,76 +397,90 @@ public class LinuxOSProcess extends AbstractOSProcess {
 
     @Override
     public long getAffinityMask() {
-        // Would prefer to use native sched_getaffinity call but variable sizing is
-        // kernel-dependent and requires C macros, so we use command line instead.
-        String mask = ExecutingCommand.getFirstAnswer("taskset -p " + getProcessID());
-        // Output:
-        // pid 3283's current affinity mask: 3
-        // pid 9726's current affinity mask: f
-        String[] split = ParseUtil.whitespaces.split(mask);
-        try {
-            return new BigInteger(split[split.length - 1], 16).longValue();
-        } catch (NumberFormatException e) {
-            return 0;
-        }
+        return queryAffinityMask(getProcessID());
     }
 
     @Override
-    public boolean updateAttributes() {
-        String procPidExe = String.format(ProcPath.PID_EXE, getProcessID());
-        try {
-            Path link = Paths.get(procPidExe);
-            this.path = Files.readSymbolicLink(link).toString();
-            // For some services the symbolic link process has terminated
-            int index = path.indexOf(" (deleted)");
-            if (index != -1) {
-                path = path.substring(0, index);
+    public BitSet getAffinity() {
+        return queryAffinity(getProcessID());
+    }
+
+    static long queryAffinityMask(int pid) {
+        long[] mask = queryAffinityArray(pid);
+        return mask.length > 0 ? mask[0] : 0L;
+    }
+
+    static BitSet queryAffinity(int pid) {
+        return BitSet.valueOf(queryAffinityArray(pid));
+    }
+
+    /**
+     * Gets the affinity mask of a process with {@code sched_getaffinity}. The kernel rejects masks smaller than its
+     * own CPU mask size, which depends on its configured maximum number of CPUs, so the mask is grown until the call
+     * succeeds and the size that worked is remembered.
+     *
+     * @param pid The process ID
+     * @return The mask, one bit per CPU, or an empty array if it could not be read
+     */
+    private static long[] queryAffinityArray(int pid) {
+        int words = affinityMaskWords;
+        while (words <= MAX_AFFINITY_MASK_WORDS) {
+            long[] mask = new long[words];
+            if (LinuxLibc.INSTANCE.sched_getaffinity(pid, new LibCAPI.size_t(words * 8L), mask) == 0) {
+                affinityMaskWords = words;
+                return mask;
             }
-        } catch (InvalidPathException | IOException | UnsupportedOperationException | SecurityException e) {
-            LOG.debug("Unable to open symbolic link {}", procPidExe);
+            if (Native.getLastError() != LinuxLibc.EINVAL) {
+                // Usually ESRCH because the process has terminated
+                break;
+            }
+            words *= 2;
         }
+        return new long[0];
+    }
+
+    @Override
+    public boolean updateAttributes() {
         // Fetch all the values here
         // check for terminated process race condition after last one.
         Map<String, String> io = FileUtil.getKeyValueMapFromFile(String.format(ProcPath.PID_IO, getProcessID()), ":");
         Map<String, String> status = FileUtil.getKeyValueMapFromFile(String.format(ProcPath.PID_STATUS, getProcessID()),
                 ":");
-        String stat = FileUtil.getStringFromFile(String.format(ProcPath.PID_STAT, getProcessID()));
-        if (stat.isEmpty()) {
+        StatBuffer sb = ProcessStat.getStatBuffer();
+        byte[] stat = sb.getBytes();
+        long[] statArray = sb.getFields();
+        if (ProcessStat.parseStat(stat, ProcStatHandleCache.readStat(getProcessID(), stat), statArray) == 0) {
             this.state = INVALID;
             return false;
         }
         // If some details couldn't be read from ProcPath.PID_STATUS try reading it from
         // ProcPath.PID_STAT
-        getMissingDetails(status, stat);
+        getMissingDetails(status, stat, statArray);
 
         long now = System.currentTimeMillis();
 
-        // We can get name and status more easily from /proc/pid/status which we
-        // call later, so just get the numeric bits here
-        // See man proc for how to parse /proc/[pid]/stat
-        long[] statArray = ParseUtil.parseStringToLongArray(stat, PROC_PID_STAT_ORDERS,
-                ProcessStat.PROC_PID_STAT_LENGTH, ' ');
-
         // BOOTTIME is in seconds and start time from proc/pid/stat is in jiffies.
         // Combine units to jiffies and convert to millijiffies before hz division to
         // avoid precision loss without having to cast
         this.startTime = (LinuxOperatingSystem.BOOTTIME * LinuxOperatingSystem.getHz()
-                + statArray[ProcPidStat.START_TIME.ordinal()]) * 1000L / LinuxOperatingSystem.getHz();
+                + statArray[PidStat.STARTTIME.ordinal()]) * 1000L / LinuxOperatingSystem.getHz();
         // BOOT_TIME could be up to 500ms off and start time up to 5ms off. A process
         // that has started within last 505ms could produce a future start time/negative
         // up time, so insert a sanity check.
         if (startTime >= now) {
             startTime = now - 1;
         }
-        this.parentProcessID = (int) statArray[ProcPidStat.PPID.ordinal()];
-        this.threadCount = (int) statArray[ProcPidStat.THREAD_COUNT.ordinal()];
-        this.priority = (int) statArray[ProcPidStat.PRIORITY.ordinal()];
-        this.virtualSize = statArray[ProcPidStat.VSZ.ordinal()];
-        this.residentSetSize = statArray[ProcPidStat.RSS.ordinal()] * LinuxOperatingSystem.getPageSize();
-        this.kernelTime = statArray[ProcPidStat.KERNEL_TIME.ordinal()] * 1000L / LinuxOperatingSystem.getHz();
-        this.userTime = statArray[ProcPidStat.USER_TIME.ordinal()] * 1000L / LinuxOperatingSystem.getHz();
-        this.minorFaults = statArray[ProcPidStat.MINOR_FAULTS.ordinal()];
-        this.majorFaults = statArray[ProcPidStat.MAJOR_FAULTS.ordinal()];
+        this.startTicks = statArray[PidStat.STARTTIME.ordinal()];
+        this.path = queryPath(getProcessID());
+        this.parentProcessID = (int) statArray[PidStat.PPID.ordinal()];
+        this.threadCount = (int) statArray[PidStat.NUM_THREADS.ordinal()];
+        this.priority = (int) statArray[PidStat.PRIORITY.ordinal()];
+        this.virtualSize = statArray[PidStat.VSIZE.ordinal()];
+        this.residentSetSize = statArray[PidStat.RSS.ordinal()] * LinuxOperatingSystem.getPageSize();
+        this.kernelTime = statArray[PidStat.STIME.ordinal()] * 1000L / LinuxOperatingSystem.getHz();
+        this.userTime = statArray[PidStat.UTIME.ordinal()] * 1000L / LinuxOperatingSystem.getHz();
+        this.minorFaults = statArray[PidStat.MINFLT.ordinal()];
+        this.majorFaults = statArray[PidStat.MAJFLT.ordinal()];
         long nonVoluntaryContextSwitches = ParseUtil.parseLongOrDefault(status.get("nonvoluntary_ctxt_switches"), 0L);
         long voluntaryContextSwitches = ParseUtil.parseLongOrDefault(status.get("voluntary_ctxt_switches"), 0L);
         this.contextSwitches = voluntaryContextSwitches + nonVoluntaryContextSwitches;
@@ -393,57 +499,65 @@ public class LinuxOSProcess extends AbstractOSProcess {
         this.group = UserGroupInfo.getGroupName(groupID);
         this.name = status.getOrDefault("Name", "");
         this.state = ProcessStat.getState(status.getOrDefault("State", "U").charAt(0));
+        this.smaps = memoize(() -> querySmaps(getProcessID()));
         return true;
     }
 
     /**
-     * If some details couldn't be read from ProcPath.PID_STATUS try reading it from ProcPath.PID_STAT
+     * Reads the proportional memory sizes of a process.
      *
-     * @param status status map to fill.
-     * @param stat   string to read from.
+     * @param pid The process ID
+     * @return An array of sizes in bytes indexed by {@link SmapsField} ordinal, zero if they could not be read
      */
-    private static void getMissingDetails(Map<String, String> status, String stat) {
-        if (status == null || stat == null) {
-            return;
-        }
-
-        int nameStart = stat.indexOf('(');
-        int nameEnd = stat.indexOf(')');
-        if (Util.isBlank(status.get("Name")) && nameStart > 0 && nameStart < nameEnd) {
-            // remove leading and trailing parentheses
-            String statName = stat.substring(nameStart + 1, nameEnd);
-            status.put("Name", statName);
-        }
+    static long[] querySmaps(int pid) {
+        long[] sizes = new long[SmapsField.values().length];
+        ProcessSmaps.querySmaps(pid, sizes);
+        return sizes;
+    }
 
-        // As per man, the next item after the name is the state
-        if (Util.isBlank(status.get("State")) && nameEnd > 0 && stat.length() > nameEnd + 2) {
-            String statState = String.valueOf(stat.charAt(nameEnd + 2));
-            status.put("State", statState);
+    /**
+     * Reads the path of the executable from the {@code /proc/[pid]/exe} symbolic link.
+     *
+     * @param pid The process ID
+     * @return The path of the executable, or an empty string if it could not be read
+     */
+    static String queryPath(int pid) {
+        String procPidExe = String.format(ProcPath.PID_EXE, pid);
+        try {
+            Path link = Paths.get(procPidExe);
+            String path = Files.readSymbolicLink(link).toString();
+            // For some services the symbolic link process has terminated
+            int index = path.indexOf(" (deleted)");
+            if (index != -1) {
+                path = path.substring(0, index);
+            }
+            return path;
+        } catch (InvalidPathException | IOException | UnsupportedOperationException | SecurityException e) {
+            LOG.debug("Unable to open symbolic link {}", procPidExe);
         }
+        return "";
     }
 
     /**
-     * Enum used to update attributes. The order field represents the 1-indexed numeric order of the stat in
-     * /proc/pid/stat per the man file.
+     * If some details couldn't be read from ProcPath.PID_STATUS try reading it from ProcPath.PID_STAT
+     *
+     * @param status    status map to fill.
+     * @param stat      stat file contents the fields were parsed from.
+     * @param statArray parsed stat fields.
      */
-    private enum ProcPidStat {
-        // The parsing implementation in ParseUtil requires these to be declared
-        // in increasing order
-        PPID(4), MINOR_FAULTS(10), MAJOR_FAULTS(12), USER_TIME(14), KERNEL_TIME(15), PRIORITY(18), THREAD_COUNT(20),
-        START_TIME(22), VSZ(23), RSS(24);
-
-        private final int order;
-
-        public int getOrder() {
-            return this.order;
+    private static void getMissingDetails(Map<String, String> status, byte[] stat, long[] statArray) {
+        if (status == null) {
+            return;
         }
-
-        ProcPidStat(int order) {
-            this.order = order;
+        if (Util.isBlank(status.get("Name"))) {
+            status.put("Name", ProcessStat.getName(stat, statArray));
+        }
+        if (Util.isBlank(status.get("State"))) {
+            status.put("State", String.valueOf((char) statArray[PidStat.STATE.ordinal()]));
         }
     }
 
-    private long getProcessOpenFileLimit(long processId, int index) {
+    private static long getProcessOpenFileLimit(long processId, int index) {
         final String limitsPath = String.format("/proc/%d/limits", processId);
         if (!Files.exists(Paths.get(limitsPath))) {
             return -1; // not supported
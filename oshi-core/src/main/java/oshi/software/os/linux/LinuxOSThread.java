@@ -8,11 +8,14 @@ import java.util.Map;
 
 import oshi.annotation.concurrent.ThreadSafe;
 import oshi.driver.linux.proc.ProcessStat;
+import oshi.driver.linux.proc.ProcessStat.PidStat;
+import oshi.driver.linux.proc.ProcessStat.StatBuffer;
 import oshi.software.common.AbstractOSThread;
 import oshi.software.os.OSProcess.State;
 import oshi.util.FileUtil;
 import oshi.util.ParseUtil;
 import oshi.util.platform.linux.ProcPath;
+import oshi.util.platform.linux.ProcStatHandleCache;
 
 /**
  * OSThread implementation
@@ -20,15 +23,6 @@ import oshi.util.platform.linux.ProcPath;
 @ThreadSafe
 public class LinuxOSThread extends AbstractOSThread {
 
-    private static final int[] PROC_TASK_STAT_ORDERS = new int[LinuxOSThread.ThreadPidStat.values().length];
-    static {
-        for (LinuxOSThread.ThreadPidStat stat : LinuxOSThread.ThreadPidStat.values()) {
-            // The PROC_PID_STAT enum indices are 1-indexed.
-            // Subtract one to get a zero-based index
-            PROC_TASK_STAT_ORDERS[stat.ordinal()] = stat.getOrder() - 1;
-        }
-    }
-
     private final int threadId;
     private String name;
     private State state = State.INVALID;
@@ -114,59 +108,38 @@ public class LinuxOSThread extends AbstractOSThread {
                 .getStringFromFile(String.format(ProcPath.TASK_COMM, this.getOwningProcessId(), this.threadId));
         Map<String, String> status = FileUtil.getKeyValueMapFromFile(
                 String.format(ProcPath.TASK_STATUS, this.getOwningProcessId(), this.threadId), ":");
-        String stat = FileUtil
-                .getStringFromFile(String.format(ProcPath.TASK_STAT, this.getOwningProcessId(), this.threadId));
-        if (stat.isEmpty()) {
+        StatBuffer sb = ProcessStat.getStatBuffer();
+        byte[] stat = sb.getBytes();
+        long[] statArray = sb.getFields();
+        int len = ProcStatHandleCache.readTaskStat(this.getOwningProcessId(), this.threadId, stat);
+        if (ProcessStat.parseStat(stat, len, statArray) == 0) {
             this.state = State.INVALID;
             return false;
         }
         long now = System.currentTimeMillis();
-        long[] statArray = ParseUtil.parseStringToLongArray(stat, PROC_TASK_STAT_ORDERS,
-                ProcessStat.PROC_PID_STAT_LENGTH, ' ');
 
         // BOOTTIME is in seconds and start time from proc/pid/stat is in jiffies.
         // Combine units to jiffies and convert to millijiffies before hz division to
         // avoid precision loss without having to cast
         this.startTime = (LinuxOperatingSystem.BOOTTIME * LinuxOperatingSystem.getHz()
-                + statArray[LinuxOSThread.ThreadPidStat.START_TIME.ordinal()]) * 1000L / LinuxOperatingSystem.getHz();
+                + statArray[PidStat.STARTTIME.ordinal()]) * 1000L / LinuxOperatingSystem.getHz();
         // BOOT_TIME could be up to 500ms off and start time up to 5ms off. A process
         // that has started within last 505ms could produce a future start time/negative
         // up time, so insert a sanity check.
         if (this.startTime >= now) {
             this.startTime = now - 1;
         }
-        this.minorFaults = statArray[ThreadPidStat.MINOR_FAULTS.ordinal()];
-        this.majorFaults = statArray[ThreadPidStat.MAJOR_FAULT.ordinal()];
-        this.startMemoryAddress = statArray[ThreadPidStat.START_CODE.ordinal()];
+        this.minorFaults = statArray[PidStat.MINFLT.ordinal()];
+        this.majorFaults = statArray[PidStat.MAJFLT.ordinal()];
+        this.startMemoryAddress = statArray[PidStat.STARTCODE.ordinal()];
         long voluntaryContextSwitches = ParseUtil.parseLongOrDefault(status.get("voluntary_ctxt_switches"), 0L);
         long nonVoluntaryContextSwitches = ParseUtil.parseLongOrDefault(status.get("nonvoluntary_ctxt_switches"), 0L);
         this.contextSwitches = voluntaryContextSwitches + nonVoluntaryContextSwitches;
         this.state = ProcessStat.getState(status.getOrDefault("State", "U").charAt(0));
-        this.kernelTime = statArray[ThreadPidStat.KERNEL_TIME.ordinal()] * 1000L / LinuxOperatingSystem.getHz();
-        this.userTime = statArray[ThreadPidStat.USER_TIME.ordinal()] * 1000L / LinuxOperatingSystem.getHz();
+        this.kernelTime = statArray[PidStat.STIME.ordinal()] * 1000L / LinuxOperatingSystem.getHz();
+        this.userTime = statArray[PidStat.UTIME.ordinal()] * 1000L / LinuxOperatingSystem.getHz();
         this.upTime = now - startTime;
-        this.priority = (int) statArray[ThreadPidStat.PRIORITY.ordinal()];
+        this.priority = (int) statArray[PidStat.PRIORITY.ordinal()];
         return true;
     }
-
-    /**
-     * Enum used to update attributes. The order field represents the 1-indexed numeric order of the stat in
-     * /proc/pid/task/tid/stat per the man file.
-     */
-    private enum ThreadPidStat {
-        // The parsing implementation in ParseUtil requires these to be declared
-        // in increasing order
-        PPID(4), MINOR_FAULTS(10), MAJOR_FAULT(12), USER_TIME(14), KERNEL_TIME(15), PRIORITY(18), THREAD_COUNT(20),
-        START_TIME(22), VSZ(23), RSS(24), START_CODE(26);
-
-        private final int order;
-
-        ThreadPidStat(int order) {
-            this.order = order;
-        }
-
-        public int getOrder() {
-            return this.order;
-        }
-    }
 }
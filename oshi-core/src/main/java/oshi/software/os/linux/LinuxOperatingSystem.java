@@ -9,12 +9,16 @@ import static oshi.software.os.OSService.State.STOPPED;
 
 import java.io.File;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,6 +31,7 @@ import oshi.annotation.concurrent.ThreadSafe;
 import oshi.driver.linux.Who;
 import oshi.driver.linux.proc.Auxv;
 import oshi.driver.linux.proc.CpuStat;
+import oshi.driver.linux.proc.LoadAvg;
 import oshi.driver.linux.proc.ProcessStat;
 import oshi.driver.linux.proc.UpTime;
 import oshi.jna.Struct.CloseableSysinfo;
@@ -37,13 +42,19 @@ import oshi.software.os.InternetProtocolStats;
 import oshi.software.os.NetworkParams;
 import oshi.software.os.OSProcess;
 import oshi.software.os.OSProcess.State;
+import oshi.software.os.OSProcessSummary;
 import oshi.software.os.OSService;
 import oshi.software.os.OSSession;
 import oshi.software.os.OSThread;
+import oshi.software.os.ProcessCounters;
+import oshi.software.os.ProcessQuery;
+import oshi.software.os.ProcessTree;
+import oshi.software.os.linux.LinuxProcessTable.RankKey;
 import oshi.util.Constants;
 import oshi.util.ExecutingCommand;
 import oshi.util.FileUtil;
 import oshi.util.ParseUtil;
+import oshi.util.ProcScanner;
 import oshi.util.platform.linux.ProcPath;
 import oshi.util.tuples.Pair;
 import oshi.util.tuples.Triplet;
@@ -192,51 +203,76 @@ public class LinuxOperatingSystem extends AbstractOperatingSystem {
 
     @Override
     public List<OSProcess> queryAllProcesses() {
-        return queryChildProcesses(-1);
+        return LinuxProcessTable.snapshot().getProcesses();
     }
 
     @Override
-    public List<OSProcess> queryChildProcesses(int parentPid) {
-        File[] pidFiles = ProcessStat.getPidFiles();
-        if (parentPid >= 0) {
-            // Only return descendants
-            return queryProcessList(getChildrenOrDescendants(getParentPidsFromProcFiles(pidFiles), parentPid, false));
+    protected List<OSProcess> queryAllProcesses(Set<ProcessField> fields) {
+        return LinuxProcessTable.snapshot(fields).getProcesses();
+    }
+
+    @Override
+    protected List<OSProcess> queryProcesses(ProcessQuery query, Set<ProcessField> fields) {
+        return LinuxProcessTable.snapshot(query, fields).getProcesses();
+    }
+
+    @Override
+    protected List<OSProcess> queryProcesses(ProcessQuery query, Set<ProcessField> fields, Comparator<OSProcess> sort,
+            int limit) {
+        // Rank on stat alone with a bounded heap when the sort key is available there
+        if (limit > 0 && sort == ProcessSorting.CPU_DESC) {
+            return LinuxProcessTable.top(query, fields, RankKey.CPU, limit).getProcesses();
         }
-        Set<Integer> descendantPids = new HashSet<>();
-        // Put everything in the "descendant" set
-        for (File procFile : pidFiles) {
-            int pid = ParseUtil.parseIntOrDefault(procFile.getName(), -2);
-            if (pid != -2) {
-                descendantPids.add(pid);
-            }
+        if (limit > 0 && sort == ProcessSorting.RSS_DESC) {
+            return LinuxProcessTable.top(query, fields, RankKey.RSS, limit).getProcesses();
         }
-        return queryProcessList(descendantPids);
+        return queryProcesses(query, fields);
+    }
+
+    @Override
+    public ProcessCounters getProcessCounters(ProcessQuery query) {
+        // Counters and the unadjusted start time are read from the table rows without creating process objects
+        return LinuxProcessTable.snapshot(query, ProcessCounters.FIELDS);
+    }
+
+    @Override
+    public Stream<OSProcess> processStream(ProcessQuery query, Set<ProcessField> fields) {
+        Set<ProcessField> fieldSet = Collections.unmodifiableSet(
+                fields.isEmpty() ? EnumSet.noneOf(ProcessField.class) : EnumSet.copyOf(fields));
+        LinuxProcessSpliterator spliterator = new LinuxProcessSpliterator(query, fieldSet);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    @Override
+    public List<OSProcess> queryChildProcesses(int parentPid) {
+        if (parentPid < 0) {
+            return queryAllProcesses();
+        }
+        // Only return descendants
+        return queryProcessList(getChildrenOrDescendants(getProcessTree(), parentPid, false));
     }
 
     @Override
     public List<OSProcess> queryDescendantProcesses(int parentPid) {
-        File[] pidFiles = ProcessStat.getPidFiles();
-        return queryProcessList(getChildrenOrDescendants(getParentPidsFromProcFiles(pidFiles), parentPid, true));
+        return queryProcessList(getChildrenOrDescendants(getProcessTree(), parentPid, true));
     }
 
-    private List<OSProcess> queryProcessList(Set<Integer> descendantPids) {
-        List<OSProcess> procs = new ArrayList<>();
-        for (int pid : descendantPids) {
-            OSProcess proc = new LinuxOSProcess(pid, this);
-            if (!proc.getState().equals(State.INVALID)) {
-                procs.add(proc);
+    @Override
+    public ProcessTree getProcessTree() {
+        // Only the parent pid is needed, so avoid building full process objects
+        int[] pids = LinuxProcessTable.queryPids();
+        int[] parentPids = new int[pids.length];
+        ProcScanner.get().forEachRange(pids.length, (range, from, to) -> {
+            for (int i = from; i < to; i++) {
+                parentPids[i] = getParentPidFromProcFile(pids[i]);
             }
-        }
-        return procs;
+        });
+        return ProcessTree.of(pids, parentPids);
     }
 
-    private static Map<Integer, Integer> getParentPidsFromProcFiles(File[] pidFiles) {
-        Map<Integer, Integer> parentPidMap = new HashMap<>();
-        for (File procFile : pidFiles) {
-            int pid = ParseUtil.parseIntOrDefault(procFile.getName(), 0);
-            parentPidMap.put(pid, getParentPidFromProcFile(pid));
-        }
-        return parentPidMap;
+    private static List<OSProcess> queryProcessList(Set<Integer> descendantPids) {
+        return LinuxProcessTable.snapshot(descendantPids.stream().mapToInt(Integer::intValue).toArray())
+                .getProcesses();
     }
 
     private static int getParentPidFromProcFile(int pid) {
@@ -257,7 +293,15 @@ public class LinuxOperatingSystem extends AbstractOperatingSystem {
 
     @Override
     public int getProcessCount() {
-        return ProcessStat.getPidFiles().length;
+        return LinuxProcessTable.queryPids().length;
+    }
+
+    @Override
+    public OSProcessSummary getProcessSummary() {
+        Pair<Integer, Integer> runningBlocked = CpuStat.getRunningAndBlocked();
+        int threads = LoadAvg.queryEntityCount();
+        return new OSProcessSummary(LinuxProcessTable.countStates(), threads < 0 ? getThreadCount() : threads,
+                runningBlocked.getA(), runningBlocked.getB());
     }
 
     @Override
@@ -0,0 +1,523 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.software.os.linux;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.NativeLong;
+import com.sun.jna.platform.unix.LibCAPI.size_t;
+
+import oshi.annotation.concurrent.GuardedBy;
+import oshi.annotation.concurrent.Immutable;
+import oshi.annotation.concurrent.ThreadSafe;
+import oshi.jna.platform.linux.LinuxLibc;
+import oshi.software.os.OperatingSystem.ProcessField;
+import oshi.software.os.ProcessTree;
+
+/**
+ * An opt-in source of process lifecycle events from the kernel's process events connector, which avoids polling
+ * {@code /proc} at high frequency to observe short-lived processes.
+ * <p>
+ * Once {@link #start()}ed, a daemon thread receives fork, exec, user ID change, and exit events over a
+ * {@code NETLINK_CONNECTOR} socket and passes them to registered {@link Listener}s. Events for threads other than the
+ * main thread of a process are not reported. The source also maintains a table of running processes, their parents and
+ * their real user IDs, which is initialized from {@code /proc} and updated from each event.
+ * <p>
+ * The kernel drops events if they are not received quickly enough, so the table may drift; {@link #reconcile()}
+ * rebuilds it from {@code /proc}, and is called automatically when the kernel reports lost events. Periodic polling is
+ * then only needed as a reconciliation.
+ * <p>
+ * Subscribing requires the {@code CAP_NET_ADMIN} capability and a kernel built with {@code CONFIG_PROC_EVENTS}; if
+ * either is missing {@link #start()} returns false.
+ */
+@ThreadSafe
+public final class LinuxProcessEventSource implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LinuxProcessEventSource.class);
+
+    // See include/uapi/linux/connector.h and include/uapi/linux/cn_proc.h
+    private static final int CN_IDX_PROC = 1;
+    private static final int CN_VAL_PROC = 1;
+    private static final int PROC_CN_MCAST_LISTEN = 1;
+    private static final int PROC_CN_MCAST_IGNORE = 2;
+    private static final int NLMSG_ERROR = 2;
+    private static final int NLMSG_DONE = 3;
+
+    private static final int PROC_EVENT_FORK = 0x00000001;
+    private static final int PROC_EVENT_EXEC = 0x00000002;
+    private static final int PROC_EVENT_UID = 0x00000004;
+    private static final int PROC_EVENT_EXIT = 0x80000000;
+
+    // nlmsghdr is 16 bytes and cn_msg 20 bytes, followed by proc_event
+    private static final int NLMSG_HDRLEN = 16;
+    private static final int CN_MSG_LEN = 20;
+    private static final int PROC_EVENT_OFFSET = NLMSG_HDRLEN + CN_MSG_LEN;
+    // Offsets within proc_event: what, cpu, timestamp_ns, then event_data
+    private static final int EVENT_TIMESTAMP = PROC_EVENT_OFFSET + 8;
+    private static final int EVENT_DATA = PROC_EVENT_OFFSET + 16;
+
+    private static final int RECEIVE_BUFFER_SIZE = 8192;
+    private static final int SOCKET_BUFFER_SIZE = 1 << 20;
+    private static final int RECEIVE_TIMEOUT_MILLIS = 250;
+
+    private static final EnumSet<ProcessField> TABLE_FIELDS = EnumSet.of(ProcessField.PARENT_PROCESS_ID,
+            ProcessField.USER);
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    // Parent process ID and real user ID of each running process, packed as (ppid << 32 | uid)
+    @GuardedBy("table")
+    private final Map<Integer, Long> table = new HashMap<>();
+
+    @GuardedBy("this")
+    private int socket = -1;
+    @GuardedBy("this")
+    private Thread reader;
+    private volatile boolean running;
+
+    /**
+     * The type of a process {@link Event}.
+     */
+    public enum Type {
+        /**
+         * A new process was created. The parent process ID is that of the forking process.
+         */
+        FORK,
+        /**
+         * A process replaced its executable image.
+         */
+        EXEC,
+        /**
+         * A process changed its real or effective user ID.
+         */
+        UID,
+        /**
+         * A process exited. The exit code is available.
+         */
+        EXIT;
+    }
+
+    /**
+     * Receives process events. Listeners are called on the event source's reader thread, in the order events are
+     * received, and should return promptly to avoid the kernel dropping events.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * Called when a process event is received.
+         *
+         * @param event The event
+         */
+        void onEvent(Event event);
+    }
+
+    /**
+     * A process event received from the kernel.
+     */
+    @Immutable
+    public static final class Event {
+        private final Type type;
+        private final int processId;
+        private final int parentProcessId;
+        private final long timestamp;
+        private final int userId;
+        private final int effectiveUserId;
+        private final int exitCode;
+
+        private Event(Type type, int processId, int parentProcessId, long timestamp, int userId, int effectiveUserId,
+                int exitCode) {
+            this.type = type;
+            this.processId = processId;
+            this.parentProcessId = parentProcessId;
+            this.timestamp = timestamp;
+            this.userId = userId;
+            this.effectiveUserId = effectiveUserId;
+            this.exitCode = exitCode;
+        }
+
+        /**
+         * Gets the type of the event.
+         *
+         * @return The event type
+         */
+        public Type getType() {
+            return this.type;
+        }
+
+        /**
+         * Gets the process the event concerns, which for {@link Type#FORK} is the new child.
+         *
+         * @return The process ID
+         */
+        public int getProcessID() {
+            return this.processId;
+        }
+
+        /**
+         * Gets the parent process ID, as reported by the event for {@link Type#FORK} and as known to the process table
+         * otherwise.
+         *
+         * @return The parent process ID, or -1 if unknown
+         */
+        public int getParentProcessID() {
+            return this.parentProcessId;
+        }
+
+        /**
+         * Gets the time of the event.
+         *
+         * @return The kernel timestamp, in nanoseconds since boot
+         */
+        public long getTimestamp() {
+            return this.timestamp;
+        }
+
+        /**
+         * Gets the real user ID, for {@link Type#UID} events.
+         *
+         * @return The new real user ID, or -1 for other events
+         */
+        public int getUserID() {
+            return this.userId;
+        }
+
+        /**
+         * Gets the effective user ID, for {@link Type#UID} events.
+         *
+         * @return The new effective user ID, or -1 for other events
+         */
+        public int getEffectiveUserID() {
+            return this.effectiveUserId;
+        }
+
+        /**
+         * Gets the exit code, for {@link Type#EXIT} events.
+         *
+         * @return The exit status as reported by {@code wait}, or -1 for other events
+         */
+        public int getExitCode() {
+            return this.exitCode;
+        }
+
+        @Override
+        public String toString() {
+            return "Event [type=" + this.type + ", processID=" + this.processId + ", parentProcessID="
+                    + this.parentProcessId + "]";
+        }
+    }
+
+    /**
+     * Registers a listener for process events.
+     *
+     * @param listener The listener
+     */
+    public void addListener(Listener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Removes a previously registered listener.
+     *
+     * @param listener The listener
+     */
+    public void removeListener(Listener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Subscribes to process events and starts the reader thread. The process table is initialized from {@code /proc}
+     * after subscribing, so that no process is missed.
+     *
+     * @return True if events are being received, false if the subscription failed
+     */
+    public synchronized boolean start() {
+        if (this.running) {
+            return true;
+        }
+        // Release the socket of a reader which stopped on an error
+        close();
+        LinuxLibc libc = LinuxLibc.INSTANCE;
+        int fd = libc.socket(LinuxLibc.AF_NETLINK, LinuxLibc.SOCK_DGRAM, LinuxLibc.NETLINK_CONNECTOR);
+        if (fd < 0) {
+            LOG.debug("Unable to open process connector socket. Error: {}", Native.getLastError());
+            return false;
+        }
+        // sockaddr_nl: nl_family, nl_pad, nl_pid (0 lets the kernel assign), nl_groups
+        byte[] addr = new byte[12];
+        ByteBuffer.wrap(addr).order(ByteOrder.nativeOrder()).putShort((short) LinuxLibc.AF_NETLINK).putShort((short) 0)
+                .putInt(0).putInt(CN_IDX_PROC);
+        if (libc.bind(fd, addr, addr.length) < 0 || !setSocketOptions(fd) || !subscribe(fd, PROC_CN_MCAST_LISTEN)) {
+            LOG.debug("Unable to subscribe to process events. Error: {}", Native.getLastError());
+            libc.close(fd);
+            return false;
+        }
+        this.socket = fd;
+        this.running = true;
+        reconcile();
+        this.reader = new Thread(() -> readEvents(fd), "oshi-proc-connector");
+        this.reader.setDaemon(true);
+        this.reader.start();
+        return true;
+    }
+
+    /**
+     * Tests whether events are being received.
+     *
+     * @return True if started and not closed, and the reader has not stopped on an error
+     */
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * Unsubscribes from process events, stops the reader thread, and closes the socket. The source may be started
+     * again.
+     */
+    @Override
+    public synchronized void close() {
+        if (this.socket < 0) {
+            return;
+        }
+        this.running = false;
+        subscribe(this.socket, PROC_CN_MCAST_IGNORE);
+        try {
+            // The reader wakes at least once per receive timeout to observe the flag
+            this.reader.join(RECEIVE_TIMEOUT_MILLIS * 4L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        LinuxLibc.INSTANCE.close(this.socket);
+        this.socket = -1;
+        this.reader = null;
+    }
+
+    /**
+     * Rebuilds the process table from {@code /proc}, correcting for any events the kernel dropped.
+     */
+    public void reconcile() {
+        LinuxProcessTable snapshot = LinuxProcessTable.snapshot(TABLE_FIELDS);
+        synchronized (this.table) {
+            this.table.clear();
+            for (int row = 0; row < snapshot.size(); row++) {
+                this.table.put(snapshot.getProcessID(row),
+                        pack(snapshot.getParentProcessID(row), snapshot.getUserID(row)));
+            }
+        }
+    }
+
+    /**
+     * Gets the number of processes in the table.
+     *
+     * @return The number of running processes known to this source
+     */
+    public int size() {
+        synchronized (this.table) {
+            return this.table.size();
+        }
+    }
+
+    /**
+     * Gets the IDs of the processes in the table.
+     *
+     * @return The process IDs, sorted
+     */
+    public int[] getProcessIDs() {
+        synchronized (this.table) {
+            return this.table.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        }
+    }
+
+    /**
+     * Gets the parent of a process in the table.
+     *
+     * @param processId The process ID
+     * @return The parent process ID, or -1 if the process is not in the table
+     */
+    public int getParentProcessID(int processId) {
+        synchronized (this.table) {
+            Long entry = this.table.get(processId);
+            return entry == null ? -1 : (int) (entry >>> 32);
+        }
+    }
+
+    /**
+     * Gets the real user ID of a process in the table.
+     *
+     * @param processId The process ID
+     * @return The user ID, or -1 if the process is not in the table or the ID could not be read
+     */
+    public int getUserID(int processId) {
+        synchronized (this.table) {
+            Long entry = this.table.get(processId);
+            return entry == null ? -1 : entry.intValue();
+        }
+    }
+
+    /**
+     * Builds a {@link ProcessTree} from the current process table.
+     *
+     * @return A process tree of the processes known to this source
+     */
+    public ProcessTree getProcessTree() {
+        int[] pids;
+        int[] parents;
+        synchronized (this.table) {
+            pids = new int[this.table.size()];
+            parents = new int[pids.length];
+            int i = 0;
+            for (Map.Entry<Integer, Long> e : this.table.entrySet()) {
+                pids[i] = e.getKey();
+                parents[i++] = (int) (e.getValue() >>> 32);
+            }
+        }
+        return ProcessTree.of(pids, parents);
+    }
+
+    private static long pack(int parentPid, int uid) {
+        return ((long) parentPid << 32) | (uid & 0xffffffffL);
+    }
+
+    private static boolean setSocketOptions(int fd) {
+        LinuxLibc libc = LinuxLibc.INSTANCE;
+        try (Memory bufSize = new Memory(4); Memory timeout = new Memory(2L * NativeLong.SIZE)) {
+            bufSize.setInt(0, SOCKET_BUFFER_SIZE);
+            // struct timeval, so the reader can observe close()
+            timeout.setNativeLong(0, new NativeLong(0));
+            timeout.setNativeLong(NativeLong.SIZE, new NativeLong(RECEIVE_TIMEOUT_MILLIS * 1000L));
+            // A larger receive buffer is best effort
+            libc.setsockopt(fd, LinuxLibc.SOL_SOCKET, LinuxLibc.SO_RCVBUF, bufSize, 4);
+            return libc.setsockopt(fd, LinuxLibc.SOL_SOCKET, LinuxLibc.SO_RCVTIMEO, timeout,
+                    (int) timeout.size()) == 0;
+        }
+    }
+
+    private static boolean subscribe(int fd, int op) {
+        byte[] msg = new byte[PROC_EVENT_OFFSET + 4];
+        ByteBuffer buf = ByteBuffer.wrap(msg).order(ByteOrder.nativeOrder());
+        // nlmsghdr: len, type, flags, seq, pid
+        buf.putInt(msg.length).putShort((short) NLMSG_DONE).putShort((short) 0).putInt(0).putInt(0);
+        // cn_msg: id.idx, id.val, seq, ack, len, flags, then the operation
+        buf.putInt(CN_IDX_PROC).putInt(CN_VAL_PROC).putInt(0).putInt(0).putShort((short) 4).putShort((short) 0);
+        buf.putInt(op);
+        return LinuxLibc.INSTANCE.send(fd, msg, new size_t(msg.length), 0).longValue() == msg.length;
+    }
+
+    private void readEvents(int fd) {
+        byte[] msg = new byte[RECEIVE_BUFFER_SIZE];
+        ByteBuffer buf = ByteBuffer.wrap(msg).order(ByteOrder.nativeOrder());
+        size_t len = new size_t(msg.length);
+        while (this.running) {
+            int n = (int) LinuxLibc.INSTANCE.recv(fd, msg, len, 0).longValue();
+            if (n < 0) {
+                int errno = Native.getLastError();
+                if (errno == LinuxLibc.ENOBUFS) {
+                    LOG.debug("Process events were dropped, reconciling with /proc");
+                    reconcile();
+                } else if (errno != LinuxLibc.EAGAIN && errno != LinuxLibc.EINTR) {
+                    LOG.warn("Unable to receive process events. Error: {}", errno);
+                    this.running = false;
+                }
+                continue;
+            }
+            // A datagram may hold several netlink messages
+            int offset = 0;
+            while (offset + EVENT_DATA <= n) {
+                int msgLen = buf.getInt(offset);
+                int msgType = buf.getShort(offset + 4);
+                if (msgLen < NLMSG_HDRLEN || offset + msgLen > n) {
+                    break;
+                }
+                if (msgType != NLMSG_ERROR) {
+                    handleEvent(buf, offset);
+                }
+                offset += (msgLen + 3) & ~3;
+            }
+        }
+    }
+
+    private void handleEvent(ByteBuffer buf, int base) {
+        int what = buf.getInt(base + PROC_EVENT_OFFSET);
+        long timestamp = buf.getLong(base + EVENT_TIMESTAMP);
+        int data = base + EVENT_DATA;
+        Event event;
+        switch (what) {
+        case PROC_EVENT_FORK:
+            // parent_pid, parent_tgid, child_pid, child_tgid
+            int parent = buf.getInt(data + 4);
+            int child = buf.getInt(data + 8);
+            if (child != buf.getInt(data + 12)) {
+                return;
+            }
+            synchronized (this.table) {
+                this.table.put(child, pack(parent, (int) lookup(parent)));
+            }
+            event = new Event(Type.FORK, child, parent, timestamp, -1, -1, -1);
+            break;
+        case PROC_EVENT_EXEC:
+            // process_pid, process_tgid
+            int pid = buf.getInt(data + 4);
+            event = new Event(Type.EXEC, pid, (int) (lookup(pid) >> 32), timestamp, -1, -1, -1);
+            break;
+        case PROC_EVENT_UID:
+            // process_pid, process_tgid, ruid, euid
+            if (buf.getInt(data) != buf.getInt(data + 4)) {
+                return;
+            }
+            pid = buf.getInt(data + 4);
+            int ruid = buf.getInt(data + 8);
+            parent = (int) (lookup(pid) >> 32);
+            synchronized (this.table) {
+                this.table.put(pid, pack(parent, ruid));
+            }
+            event = new Event(Type.UID, pid, parent, timestamp, ruid, buf.getInt(data + 12), -1);
+            break;
+        case PROC_EVENT_EXIT:
+            // process_pid, process_tgid, exit_code, exit_signal
+            if (buf.getInt(data) != buf.getInt(data + 4)) {
+                return;
+            }
+            pid = buf.getInt(data + 4);
+            Long removed;
+            synchronized (this.table) {
+                removed = this.table.remove(pid);
+            }
+            event = new Event(Type.EXIT, pid, removed == null ? -1 : (int) (removed >> 32), timestamp, -1, -1,
+                    buf.getInt(data + 8));
+            break;
+        default:
+            return;
+        }
+        for (Listener listener : this.listeners) {
+            try {
+                listener.onEvent(event);
+            } catch (RuntimeException e) {
+                LOG.warn("Process event listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Gets the packed table entry for a process.
+     *
+     * @return The entry, or -1 in both halves if the process is not in the table
+     */
+    private long lookup(int pid) {
+        synchronized (this.table) {
+            Long entry = this.table.get(pid);
+            return entry == null ? -1L : entry;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.software.os.linux;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import oshi.annotation.concurrent.Immutable;
+import oshi.software.os.OperatingSystem.ProcessField;
+import oshi.software.os.ProcessTree;
+import oshi.util.ProcScanner;
+import oshi.util.platform.linux.ProcPath;
+
+/**
+ * Resource totals for every process subtree, such as all processes of a service started from one parent.
+ * <p>
+ * {@code /proc} is walked once, reading only the files needed for the requested resources, and each total is computed
+ * bottom-up over the {@link ProcessTree} of that walk, so that the totals of every process are available in time
+ * proportional to the number of processes. No {@link oshi.software.os.OSProcess} objects are created.
+ * <p>
+ * Values of processes which cannot be read, usually the I/O and open files of other users' processes when not
+ * elevated, count as zero.
+ */
+@Immutable
+public final class LinuxProcessRollup {
+
+    /**
+     * Resources which may be totalled.
+     */
+    public enum Resource {
+        /**
+         * Kernel and user CPU time in milliseconds, as {@link oshi.software.os.OSProcess#getKernelTime()} plus
+         * {@link oshi.software.os.OSProcess#getUserTime()}.
+         */
+        CPU_TIME(ProcessField.CPU_TIMES),
+        /**
+         * Resident set size in bytes, as {@link oshi.software.os.OSProcess#getResidentSetSize()}. Shared pages are
+         * counted once for each process.
+         */
+        RESIDENT_SET_SIZE(ProcessField.MEMORY),
+        /**
+         * Bytes read from storage, as {@link oshi.software.os.OSProcess#getBytesRead()}.
+         */
+        BYTES_READ(ProcessField.BYTES_IO),
+        /**
+         * Bytes written to storage, as {@link oshi.software.os.OSProcess#getBytesWritten()}.
+         */
+        BYTES_WRITTEN(ProcessField.BYTES_IO),
+        /**
+         * Number of threads, as {@link oshi.software.os.OSProcess#getThreadCount()}.
+         */
+        THREADS(ProcessField.THREADS),
+        /**
+         * Number of open file descriptors, as {@link oshi.software.os.OSProcess#getOpenFiles()}. Requires listing
+         * {@code /proc/[pid]/fd} for each process.
+         */
+        OPEN_FILES(null);
+
+        private final ProcessField field;
+
+        Resource(ProcessField field) {
+            this.field = field;
+        }
+    }
+
+    private final Set<Resource> resources;
+    private final ProcessTree tree;
+    // Subtree totals by resource ordinal, then tree index; null for resources not requested
+    private final long[][] totals;
+
+    private LinuxProcessRollup(Set<Resource> resources, ProcessTree tree, long[][] totals) {
+        this.resources = Collections.unmodifiableSet(resources);
+        this.tree = tree;
+        this.totals = totals;
+    }
+
+    /**
+     * Walks {@code /proc} and computes subtree totals of the requested resources for every process.
+     *
+     * @param resources The resources to total. Resources not requested read as zero.
+     * @return The totals
+     */
+    public static LinuxProcessRollup snapshot(Set<Resource> resources) {
+        EnumSet<Resource> requested = resources.isEmpty() ? EnumSet.noneOf(Resource.class) : EnumSet.copyOf(resources);
+        EnumSet<ProcessField> fields = EnumSet.noneOf(ProcessField.class);
+        for (Resource r : requested) {
+            if (r.field != null) {
+                fields.add(r.field);
+            }
+        }
+        LinuxProcessTable table = LinuxProcessTable.snapshot(fields);
+        int n = table.size();
+        long[][] values = new long[Resource.values().length][];
+        for (Resource r : requested) {
+            values[r.ordinal()] = new long[n];
+        }
+        ProcScanner.get().forEachRange(n, (range, from, to) -> {
+            StringBuilder sb = new StringBuilder(ProcPath.PROC.length() + 16);
+            for (int row = from; row < to; row++) {
+                fillRow(table, row, values, sb);
+            }
+        });
+
+        // Table rows are in process ID order, as are tree indices
+        ProcessTree tree = table.getProcessTree();
+        long[][] totals = new long[values.length][];
+        for (Resource r : requested) {
+            totals[r.ordinal()] = tree.rollUp(values[r.ordinal()]);
+        }
+        return new LinuxProcessRollup(requested, tree, totals);
+    }
+
+    private static void fillRow(LinuxProcessTable table, int row, long[][] values, StringBuilder sb) {
+        set(values, Resource.CPU_TIME, row, table.getKernelTime(row) + table.getUserTime(row));
+        set(values, Resource.RESIDENT_SET_SIZE, row, table.getResidentSetSize(row));
+        set(values, Resource.BYTES_READ, row, table.getBytesRead(row));
+        set(values, Resource.BYTES_WRITTEN, row, table.getBytesWritten(row));
+        set(values, Resource.THREADS, row, table.getThreadCount(row));
+        if (values[Resource.OPEN_FILES.ordinal()] != null) {
+            sb.setLength(0);
+            String[] fds = new File(sb.append(ProcPath.PROC).append('/').append(table.getProcessID(row)).append("/fd")
+                    .toString()).list();
+            values[Resource.OPEN_FILES.ordinal()][row] = fds == null ? 0L : fds.length;
+        }
+    }
+
+    private static void set(long[][] values, Resource r, int row, long value) {
+        long[] column = values[r.ordinal()];
+        if (column != null) {
+            column[row] = value;
+        }
+    }
+
+    /**
+     * Gets the resources totalled.
+     *
+     * @return An unmodifiable set of resources
+     */
+    public Set<Resource> getResources() {
+        return this.resources;
+    }
+
+    /**
+     * Gets the process tree of the walk. Its indices match the arrays returned by {@link #getTotals(Resource)}.
+     *
+     * @return The process tree
+     */
+    public ProcessTree getProcessTree() {
+        return this.tree;
+    }
+
+    /**
+     * Gets the total of a resource over a process and all of its descendants.
+     *
+     * @param pid      The process ID of the subtree root. If the process had exited, its descendants at the time of the
+     *                 walk are totalled.
+     * @param resource The resource
+     * @return The total, or 0 if the resource was not requested or the process has no descendants in the walk
+     */
+    public long getTotal(int pid, Resource resource) {
+        long[] column = this.totals[resource.ordinal()];
+        if (column == null) {
+            return 0L;
+        }
+        int i = this.tree.indexOf(pid);
+        if (i >= 0) {
+            return column[i];
+        }
+        long sum = 0L;
+        for (int child : this.tree.getChildren(pid)) {
+            sum += column[this.tree.indexOf(child)];
+        }
+        return sum;
+    }
+
+    /**
+     * Gets the totals of every requested resource over a process and all of its descendants.
+     *
+     * @param pid The process ID of the subtree root, see {@link #getTotal(int, Resource)}
+     * @return An array of totals indexed by {@link Resource} ordinal
+     */
+    public long[] getTotals(int pid) {
+        long[] result = new long[this.totals.length];
+        for (Resource r : this.resources) {
+            result[r.ordinal()] = getTotal(pid, r);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the subtree totals of a resource for every process.
+     *
+     * @param resource The resource
+     * @return A new array indexed in the same order as {@link #getProcessTree()}, where each element is the total of
+     *         that process and all of its descendants; zero if the resource was not requested
+     */
+    public long[] getTotals(Resource resource) {
+        long[] column = this.totals[resource.ordinal()];
+        return column == null ? new long[this.tree.size()] : Arrays.copyOf(column, column.length);
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.software.os.linux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import oshi.annotation.concurrent.NotThreadSafe;
+import oshi.software.os.OSProcess;
+import oshi.software.os.OperatingSystem.ProcessField;
+import oshi.software.os.ProcessQuery;
+import oshi.util.platform.linux.ProcPath;
+
+/**
+ * A {@link Spliterator} over the processes in {@code /proc}, reading each process only when it is advanced to.
+ * <p>
+ * Sequential traversal walks a {@link DirectoryStream} of {@code /proc}, so a consumer which stops early does not list
+ * the entries it does not reach. On the first split, the remaining entries are listed into an array of process IDs,
+ * which this and later splits divide between them. Listing is cheap compared to reading the processes, which still
+ * happens only as each is advanced to.
+ * <p>
+ * Processes which terminate before they are reached, or which do not match the query, are skipped.
+ */
+@NotThreadSafe
+final class LinuxProcessSpliterator implements Spliterator<OSProcess>, AutoCloseable {
+
+    private static final int CHARACTERISTICS = Spliterator.DISTINCT | Spliterator.NONNULL;
+    // Below this many processes, reading them costs less than handing them to another thread
+    private static final int MIN_SPLIT = 16;
+
+    private final ProcessQuery query;
+    private final Set<ProcessField> fields;
+
+    // Either walking the directory, or an array of process IDs from index to end
+    private DirectoryStream<Path> dir;
+    private Iterator<Path> entries;
+    private int[] pids;
+    private int index;
+    private int end;
+
+    /**
+     * Creates a spliterator over the processes matching a query.
+     *
+     * @param query  The criteria processes must match
+     * @param fields An unmodifiable set of the fields to populate
+     */
+    LinuxProcessSpliterator(ProcessQuery query, Set<ProcessField> fields) {
+        this.query = query;
+        this.fields = fields;
+        int[] queryPids = query.getProcessIDs();
+        if (queryPids != null) {
+            this.pids = queryPids;
+            this.end = queryPids.length;
+        }
+    }
+
+    private LinuxProcessSpliterator(ProcessQuery query, Set<ProcessField> fields, int[] pids, int index, int end) {
+        this.query = query;
+        this.fields = fields;
+        this.pids = pids;
+        this.index = index;
+        this.end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super OSProcess> action) {
+        int pid;
+        while ((pid = nextPid()) >= 0) {
+            LinuxProcessTable table = LinuxProcessTable.load(pid, this.query, this.fields);
+            if (table.size() > 0) {
+                action.accept(table.getProcess(0));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Spliterator<OSProcess> trySplit() {
+        if (this.pids == null) {
+            this.pids = listRemaining();
+            this.index = 0;
+            this.end = this.pids.length;
+        }
+        int size = this.end - this.index;
+        if (size < MIN_SPLIT) {
+            return null;
+        }
+        int mid = this.index + size / 2;
+        LinuxProcessSpliterator prefix = new LinuxProcessSpliterator(this.query, this.fields, this.pids, this.index,
+                mid);
+        this.index = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return this.pids == null ? Long.MAX_VALUE : this.end - this.index;
+    }
+
+    @Override
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+
+    /**
+     * Closes the directory stream, if one is open.
+     */
+    @Override
+    public void close() {
+        if (this.dir != null) {
+            try {
+                this.dir.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                this.dir = null;
+                this.entries = null;
+            }
+        }
+    }
+
+    /**
+     * Gets the next process ID from the array or the directory, closing the directory when it is exhausted.
+     *
+     * @return The process ID, or -1 if there are no more
+     */
+    private int nextPid() {
+        if (this.pids != null) {
+            return this.index < this.end ? this.pids[this.index++] : -1;
+        }
+        if (this.entries == null) {
+            if (!open()) {
+                return -1;
+            }
+        }
+        try {
+            while (this.entries.hasNext()) {
+                int pid = LinuxProcessTable.parsePid(this.entries.next().getFileName().toString());
+                if (pid >= 0) {
+                    return pid;
+                }
+            }
+        } catch (DirectoryIteratorException e) {
+            // Treat a failed read of /proc as the end of the listing
+        }
+        // Any later call returns -1 from the empty array
+        close();
+        this.pids = new int[0];
+        return -1;
+    }
+
+    private boolean open() {
+        try {
+            this.dir = Files.newDirectoryStream(Paths.get(ProcPath.PROC));
+            this.entries = this.dir.iterator();
+            return true;
+        } catch (IOException | SecurityException e) {
+            this.pids = new int[0];
+            return false;
+        }
+    }
+
+    private int[] listRemaining() {
+        int[] remaining = new int[256];
+        int count = 0;
+        int pid;
+        while ((pid = nextPid()) >= 0) {
+            if (count == remaining.length) {
+                remaining = Arrays.copyOf(remaining, count * 2);
+            }
+            remaining[count++] = pid;
+        }
+        return Arrays.copyOf(remaining, count);
+    }
+}
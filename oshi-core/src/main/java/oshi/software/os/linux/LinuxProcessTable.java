@@ -0,0 +1,1291 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.software.os.linux;
+
+import static oshi.software.os.OSProcess.State.INVALID;
+import static oshi.util.Memoizer.memoize;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import oshi.annotation.concurrent.Immutable;
+import oshi.annotation.concurrent.ThreadSafe;
+import oshi.driver.linux.proc.ProcessSmaps;
+import oshi.driver.linux.proc.ProcessSmaps.SmapsField;
+import oshi.driver.linux.proc.ProcessStat;
+import oshi.driver.linux.proc.ProcessStat.PidStat;
+import oshi.driver.linux.proc.ProcessStat.StatBuffer;
+import oshi.jna.platform.linux.LinuxLibc;
+import oshi.software.common.AbstractOSProcess;
+import oshi.software.os.OSProcess;
+import oshi.software.os.OSProcess.State;
+import oshi.software.os.OSThread;
+import oshi.software.os.OperatingSystem.ProcessField;
+import oshi.software.os.ProcessCounters;
+import oshi.software.os.ProcessQuery;
+import oshi.software.os.ProcessTree;
+import oshi.util.FileUtil;
+import oshi.util.ParseUtil;
+import oshi.util.ProcScanner;
+import oshi.util.UserGroupInfo;
+import oshi.util.platform.linux.ProcPath;
+import oshi.util.platform.linux.ProcStatHandleCache;
+import oshi.util.tuples.Pair;
+
+/**
+ * A column-oriented snapshot of the Linux process table.
+ * <p>
+ * The {@code /proc} filesystem is walked once, and the numeric fields of {@code /proc/[pid]/stat},
+ * {@code /proc/[pid]/status} and {@code /proc/[pid]/io} are stored in primitive arrays indexed by row. Rows are sorted
+ * by increasing process ID. Processes which terminate during the scan are omitted.
+ * <p>
+ * A snapshot may be restricted to a set of {@link ProcessField}s, in which case only the files needed to populate them
+ * are read.
+ * <p>
+ * Lightweight {@link OSProcess} views over the rows are available via {@link #getProcess(int)} and
+ * {@link #getProcesses()}. Views read their values from the table and only query {@code /proc} for attributes which are
+ * not part of the snapshot, such as the command line or the executable path.
+ */
+@Immutable
+public final class LinuxProcessTable implements ProcessCounters {
+
+    private static final int[] NO_PIDS = new int[0];
+
+    // Enough of a stat file to hold "pid (name) S": a pid of up to 7 digits (PID_MAX_LIMIT is 2^22) and a name which is
+    // the comm of at most 15 bytes (TASK_COMM_LEN 16), or for workqueue workers up to 63 bytes with the workqueue
+    // appended. Longer names fall back to reading the whole file.
+    private static final int STATE_PREFIX_LENGTH = 80;
+
+    // Set in the stat flags field for kernel threads, see include/linux/sched.h
+    private static final long PF_KTHREAD = 0x00200000L;
+
+    /**
+     * Keys by which {@link #top(ProcessQuery, Set, RankKey, int)} ranks processes, computed from {@code stat} alone.
+     */
+    enum RankKey {
+        /**
+         * Cumulative CPU load since process start, as {@link OSProcess#getProcessCpuLoadCumulative()}
+         */
+        CPU {
+            @Override
+            double rank(long[] statArray, long hz, long now) {
+                long start = (LinuxOperatingSystem.BOOTTIME * hz + statArray[PidStat.STARTTIME.ordinal()]) * 1000L
+                        / hz;
+                long upTime = now - start;
+                long ticks = statArray[PidStat.UTIME.ordinal()] + statArray[PidStat.STIME.ordinal()];
+                return upTime > 0 ? ticks * 1000d / hz / upTime : 0d;
+            }
+        },
+        /**
+         * Resident set size, as {@link OSProcess#getResidentSetSize()}
+         */
+        RSS {
+            @Override
+            double rank(long[] statArray, long hz, long now) {
+                return statArray[PidStat.RSS.ordinal()];
+            }
+        };
+
+        abstract double rank(long[] statArray, long hz, long now);
+    }
+
+    private final Set<ProcessField> fields;
+    private final long timestamp;
+    private final int size;
+
+    private final int[] pid;
+    private final int[] parentPid;
+    private final char[] state;
+    private final String[] name;
+    private final int[] threadCount;
+    private final int[] priority;
+    private final long[] virtualSize;
+    private final long[] residentSetSize;
+    private final long[] kernelTime;
+    private final long[] userTime;
+    private final long[] startTime;
+    private final long[] startTicks;
+    private final long[] minorFaults;
+    private final long[] majorFaults;
+    private final long[] contextSwitches;
+    private final int[] userId;
+    private final int[] groupId;
+    private final long[] bytesRead;
+    private final long[] bytesWritten;
+    private final String[] path;
+    private final BitSet[] affinity;
+    private final long[] proportionalSetSize;
+    private final long[] uniqueSetSize;
+    private final long[] sharedMemorySize;
+    private final long[] swappedMemorySize;
+
+    private LinuxProcessTable(int[] pids, Set<ProcessField> fields) {
+        this(pids, fields, null, false);
+    }
+
+    private LinuxProcessTable(int[] pids, Set<ProcessField> fields, ProcessQuery query, boolean cachedStat) {
+        this.fields = fields;
+        int capacity = pids.length;
+        this.pid = new int[capacity];
+        this.parentPid = new int[capacity];
+        this.state = new char[capacity];
+        this.name = new String[capacity];
+        this.threadCount = new int[capacity];
+        this.priority = new int[capacity];
+        this.virtualSize = new long[capacity];
+        this.residentSetSize = new long[capacity];
+        this.kernelTime = new long[capacity];
+        this.userTime = new long[capacity];
+        this.startTime = new long[capacity];
+        this.startTicks = new long[capacity];
+        this.minorFaults = new long[capacity];
+        this.majorFaults = new long[capacity];
+        this.contextSwitches = new long[capacity];
+        this.userId = new int[capacity];
+        this.groupId = new int[capacity];
+        this.bytesRead = new long[capacity];
+        this.bytesWritten = new long[capacity];
+        this.path = new String[capacity];
+        this.affinity = new BitSet[capacity];
+        this.proportionalSetSize = new long[capacity];
+        this.uniqueSetSize = new long[capacity];
+        this.sharedMemorySize = new long[capacity];
+        this.swappedMemorySize = new long[capacity];
+
+        boolean readStatus = fields.contains(ProcessField.CONTEXT_SWITCHES) || fields.contains(ProcessField.USER)
+                || fields.contains(ProcessField.GROUP) || fields.contains(ProcessField.AFFINITY)
+                || query != null && query.hasUserID();
+        boolean readIo = fields.contains(ProcessField.BYTES_IO);
+        boolean readPath = fields.contains(ProcessField.PATH);
+        boolean readAffinity = fields.contains(ProcessField.AFFINITY);
+        boolean readSmaps = fields.contains(ProcessField.PROPORTIONAL_MEMORY);
+        // Each range fills its own rows in place, marking rejected rows with pid -1
+        ProcScanner.get().forEachRange(capacity, (range, from, to) -> readRows(pids, from, to, query, cachedStat,
+                readStatus, readIo, readPath, readAffinity, readSmaps));
+        int row = 0;
+        for (int i = 0; i < capacity; i++) {
+            if (this.pid[i] >= 0) {
+                if (i != row) {
+                    moveRow(i, row);
+                }
+                row++;
+            }
+        }
+        this.size = row;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    private void readRows(int[] pids, int from, int to, ProcessQuery query, boolean cachedStat, boolean readStatus,
+            boolean readIo, boolean readPath, boolean readAffinity, boolean readSmaps) {
+        StatBuffer statBuffer = ProcessStat.getStatBuffer();
+        byte[] buf = statBuffer.getBytes();
+        long[] statArray = statBuffer.getFields();
+        long[] smaps = new long[SmapsField.values().length];
+        StringBuilder sb = new StringBuilder(ProcPath.PROC.length() + 24);
+        for (int row = from; row < to; row++) {
+            int p = pids[row];
+            // Evaluate the query against each file as it is read, so rejected rows skip the rest
+            if (!readStat(row, p, sb, buf, statArray, cachedStat)
+                    || query != null && !matchesStat(query, row, statArray)) {
+                this.pid[row] = -1;
+                continue;
+            }
+            if (readStatus) {
+                readStatus(row, procPidFile(sb, p, "/status"), readAffinity, from);
+                if (query != null && !query.matchesUserID(this.userId[row])) {
+                    this.pid[row] = -1;
+                    continue;
+                }
+            } else {
+                this.userId[row] = -1;
+                this.groupId[row] = -1;
+            }
+            if (readIo) {
+                readIo(row, procPidFile(sb, p, "/io"));
+            }
+            this.path[row] = readPath ? LinuxOSProcess.queryPath(p) : "";
+            if (readSmaps) {
+                ProcessSmaps.querySmaps(p, smaps);
+                this.proportionalSetSize[row] = smaps[SmapsField.PSS.ordinal()];
+                this.uniqueSetSize[row] = smaps[SmapsField.USS.ordinal()];
+                this.sharedMemorySize[row] = smaps[SmapsField.SHARED.ordinal()];
+                this.swappedMemorySize[row] = smaps[SmapsField.SWAP.ordinal()];
+            }
+        }
+    }
+
+    private void moveRow(int from, int to) {
+        this.pid[to] = this.pid[from];
+        this.parentPid[to] = this.parentPid[from];
+        this.state[to] = this.state[from];
+        this.name[to] = this.name[from];
+        this.threadCount[to] = this.threadCount[from];
+        this.priority[to] = this.priority[from];
+        this.virtualSize[to] = this.virtualSize[from];
+        this.residentSetSize[to] = this.residentSetSize[from];
+        this.kernelTime[to] = this.kernelTime[from];
+        this.userTime[to] = this.userTime[from];
+        this.startTime[to] = this.startTime[from];
+        this.startTicks[to] = this.startTicks[from];
+        this.minorFaults[to] = this.minorFaults[from];
+        this.majorFaults[to] = this.majorFaults[from];
+        this.contextSwitches[to] = this.contextSwitches[from];
+        this.userId[to] = this.userId[from];
+        this.groupId[to] = this.groupId[from];
+        this.bytesRead[to] = this.bytesRead[from];
+        this.bytesWritten[to] = this.bytesWritten[from];
+        this.path[to] = this.path[from];
+        this.affinity[to] = this.affinity[from];
+        this.proportionalSetSize[to] = this.proportionalSetSize[from];
+        this.uniqueSetSize[to] = this.uniqueSetSize[from];
+        this.sharedMemorySize[to] = this.sharedMemorySize[from];
+        this.swappedMemorySize[to] = this.swappedMemorySize[from];
+    }
+
+    /**
+     * Walks {@code /proc} and captures a snapshot of all running processes.
+     *
+     * @return A new process table
+     */
+    public static LinuxProcessTable snapshot() {
+        return snapshot(queryPids(), ProcessField.defaults());
+    }
+
+    /**
+     * Walks {@code /proc} and captures a snapshot of all running processes, reading only the files needed for the
+     * requested fields. The {@code stat} file is always read; {@code status}, {@code io}, {@code smaps_rollup} and the
+     * {@code exe} link are skipped unless a field requires them.
+     *
+     * @param fields The fields to populate. Columns for other fields contain default values.
+     * @return A new process table
+     */
+    public static LinuxProcessTable snapshot(Set<ProcessField> fields) {
+        return snapshot(queryPids(), fields);
+    }
+
+    /**
+     * Captures a snapshot of the specified processes. Processes which are not running are omitted.
+     *
+     * @param pids The process IDs to include
+     * @return A new process table
+     */
+    public static LinuxProcessTable snapshot(int[] pids) {
+        return snapshot(pids, ProcessField.defaults());
+    }
+
+    /**
+     * Captures a snapshot of the specified processes, reading only the files needed for the requested fields.
+     * Processes which are not running are omitted.
+     *
+     * @param pids   The process IDs to include
+     * @param fields The fields to populate. Columns for other fields contain default values.
+     * @return A new process table
+     */
+    public static LinuxProcessTable snapshot(int[] pids, Set<ProcessField> fields) {
+        int[] sorted = Arrays.copyOf(pids, pids.length);
+        Arrays.sort(sorted);
+        Set<ProcessField> fieldSet = fields.isEmpty() ? EnumSet.noneOf(ProcessField.class) : EnumSet.copyOf(fields);
+        return new LinuxProcessTable(sorted, Collections.unmodifiableSet(fieldSet));
+    }
+
+    /**
+     * Walks {@code /proc} and captures a snapshot of the processes matching a query, reading only the files needed for
+     * the requested fields. Criteria are evaluated in order of cost: the process ID set before any file is read, then
+     * the parent, name, state and kernel thread criteria from {@code stat}, and the user from {@code status} only if
+     * required. Files needed only for the requested fields are read just for matching processes.
+     *
+     * @param query  The criteria processes must match
+     * @param fields The fields to populate. Columns for other fields contain default values.
+     * @return A new process table
+     */
+    public static LinuxProcessTable snapshot(ProcessQuery query, Set<ProcessField> fields) {
+        int[] pids = query.getProcessIDs();
+        if (pids == null) {
+            pids = queryPids();
+        }
+        Set<ProcessField> fieldSet = fields.isEmpty() ? EnumSet.noneOf(ProcessField.class) : EnumSet.copyOf(fields);
+        return new LinuxProcessTable(pids, Collections.unmodifiableSet(fieldSet), query, false);
+    }
+
+    /**
+     * Reads a single process if it matches a query.
+     *
+     * @param pid    The process ID
+     * @param query  The criteria the process must match, or null to read it unconditionally
+     * @param fields An unmodifiable set of the fields to populate
+     * @return A table of one row, or of none if the process is not running or does not match
+     */
+    static LinuxProcessTable load(int pid, ProcessQuery query, Set<ProcessField> fields) {
+        return new LinuxProcessTable(new int[] { pid }, fields, query, false);
+    }
+
+    /**
+     * Captures a snapshot of the top {@code n} processes matching a query, ranked by a key available in
+     * {@code /proc/[pid]/stat}.
+     * <p>
+     * The first pass reads only {@code stat} for each candidate and keeps the best {@code n} in a bounded heap, so
+     * memory use is proportional to {@code n} rather than the number of processes. Only the winners are then read in
+     * full. Because the winners are re-read, their values may differ slightly from those used for ranking.
+     *
+     * @param query  The criteria processes must match
+     * @param fields The fields to populate. Columns for other fields contain default values.
+     * @param key    The ranking key, in descending order
+     * @param n      The maximum number of processes to include
+     * @return A new process table containing at most {@code n} rows
+     */
+    static LinuxProcessTable top(ProcessQuery query, Set<ProcessField> fields, RankKey key, int n) {
+        int[] pids = query.getProcessIDs();
+        if (pids == null) {
+            pids = queryPids();
+        }
+        // Each range keeps a min-heap of its best keys, so the root is the entry to evict; the heaps are then merged.
+        // No heap can hold more than the candidates it is offered, whatever the limit.
+        int limit = Math.min(n, pids.length);
+        ProcScanner scanner = ProcScanner.get();
+        int ranges = scanner.ranges(pids.length);
+        double[][] rangeKeys = new double[ranges][];
+        int[][] rangePids = new int[ranges][];
+        int[] rangeSizes = new int[ranges];
+        int[] candidates = pids;
+        scanner.forEachRange(pids.length, (range, from, to) -> {
+            rangeKeys[range] = new double[Math.min(limit, to - from)];
+            rangePids[range] = new int[rangeKeys[range].length];
+            rangeSizes[range] = rankRange(query, key, candidates, from, to, rangeKeys[range], rangePids[range]);
+        });
+
+        if (ranges == 1) {
+            return snapshot(Arrays.copyOf(rangePids[0], rangeSizes[0]), fields);
+        }
+        double[] heapKeys = new double[limit];
+        int[] heapPids = new int[limit];
+        int heapSize = 0;
+        for (int r = 0; r < ranges; r++) {
+            for (int i = 0; i < rangeSizes[r]; i++) {
+                heapSize = offer(heapKeys, heapPids, heapSize, rangeKeys[r][i], rangePids[r][i]);
+            }
+        }
+        return snapshot(Arrays.copyOf(heapPids, heapSize), fields);
+    }
+
+    private static int rankRange(ProcessQuery query, RankKey key, int[] pids, int from, int to, double[] heapKeys,
+            int[] heapPids) {
+        int heapSize = 0;
+        StatBuffer statBuffer = ProcessStat.getStatBuffer();
+        byte[] buf = statBuffer.getBytes();
+        long[] statArray = statBuffer.getFields();
+        StringBuilder sb = new StringBuilder(ProcPath.PROC.length() + 24);
+        long hz = LinuxOperatingSystem.getHz();
+        for (int i = from; i < to; i++) {
+            int p = pids[i];
+            if (ProcessStat.parseStat(buf, ProcessStat.readStat(procPidFile(sb, p, "/stat"), buf), statArray) == 0) {
+                continue;
+            }
+            double rank = key.rank(statArray, hz, System.currentTimeMillis());
+            if (heapSize == heapKeys.length && rank <= heapKeys[0]) {
+                continue;
+            }
+            if (!matchesStat(query, ProcessStat.getName(buf, statArray), (char) statArray[PidStat.STATE.ordinal()],
+                    statArray)) {
+                continue;
+            }
+            if (query.hasUserID() && !query.matchesUserID(queryUserId(procPidFile(sb, p, "/status")))) {
+                continue;
+            }
+            heapSize = offer(heapKeys, heapPids, heapSize, rank, p);
+        }
+        return heapSize;
+    }
+
+    /**
+     * Offers an entry to a bounded min-heap whose capacity is the array length.
+     *
+     * @return The new heap size
+     */
+    static int offer(double[] heapKeys, int[] heapPids, int heapSize, double rank, int p) {
+        return offer(heapKeys, heapPids, heapSize, heapKeys.length, rank, p);
+    }
+
+    /**
+     * Offers an entry to a bounded min-heap whose capacity is at most the array length, so arrays may be reused for
+     * heaps of different sizes.
+     *
+     * @return The new heap size
+     */
+    static int offer(double[] heapKeys, int[] heapPids, int heapSize, int capacity, double rank, int p) {
+        if (heapSize < capacity) {
+            heapKeys[heapSize] = rank;
+            heapPids[heapSize] = p;
+            siftUp(heapKeys, heapPids, heapSize);
+            return heapSize + 1;
+        }
+        if (rank > heapKeys[0]) {
+            heapKeys[0] = rank;
+            heapPids[0] = p;
+            siftDown(heapKeys, heapPids, heapSize);
+        }
+        return heapSize;
+    }
+
+    /**
+     * Sorts a bounded min-heap built by {@link #offer(double[], int[], int, double, int)} in place, into descending
+     * order of key.
+     */
+    static void sortDescending(double[] heapKeys, int[] heapPids, int heapSize) {
+        for (int last = heapSize - 1; last > 0; last--) {
+            swap(heapKeys, heapPids, 0, last);
+            siftDown(heapKeys, heapPids, last);
+        }
+    }
+
+    private static void siftUp(double[] keys, int[] pids, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (keys[parent] <= keys[i]) {
+                return;
+            }
+            swap(keys, pids, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(double[] keys, int[] pids, int size) {
+        int i = 0;
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && keys[left] < keys[smallest]) {
+                smallest = left;
+            }
+            if (right < size && keys[right] < keys[smallest]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(keys, pids, i, smallest);
+            i = smallest;
+        }
+    }
+
+    private static void swap(double[] keys, int[] pids, int i, int j) {
+        double k = keys[i];
+        keys[i] = keys[j];
+        keys[j] = k;
+        int p = pids[i];
+        pids[i] = pids[j];
+        pids[j] = p;
+    }
+
+    private static int queryUserId(String path) {
+        for (String line : FileUtil.readFile(path, false)) {
+            if (line.startsWith("Uid:")) {
+                return (int) parseFirstLong(line, 4, -1L);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Counts the processes in {@code /proc} by state. Only the beginning of each {@code stat} file, up to the state
+     * character, is read, into one buffer per range; no per-process objects other than file paths are created.
+     *
+     * @return The number of processes in each state, indexed by {@link State} ordinal
+     */
+    static int[] countStates() {
+        int[] pids = queryPids();
+        ProcScanner scanner = ProcScanner.get();
+        int[][] rangeCounts = new int[scanner.ranges(pids.length)][State.values().length];
+        scanner.forEachRange(pids.length, (range, from, to) -> countStates(pids, from, to, rangeCounts[range]));
+        int[] counts = rangeCounts[0];
+        for (int r = 1; r < rangeCounts.length; r++) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += rangeCounts[r][i];
+            }
+        }
+        return counts;
+    }
+
+    private static void countStates(int[] pids, int from, int to, int[] counts) {
+        byte[] buf = new byte[STATE_PREFIX_LENGTH];
+        StringBuilder sb = new StringBuilder(ProcPath.PROC.length() + 24);
+        for (int i = from; i < to; i++) {
+            String path = procPidFile(sb, pids[i], "/stat");
+            int len = ProcessStat.readStat(path, buf);
+            char state = parseState(buf, len);
+            if (state == 0 && len == buf.length) {
+                // Name longer than expected, read it all
+                byte[] full = ProcessStat.getStatBuffer().getBytes();
+                state = parseState(full, ProcessStat.readStat(path, full));
+            }
+            // Zero if the process has exited
+            if (state != 0) {
+                counts[ProcessStat.getState(state).ordinal()]++;
+            }
+        }
+    }
+
+    /**
+     * Finds the state character, which follows the last {@code )} closing the name.
+     *
+     * @return The state, or 0 if not found
+     */
+    private static char parseState(byte[] buf, int len) {
+        for (int i = len - 1; i >= 0; i--) {
+            if (buf[i] == ')') {
+                return i + 2 < len ? (char) buf[i + 2] : 0;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Lists the process IDs in {@code /proc} without building {@link File} objects or applying regular expressions.
+     *
+     * @return A sorted array of process IDs
+     */
+    static int[] queryPids() {
+        String[] names = new File(ProcPath.PROC).list();
+        if (names == null) {
+            return NO_PIDS;
+        }
+        int[] pids = new int[names.length];
+        int count = 0;
+        for (String n : names) {
+            int p = parsePid(n);
+            if (p >= 0) {
+                pids[count++] = p;
+            }
+        }
+        pids = Arrays.copyOf(pids, count);
+        Arrays.sort(pids);
+        return pids;
+    }
+
+    /**
+     * Parses a {@code /proc} entry name as a process ID.
+     *
+     * @param s The entry name
+     * @return The process ID, or -1 if the name is not a process ID
+     */
+    static int parsePid(String s) {
+        int len = s.length();
+        if (len == 0 || len > 9) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + c - '0';
+        }
+        return value;
+    }
+
+    private boolean readStat(int row, int p, StringBuilder sb, byte[] buf, long[] statArray, boolean cachedStat) {
+        // Read stat first; an empty result means the process has terminated
+        int len = cachedStat ? ProcStatHandleCache.readStat(p, buf)
+                : ProcessStat.readStat(procPidFile(sb, p, "/stat"), buf);
+        if (ProcessStat.parseStat(buf, len, statArray) == 0) {
+            return false;
+        }
+
+        long now = System.currentTimeMillis();
+        long hz = LinuxOperatingSystem.getHz();
+        this.pid[row] = p;
+        this.name[row] = ProcessStat.getName(buf, statArray);
+        this.state[row] = (char) statArray[PidStat.STATE.ordinal()];
+        this.parentPid[row] = (int) statArray[PidStat.PPID.ordinal()];
+        this.threadCount[row] = (int) statArray[PidStat.NUM_THREADS.ordinal()];
+        this.priority[row] = (int) statArray[PidStat.PRIORITY.ordinal()];
+        this.virtualSize[row] = statArray[PidStat.VSIZE.ordinal()];
+        this.residentSetSize[row] = statArray[PidStat.RSS.ordinal()] * LinuxOperatingSystem.getPageSize();
+        this.kernelTime[row] = statArray[PidStat.STIME.ordinal()] * 1000L / hz;
+        this.userTime[row] = statArray[PidStat.UTIME.ordinal()] * 1000L / hz;
+        this.minorFaults[row] = statArray[PidStat.MINFLT.ordinal()];
+        this.majorFaults[row] = statArray[PidStat.MAJFLT.ordinal()];
+        // See LinuxOSProcess for the start time calculation and sanity check
+        long start = (LinuxOperatingSystem.BOOTTIME * hz + statArray[PidStat.STARTTIME.ordinal()]) * 1000L / hz;
+        this.startTime[row] = start >= now ? now - 1 : start;
+        this.startTicks[row] = statArray[PidStat.STARTTIME.ordinal()];
+        return true;
+    }
+
+    private boolean matchesStat(ProcessQuery query, int row, long[] statArray) {
+        return matchesStat(query, this.name[row], this.state[row], statArray);
+    }
+
+    private static boolean matchesStat(ProcessQuery query, String name, char state, long[] statArray) {
+        return query.matchesParentProcessID((int) statArray[PidStat.PPID.ordinal()]) && query.matchesName(name)
+                && query.matchesState(ProcessStat.getState(state))
+                && !(query.isExcludingKernelThreads() && (statArray[PidStat.FLAGS.ordinal()] & PF_KTHREAD) != 0);
+    }
+
+    private void readStatus(int row, String path, boolean readAffinity, int from) {
+        long ctxt = 0L;
+        this.userId[row] = -1;
+        this.groupId[row] = -1;
+        for (String line : FileUtil.readFile(path, false)) {
+            if (line.startsWith("Uid:")) {
+                this.userId[row] = (int) parseFirstLong(line, 4, -1L);
+            } else if (line.startsWith("Gid:")) {
+                this.groupId[row] = (int) parseFirstLong(line, 4, -1L);
+            } else if (line.startsWith("voluntary_ctxt_switches:")) {
+                ctxt += parseFirstLong(line, 24, 0L);
+            } else if (line.startsWith("nonvoluntary_ctxt_switches:")) {
+                ctxt += parseFirstLong(line, 27, 0L);
+            } else if (readAffinity && line.startsWith("Cpus_allowed_list:")) {
+                BitSet cpus = ParseUtil.parseHyphenatedIntListToBitSet(line, 18);
+                // Most processes share an affinity, so share the previous row's set when equal
+                BitSet previous = row > from ? this.affinity[row - 1] : null;
+                this.affinity[row] = cpus.equals(previous) ? previous : cpus;
+            }
+        }
+        this.contextSwitches[row] = ctxt;
+    }
+
+    private void readIo(int row, String path) {
+        // Usually permission-denied for other users' processes when not elevated
+        for (String line : FileUtil.readFile(path, false)) {
+            if (line.startsWith("read_bytes:")) {
+                this.bytesRead[row] = parseFirstLong(line, 11, 0L);
+            } else if (line.startsWith("write_bytes:")) {
+                this.bytesWritten[row] = parseFirstLong(line, 12, 0L);
+            }
+        }
+    }
+
+    private static String procPidFile(StringBuilder sb, int p, String file) {
+        sb.setLength(0);
+        return sb.append(ProcPath.PROC).append('/').append(p).append(file).toString();
+    }
+
+    /**
+     * Parses the first whitespace-delimited integer after the given offset in a line.
+     */
+    private static long parseFirstLong(String line, int offset, long defaultValue) {
+        int len = line.length();
+        int i = offset;
+        while (i < len && Character.isWhitespace(line.charAt(i))) {
+            i++;
+        }
+        int end = i;
+        while (end < len && !Character.isWhitespace(line.charAt(end))) {
+            end++;
+        }
+        return end > i ? ParseUtil.parseLongOrDefault(line.substring(i, end), defaultValue) : defaultValue;
+    }
+
+    /**
+     * Gets the fields populated in this snapshot.
+     *
+     * @return An unmodifiable set of fields
+     */
+    public Set<ProcessField> getFields() {
+        return this.fields;
+    }
+
+    /**
+     * Gets the time this snapshot was captured.
+     *
+     * @return The capture time, in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    /**
+     * Gets the number of rows in this table.
+     *
+     * @return The number of processes captured
+     */
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Finds the row containing a process.
+     *
+     * @param processId The process ID
+     * @return The row index, or a negative value if the process is not in this table
+     */
+    public int indexOf(int processId) {
+        return Arrays.binarySearch(this.pid, 0, this.size, processId);
+    }
+
+    @Override
+    public int getProcessID(int row) {
+        return this.pid[row];
+    }
+
+    public int getParentProcessID(int row) {
+        return this.parentPid[row];
+    }
+
+    /**
+     * Gets the state character of a row as reported in {@code /proc/[pid]/stat}
+     *
+     * @param row The row index
+     * @return The state character, e.g., {@code R} or {@code S}
+     */
+    public char getStateChar(int row) {
+        return this.state[row];
+    }
+
+    @Override
+    public String getName(int row) {
+        return this.name[row];
+    }
+
+    public int getThreadCount(int row) {
+        return this.threadCount[row];
+    }
+
+    public int getPriority(int row) {
+        return this.priority[row];
+    }
+
+    public long getVirtualSize(int row) {
+        return this.virtualSize[row];
+    }
+
+    public long getResidentSetSize(int row) {
+        return this.residentSetSize[row];
+    }
+
+    @Override
+    public long getKernelTime(int row) {
+        return this.kernelTime[row];
+    }
+
+    @Override
+    public long getUserTime(int row) {
+        return this.userTime[row];
+    }
+
+    @Override
+    public long getStartTime(int row) {
+        return this.startTime[row];
+    }
+
+    /**
+     * Gets the start time of a process as recorded by the kernel. Unlike {@link #getStartTime(int)}, this value is not
+     * adjusted for the current time, so it is stable for the life of the process and identifies it together with the
+     * process ID.
+     *
+     * @param row The row index
+     * @return The {@code starttime} field of {@code /proc/[pid]/stat}, in clock ticks since boot
+     */
+    public long getStartTicks(int row) {
+        return this.startTicks[row];
+    }
+
+    /**
+     * Gets the start time of a process as recorded by the kernel, see {@link #getStartTicks(int)}.
+     *
+     * @param row The row index
+     * @return The {@code starttime} field of {@code /proc/[pid]/stat}, in clock ticks since boot
+     */
+    @Override
+    public long getStartKey(int row) {
+        return this.startTicks[row];
+    }
+
+    /**
+     * Gets the unadjusted start time of a process read by this package, see {@link #getStartTicks(int)}.
+     *
+     * @param process The process
+     * @return The start time in clock ticks since boot, or -1 if the process is not a Linux process
+     */
+    static long getStartTicks(OSProcess process) {
+        if (process instanceof LinuxProcessView) {
+            return ((LinuxProcessView) process).getStartTicks();
+        }
+        if (process instanceof LinuxOSProcess) {
+            return ((LinuxOSProcess) process).getStartTicks();
+        }
+        return -1L;
+    }
+
+    @Override
+    public long getMinorFaults(int row) {
+        return this.minorFaults[row];
+    }
+
+    @Override
+    public long getMajorFaults(int row) {
+        return this.majorFaults[row];
+    }
+
+    @Override
+    public long getContextSwitches(int row) {
+        return this.contextSwitches[row];
+    }
+
+    /**
+     * Gets the real user ID of a row.
+     *
+     * @param row The row index
+     * @return The user ID, or -1 if it could not be read
+     */
+    public int getUserID(int row) {
+        return this.userId[row];
+    }
+
+    /**
+     * Gets the real group ID of a row.
+     *
+     * @param row The row index
+     * @return The group ID, or -1 if it could not be read
+     */
+    public int getGroupID(int row) {
+        return this.groupId[row];
+    }
+
+    @Override
+    public long getBytesRead(int row) {
+        return this.bytesRead[row];
+    }
+
+    @Override
+    public long getBytesWritten(int row) {
+        return this.bytesWritten[row];
+    }
+
+    /**
+     * Gets the executable path of a row.
+     *
+     * @param row The row index
+     * @return The path, or an empty string if it could not be read or {@link ProcessField#PATH} was not requested
+     */
+    public String getPath(int row) {
+        return this.path[row];
+    }
+
+    /**
+     * Gets the processor affinity of a row, read from the {@code Cpus_allowed_list} of {@code /proc/[pid]/status}.
+     *
+     * @param row The row index
+     * @return A new bit set of the processors the process may run on, or {@code null} if {@link ProcessField#AFFINITY}
+     *         was not requested
+     */
+    public BitSet getAffinity(int row) {
+        BitSet cpus = this.affinity[row];
+        return cpus == null ? null : (BitSet) cpus.clone();
+    }
+
+    /**
+     * Gets the proportional set size of a row, see {@link OSProcess#getProportionalSetSize()}.
+     *
+     * @param row The row index
+     * @return The size in bytes, or 0 if it could not be read or {@link ProcessField#PROPORTIONAL_MEMORY} was not
+     *         requested
+     */
+    public long getProportionalSetSize(int row) {
+        return this.proportionalSetSize[row];
+    }
+
+    /**
+     * Gets the unique set size of a row, see {@link OSProcess#getUniqueSetSize()}.
+     *
+     * @param row The row index
+     * @return The size in bytes, or 0 if it could not be read or {@link ProcessField#PROPORTIONAL_MEMORY} was not
+     *         requested
+     */
+    public long getUniqueSetSize(int row) {
+        return this.uniqueSetSize[row];
+    }
+
+    /**
+     * Gets the shared resident memory of a row, see {@link OSProcess#getSharedMemorySize()}.
+     *
+     * @param row The row index
+     * @return The size in bytes, or 0 if it could not be read or {@link ProcessField#PROPORTIONAL_MEMORY} was not
+     *         requested
+     */
+    public long getSharedMemorySize(int row) {
+        return this.sharedMemorySize[row];
+    }
+
+    /**
+     * Gets the swapped memory of a row, see {@link OSProcess#getSwappedMemorySize()}.
+     *
+     * @param row The row index
+     * @return The size in bytes, or 0 if it could not be read or {@link ProcessField#PROPORTIONAL_MEMORY} was not
+     *         requested
+     */
+    public long getSwappedMemorySize(int row) {
+        return this.swappedMemorySize[row];
+    }
+
+    /**
+     * Builds a {@link ProcessTree} from the parent process IDs in this table. Tree indices match the rows of this
+     * table, so values collected by row may be passed directly to {@link ProcessTree#rollUp(long[])}.
+     *
+     * @return A process tree of the processes in this table
+     */
+    public ProcessTree getProcessTree() {
+        return ProcessTree.of(Arrays.copyOf(this.pid, this.size), Arrays.copyOf(this.parentPid, this.size));
+    }
+
+    /**
+     * Gets a lightweight {@link OSProcess} view over a row of this table.
+     *
+     * @param row The row index
+     * @return A process backed by this table
+     */
+    public OSProcess getProcess(int row) {
+        if (row < 0 || row >= this.size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for table size " + this.size);
+        }
+        return new LinuxProcessView(this, row);
+    }
+
+    /**
+     * Gets {@link OSProcess} views over every row of this table, suitable for the filtering and sorting in
+     * {@link oshi.software.os.OperatingSystem#getProcesses(java.util.function.Predicate, java.util.Comparator, int)}.
+     *
+     * @return A list of processes backed by this table, in process ID order
+     */
+    public List<OSProcess> getProcesses() {
+        List<OSProcess> procs = new ArrayList<>(this.size);
+        for (int row = 0; row < this.size; row++) {
+            procs.add(new LinuxProcessView(this, row));
+        }
+        return procs;
+    }
+
+    /**
+     * An {@link OSProcess} backed by a row of a {@link LinuxProcessTable}. Attributes outside the snapshot are fetched
+     * on demand.
+     */
+    @ThreadSafe
+    private static final class LinuxProcessView extends AbstractOSProcess {
+
+        private final LinuxProcessTable snapshot;
+        private final int snapshotRow;
+        // Either the snapshot, or a single-row table after attributes are updated
+        private volatile LinuxProcessTable table;
+        // Set when an update finds the process has terminated, which keeps the last values read
+        private volatile boolean terminated;
+        // Read on first request if not in the table, cleared when attributes are updated
+        private volatile long[] smaps;
+        // Read on first request, as by LinuxOSProcess
+        private final Supplier<Integer> bitness = memoize(this::queryBitness);
+        private final Supplier<String> commandLine = memoize(this::queryCommandLine);
+        private final Supplier<Pair<List<String>, Boolean>> arguments = memoize(this::queryArguments);
+        private final Supplier<Pair<Map<String, String>, Boolean>> environment = memoize(
+                this::queryEnvironmentVariables);
+
+        LinuxProcessView(LinuxProcessTable table, int row) {
+            super(table.getProcessID(row));
+            this.snapshot = table;
+            this.snapshotRow = row;
+            this.table = table;
+        }
+
+        private int rowOf(LinuxProcessTable t) {
+            return t == this.snapshot ? this.snapshotRow : 0;
+        }
+
+        @Override
+        public String getName() {
+            LinuxProcessTable t = this.table;
+            return t.getName(rowOf(t));
+        }
+
+        @Override
+        public String getPath() {
+            LinuxProcessTable t = this.table;
+            return t.getPath(rowOf(t));
+        }
+
+        @Override
+        public String getCommandLine() {
+            return commandLine.get();
+        }
+
+        private String queryCommandLine() {
+            return LinuxOSProcess.queryCommandLine(getProcessID());
+        }
+
+        @Override
+        public List<String> getArguments() {
+            return arguments.get().getA();
+        }
+
+        @Override
+        public boolean isArgumentsTruncated() {
+            return arguments.get().getB();
+        }
+
+        private Pair<List<String>, Boolean> queryArguments() {
+            return LinuxOSProcess.queryArguments(getProcessID());
+        }
+
+        @Override
+        public Map<String, String> getEnvironmentVariables() {
+            return environment.get().getA();
+        }
+
+        @Override
+        public String getEnvironmentVariable(String name) {
+            return LinuxOSProcess.queryEnvironmentVariable(getProcessID(), name);
+        }
+
+        @Override
+        public boolean isEnvironmentTruncated() {
+            return environment.get().getB();
+        }
+
+        private Pair<Map<String, String>, Boolean> queryEnvironmentVariables() {
+            return LinuxOSProcess.queryEnvironmentVariables(getProcessID());
+        }
+
+        @Override
+        public String getCurrentWorkingDirectory() {
+            return LinuxOSProcess.queryCurrentWorkingDirectory(getProcessID());
+        }
+
+        @Override
+        public String getUser() {
+            LinuxProcessTable t = this.table;
+            int uid = t.getUserID(rowOf(t));
+            return uid < 0 ? "" : UserGroupInfo.getUser(Integer.toString(uid));
+        }
+
+        @Override
+        public String getUserID() {
+            LinuxProcessTable t = this.table;
+            int uid = t.getUserID(rowOf(t));
+            return uid < 0 ? "" : Integer.toString(uid);
+        }
+
+        @Override
+        public String getGroup() {
+            LinuxProcessTable t = this.table;
+            int gid = t.getGroupID(rowOf(t));
+            return gid < 0 ? "" : UserGroupInfo.getGroupName(Integer.toString(gid));
+        }
+
+        @Override
+        public String getGroupID() {
+            LinuxProcessTable t = this.table;
+            int gid = t.getGroupID(rowOf(t));
+            return gid < 0 ? "" : Integer.toString(gid);
+        }
+
+        @Override
+        public State getState() {
+            LinuxProcessTable t = this.table;
+            return this.terminated ? INVALID : ProcessStat.getState(t.getStateChar(rowOf(t)));
+        }
+
+        @Override
+        public int getParentProcessID() {
+            LinuxProcessTable t = this.table;
+            return t.getParentProcessID(rowOf(t));
+        }
+
+        @Override
+        public int getThreadCount() {
+            LinuxProcessTable t = this.table;
+            return t.getThreadCount(rowOf(t));
+        }
+
+        @Override
+        public int getPriority() {
+            LinuxProcessTable t = this.table;
+            return t.getPriority(rowOf(t));
+        }
+
+        @Override
+        public long getVirtualSize() {
+            LinuxProcessTable t = this.table;
+            return t.getVirtualSize(rowOf(t));
+        }
+
+        @Override
+        public long getResidentSetSize() {
+            LinuxProcessTable t = this.table;
+            return t.getResidentSetSize(rowOf(t));
+        }
+
+        @Override
+        public long getKernelTime() {
+            LinuxProcessTable t = this.table;
+            return t.getKernelTime(rowOf(t));
+        }
+
+        @Override
+        public long getUserTime() {
+            LinuxProcessTable t = this.table;
+            return t.getUserTime(rowOf(t));
+        }
+
+        @Override
+        public long getUpTime() {
+            LinuxProcessTable t = this.table;
+            return t.getTimestamp() - t.getStartTime(rowOf(t));
+        }
+
+        @Override
+        public long getStartTime() {
+            LinuxProcessTable t = this.table;
+            return t.getStartTime(rowOf(t));
+        }
+
+        long getStartTicks() {
+            LinuxProcessTable t = this.table;
+            return t.getStartTicks(rowOf(t));
+        }
+
+        @Override
+        public long getBytesRead() {
+            LinuxProcessTable t = this.table;
+            return t.getBytesRead(rowOf(t));
+        }
+
+        @Override
+        public long getBytesWritten() {
+            LinuxProcessTable t = this.table;
+            return t.getBytesWritten(rowOf(t));
+        }
+
+        @Override
+        public long getMinorFaults() {
+            LinuxProcessTable t = this.table;
+            return t.getMinorFaults(rowOf(t));
+        }
+
+        @Override
+        public long getMajorFaults() {
+            LinuxProcessTable t = this.table;
+            return t.getMajorFaults(rowOf(t));
+        }
+
+        @Override
+        public long getContextSwitches() {
+            LinuxProcessTable t = this.table;
+            return t.getContextSwitches(rowOf(t));
+        }
+
+        @Override
+        public long getProportionalSetSize() {
+            LinuxProcessTable t = this.table;
+            return hasSmaps(t) ? t.getProportionalSetSize(rowOf(t)) : querySmaps()[SmapsField.PSS.ordinal()];
+        }
+
+        @Override
+        public long getUniqueSetSize() {
+            LinuxProcessTable t = this.table;
+            return hasSmaps(t) ? t.getUniqueSetSize(rowOf(t)) : querySmaps()[SmapsField.USS.ordinal()];
+        }
+
+        @Override
+        public long getSharedMemorySize() {
+            LinuxProcessTable t = this.table;
+            return hasSmaps(t) ? t.getSharedMemorySize(rowOf(t)) : querySmaps()[SmapsField.SHARED.ordinal()];
+        }
+
+        @Override
+        public long getSwappedMemorySize() {
+            LinuxProcessTable t = this.table;
+            return hasSmaps(t) ? t.getSwappedMemorySize(rowOf(t)) : querySmaps()[SmapsField.SWAP.ordinal()];
+        }
+
+        private static boolean hasSmaps(LinuxProcessTable t) {
+            return t.fields.contains(ProcessField.PROPORTIONAL_MEMORY);
+        }
+
+        private long[] querySmaps() {
+            long[] sizes = this.smaps;
+            if (sizes == null) {
+                sizes = LinuxOSProcess.querySmaps(getProcessID());
+                this.smaps = sizes;
+            }
+            return sizes;
+        }
+
+        @Override
+        public long getOpenFiles() {
+            return ProcessStat.getFileDescriptorFiles(getProcessID()).length;
+        }
+
+        @Override
+        public long getSoftOpenFileLimit() {
+            return LinuxOSProcess.queryOpenFileLimit(getProcessID(),
+                    getProcessID() == LinuxLibc.INSTANCE.getpid(), true);
+        }
+
+        @Override
+        public long getHardOpenFileLimit() {
+            return LinuxOSProcess.queryOpenFileLimit(getProcessID(),
+                    getProcessID() == LinuxLibc.INSTANCE.getpid(), false);
+        }
+
+        @Override
+        public int getBitness() {
+            return bitness.get();
+        }
+
+        private int queryBitness() {
+            // The path is only in the table if requested
+            String path = getPath();
+            return LinuxOSProcess.queryBitness(path.isEmpty() ? LinuxOSProcess.queryPath(getProcessID()) : path);
+        }
+
+        @Override
+        public long getAffinityMask() {
+            LinuxProcessTable t = this.table;
+            BitSet cpus = t.affinity[rowOf(t)];
+            if (cpus == null) {
+                return LinuxOSProcess.queryAffinityMask(getProcessID());
+            }
+            long[] words = cpus.toLongArray();
+            return words.length > 0 ? words[0] : 0L;
+        }
+
+        @Override
+        public BitSet getAffinity() {
+            LinuxProcessTable t = this.table;
+            BitSet cpus = t.getAffinity(rowOf(t));
+            return cpus == null ? LinuxOSProcess.queryAffinity(getProcessID()) : cpus;
+        }
+
+        @Override
+        public List<OSThread> getThreadDetails() {
+            return LinuxOSProcess.queryThreadDetails(getProcessID());
+        }
+
+        @Override
+        public boolean updateAttributes() {
+            // Re-read this process into a single-row table rather than modifying the shared snapshot, reusing a
+            // cached stat handle if enabled
+            LinuxProcessTable updated = new LinuxProcessTable(new int[] { getProcessID() }, this.snapshot.getFields(),
+                    null, true);
+            if (updated.size() == 0) {
+                // As LinuxOSProcess, keep the previous values and mark the process invalid
+                this.terminated = true;
+                return false;
+            }
+            this.table = updated;
+            this.smaps = null;
+            this.terminated = false;
+            return true;
+        }
+    }
+}
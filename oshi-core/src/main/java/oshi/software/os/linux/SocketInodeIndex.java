@@ -0,0 +1,301 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.software.os.linux;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import oshi.annotation.concurrent.GuardedBy;
+import oshi.annotation.concurrent.ThreadSafe;
+import oshi.driver.linux.proc.ProcessStat;
+import oshi.software.os.OperatingSystem.ProcessField;
+import oshi.util.ProcScanner;
+import oshi.util.platform.linux.ProcPath;
+
+/**
+ * A maintained index from socket inode to the process holding the socket, built from the file descriptor links in
+ * {@code /proc/[pid]/fd}.
+ * <p>
+ * {@link ProcessStat#querySocketToPidMap()} reads the link of every file descriptor of every process on each call. This
+ * index instead remembers, for each process, its start time, its number of open file descriptors, and which of them
+ * are sockets. A {@link #refresh()} lists each process's descriptors, but only reads the links of processes which are
+ * new, have a different start time, or have a different number of descriptors.
+ * <p>
+ * A process may close one socket and open another without changing its descriptor count, so an unchanged process may
+ * hold sockets missing from the index, and the index may hold sockets it has closed. Lookups with
+ * {@link #getProcessID(long, long)} therefore always confirm that the indexed descriptor still refers to the socket
+ * before returning its owner, and read the owner's descriptors again if it does not. A socket which is not indexed
+ * after a refresh is remembered as unknown until the next refresh. Such sockets are usually held by processes whose
+ * descriptors cannot be read, so the descriptors of unchanged processes are never read again to look for them.
+ */
+@ThreadSafe
+public final class SocketInodeIndex {
+
+    private static final EnumSet<ProcessField> FIELDS = EnumSet.of(ProcessField.START_TIME);
+    private static final int[] NO_FDS = new int[0];
+    private static final long[] NO_INODES = new long[0];
+
+    @GuardedBy("this")
+    private Map<Integer, ProcessSockets> processes = new HashMap<>();
+    // Socket inode to (pid << 32 | fd)
+    @GuardedBy("this")
+    private final Map<Long, Long> owners = new HashMap<>();
+    @GuardedBy("this")
+    private boolean refreshed;
+    @GuardedBy("this")
+    private long lastRefresh;
+    // Sockets not found by the last refresh
+    @GuardedBy("this")
+    private final Set<Long> misses = new HashSet<>();
+
+    /**
+     * Updates the index from {@code /proc}, reading descriptor links only for processes whose start time or number of
+     * descriptors changed since the last refresh.
+     */
+    public synchronized void refresh() {
+        LinuxProcessTable table = LinuxProcessTable.snapshot(FIELDS);
+        int n = table.size();
+        Map<Integer, ProcessSockets> previous = this.processes;
+        ProcessSockets[] current = new ProcessSockets[n];
+        // The previous map is only read while ranges are scanned
+        ProcScanner.get().forEachRange(n, (range, from, to) -> {
+            StringBuilder sb = new StringBuilder(ProcPath.PROC.length() + 32);
+            for (int row = from; row < to; row++) {
+                int pid = table.getProcessID(row);
+                long startTicks = table.getStartTicks(row);
+                String fdPath = fdPath(sb, pid, -1);
+                String[] fds = new File(fdPath).list();
+                int fdCount = fds == null ? 0 : fds.length;
+                ProcessSockets old = previous.get(pid);
+                if (old != null && old.startTicks == startTicks && old.fdCount == fdCount) {
+                    current[row] = old;
+                } else {
+                    current[row] = scan(sb, pid, startTicks, fds);
+                }
+            }
+        });
+
+        Map<Integer, ProcessSockets> updated = new HashMap<>(n * 4 / 3 + 1);
+        for (int row = 0; row < n; row++) {
+            ProcessSockets ps = current[row];
+            ProcessSockets old = previous.remove(ps.pid);
+            if (old != ps) {
+                if (old != null) {
+                    removeOwners(old);
+                }
+                addOwners(ps);
+            }
+            updated.put(ps.pid, ps);
+        }
+        // Whatever remains has exited
+        for (ProcessSockets old : previous.values()) {
+            removeOwners(old);
+        }
+        this.processes = updated;
+        this.misses.clear();
+        this.refreshed = true;
+        this.lastRefresh = System.nanoTime();
+    }
+
+    /**
+     * Reads the descriptor links of one indexed process again, replacing its sockets in the index.
+     */
+    @GuardedBy("this")
+    private void rescan(int pid) {
+        ProcessSockets old = this.processes.get(pid);
+        if (old == null) {
+            return;
+        }
+        removeOwners(old);
+        StringBuilder sb = new StringBuilder(ProcPath.PROC.length() + 32);
+        String[] fds = new File(fdPath(sb, pid, -1)).list();
+        if (fds == null) {
+            // The process has exited
+            this.processes.remove(pid);
+            return;
+        }
+        ProcessSockets ps = scan(sb, pid, old.startTicks, fds);
+        addOwners(ps);
+        this.processes.put(pid, ps);
+    }
+
+    /**
+     * Gets the number of sockets in the index.
+     *
+     * @return The number of indexed socket inodes
+     */
+    public synchronized int size() {
+        return this.owners.size();
+    }
+
+    /**
+     * Gets the process holding a socket from the index as of the last refresh, without confirming it.
+     *
+     * @param inode The socket inode
+     * @return The process ID, or -1 if the socket is not indexed
+     */
+    public synchronized int getIndexedProcessID(long inode) {
+        Long owner = this.owners.get(inode);
+        return owner == null ? -1 : (int) (owner >>> 32);
+    }
+
+    /**
+     * Gets the process holding a socket, confirming that the indexed descriptor still refers to it. If it does not, the
+     * indexed owner's descriptors are read again. If the socket is then not indexed, the index is refreshed unless it
+     * was already refreshed at or after {@code notBefore}, so callers resolving many sockets at once should pass the
+     * same {@code notBefore} to refresh at most once. A socket the current refresh did not find is reported unknown
+     * without further reads.
+     *
+     * @param inode     The socket inode
+     * @param notBefore A {@link System#nanoTime()} value; a refresh at or after this time is considered current
+     * @return The process ID, or -1 if no readable process could be confirmed to hold the socket
+     */
+    public int getProcessID(long inode, long notBefore) {
+        if (inode <= 0) {
+            return -1;
+        }
+        Long owner;
+        synchronized (this) {
+            owner = this.owners.get(inode);
+        }
+        if (owner != null && refersTo(owner, inode)) {
+            return (int) (owner >>> 32);
+        }
+        synchronized (this) {
+            int pid;
+            if (owner != null) {
+                // The socket may have moved to another descriptor of the same process
+                rescan((int) (owner >>> 32));
+                if ((pid = confirmedOwner(inode)) >= 0) {
+                    return pid;
+                }
+            }
+            boolean current = this.refreshed && this.lastRefresh - notBefore >= 0;
+            if (current && this.misses.contains(inode)) {
+                return -1;
+            }
+            if (!current) {
+                refresh();
+                if ((pid = confirmedOwner(inode)) >= 0) {
+                    return pid;
+                }
+            }
+            this.misses.add(inode);
+            return -1;
+        }
+    }
+
+    @GuardedBy("this")
+    private int confirmedOwner(long inode) {
+        Long owner = this.owners.get(inode);
+        return owner != null && refersTo(owner, inode) ? (int) (owner >>> 32) : -1;
+    }
+
+    private static boolean refersTo(long owner, long inode) {
+        String link = fdPath(new StringBuilder(ProcPath.PROC.length() + 32), (int) (owner >>> 32), (int) owner);
+        return ProcessStat.parseSocketInode(readLink(link)) == inode;
+    }
+
+    private static ProcessSockets scan(StringBuilder sb, int pid, long startTicks, String[] fds) {
+        if (fds == null || fds.length == 0) {
+            return new ProcessSockets(pid, startTicks, 0, NO_FDS, NO_INODES);
+        }
+        int[] socketFds = new int[fds.length];
+        long[] inodes = new long[fds.length];
+        int count = 0;
+        for (String name : fds) {
+            int fd = parseFd(name);
+            if (fd >= 0) {
+                long inode = ProcessStat.parseSocketInode(readLink(fdPath(sb, pid, fd)));
+                if (inode > 0) {
+                    socketFds[count] = fd;
+                    inodes[count++] = inode;
+                }
+            }
+        }
+        return new ProcessSockets(pid, startTicks, fds.length, Arrays.copyOf(socketFds, count),
+                Arrays.copyOf(inodes, count));
+    }
+
+    @GuardedBy("this")
+    private void addOwners(ProcessSockets ps) {
+        for (int i = 0; i < ps.inodes.length; i++) {
+            this.owners.put(ps.inodes[i], ((long) ps.pid << 32) | (ps.fds[i] & 0xffffffffL));
+        }
+    }
+
+    @GuardedBy("this")
+    private void removeOwners(ProcessSockets ps) {
+        for (int i = 0; i < ps.inodes.length; i++) {
+            Long owner = this.owners.get(ps.inodes[i]);
+            // Sockets may be shared with another process which is now the indexed owner
+            if (owner != null && (int) (owner >>> 32) == ps.pid) {
+                this.owners.remove(ps.inodes[i]);
+            }
+        }
+    }
+
+    private static String fdPath(StringBuilder sb, int pid, int fd) {
+        sb.setLength(0);
+        sb.append(ProcPath.PROC).append('/').append(pid).append("/fd");
+        if (fd >= 0) {
+            sb.append('/').append(fd);
+        }
+        return sb.toString();
+    }
+
+    private static String readLink(String path) {
+        try {
+            return Files.readSymbolicLink(Paths.get(path)).toString();
+        } catch (IOException | InvalidPathException | UnsupportedOperationException | SecurityException e) {
+            // Usually the descriptor was closed or the process is not readable
+            return null;
+        }
+    }
+
+    private static int parseFd(String s) {
+        int len = s.length();
+        if (len == 0 || len > 9) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + c - '0';
+        }
+        return value;
+    }
+
+    /**
+     * The socket descriptors of one process at its last scan.
+     */
+    private static final class ProcessSockets {
+        private final int pid;
+        private final long startTicks;
+        private final int fdCount;
+        private final int[] fds;
+        private final long[] inodes;
+
+        private ProcessSockets(int pid, long startTicks, int fdCount, int[] fds, long[] inodes) {
+            this.pid = pid;
+            this.startTicks = startTicks;
+            this.fdCount = fdCount;
+            this.fds = fds;
+            this.inodes = inodes;
+        }
+    }
+}
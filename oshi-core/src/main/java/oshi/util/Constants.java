@@ -1,5 +1,5 @@
 /*
- * Copyright 2019-2022 The OSHI Project Contributors
+ * Copyright 2019-2023 The OSHI Project Contributors
  * SPDX-License-Identifier: MIT
  */
 package oshi.util;
@@ -27,6 +27,11 @@ public final class Constants {
      */
     public static final String SYSFS_SERIAL_PATH = "/sys/devices/virtual/dmi/id/";
 
+    /**
+     * The sysfs directory containing a {@code cpuN} directory for each logical processor
+     */
+    public static final String SYSFS_CPU_PATH = "/sys/devices/system/cpu/";
+
     /**
      * The Unix Epoch, a default value when WMI DateTime queries return no value.
      */
@@ -1,5 +1,5 @@
 /*
- * Copyright 2019-2022 The OSHI Project Contributors
+ * Copyright 2019-2023 The OSHI Project Contributors
  * SPDX-License-Identifier: MIT
  */
 package oshi.util;
@@ -30,6 +30,10 @@ public final class GlobalConfig {
     public static final String OSHI_NETWORK_FILESYSTEM_TYPES = "oshi.network.filesystem.types";
 
     public static final String OSHI_OS_LINUX_PROCFS_LOGWARNING = "oshi.os.linux.procfs.logwarning";
+    public static final String OSHI_OS_LINUX_PROCFS_WORKERS = "oshi.os.linux.procfs.workers";
+    public static final String OSHI_OS_LINUX_PROCFS_HANDLECACHE_SIZE = "oshi.os.linux.procfs.handlecache.size";
+    public static final String OSHI_OS_LINUX_PROCFS_CMDLINE_MAXBYTES = "oshi.os.linux.procfs.cmdline.maxbytes";
+    public static final String OSHI_OS_LINUX_PROCFS_ENVIRON_MAXBYTES = "oshi.os.linux.procfs.environ.maxbytes";
 
     public static final String OSHI_OS_MAC_SYSCTL_LOGWARNING = "oshi.os.mac.sysctl.logwarning";
 
@@ -16,6 +16,7 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -1050,6 +1051,53 @@ public final class ParseUtil {
         return result;
     }
 
+    /**
+     * Parse a comma-separated list of integers and hyphenated ranges, such as the CPU lists in {@code /proc} and
+     * {@code /sys}, to a bit set. For example, {@code 0-2,8} parses to a set containing 0, 1, 2, and 8. Unlike
+     * {@link #parseHyphenatedIntList(String)}, no intermediate strings or boxed integers are created.
+     *
+     * @param str    A string containing the list
+     * @param offset The index at which the list starts. Leading whitespace is skipped.
+     * @return A bit set of the listed integers. Parsing stops at the first unexpected character.
+     */
+    public static BitSet parseHyphenatedIntListToBitSet(String str, int offset) {
+        BitSet result = new BitSet();
+        int len = str.length();
+        int i = offset;
+        while (i < len && Character.isWhitespace(str.charAt(i))) {
+            i++;
+        }
+        while (i < len) {
+            int first = 0;
+            int start = i;
+            for (; i < len && str.charAt(i) >= '0' && str.charAt(i) <= '9'; i++) {
+                first = first * 10 + str.charAt(i) - '0';
+            }
+            if (i == start) {
+                break;
+            }
+            int last = first;
+            if (i < len && str.charAt(i) == '-') {
+                last = 0;
+                start = ++i;
+                for (; i < len && str.charAt(i) >= '0' && str.charAt(i) <= '9'; i++) {
+                    last = last * 10 + str.charAt(i) - '0';
+                }
+                if (i == start) {
+                    break;
+                }
+            }
+            if (last >= first) {
+                result.set(first, last + 1);
+            }
+            if (i >= len || str.charAt(i) != ',') {
+                break;
+            }
+            i++;
+        }
+        return result;
+    }
+
     /**
      * Parse an integer in big endian IP format to its component bytes representing an IPv4 address
      *
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import oshi.annotation.concurrent.ThreadSafe;
+
+/**
+ * Splits scans of the {@code /proc} filesystem, such as reading every process or every thread of a process, into
+ * contiguous ranges processed by several workers.
+ * <p>
+ * The scanner in use is chosen by the {@code oshi.os.linux.procfs.workers} configuration property: {@code 1} (the
+ * default) scans on the calling thread, {@code 0} uses the common {@link ForkJoinPool}, and a larger value uses a
+ * dedicated pool bounded to that many workers. It may be replaced at runtime with {@link #set(ProcScanner)}, for
+ * example to use an application-supplied {@link Executor}.
+ * <p>
+ * The calling thread always processes the first range itself and waits for the others, so an executor with fewer
+ * threads than the parallelism, or one which rejects tasks, slows a scan down but cannot deadlock it.
+ * <p>
+ * A scanner created by {@link #boundedPool(int)} owns its pool, which is shut down by {@link #close()}. Closing other
+ * scanners has no effect. A closed scanner remains usable, processing every range on the calling thread.
+ */
+@ThreadSafe
+public final class ProcScanner implements AutoCloseable {
+
+    // Idle threads of a dedicated pool exit after this time, so a pool which is never closed holds no threads
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    // Ranges smaller than this are not worth handing to another thread
+    private static final int MIN_RANGE = 16;
+
+    private static final ProcScanner CALLER_THREAD = new ProcScanner(null, 1, false);
+
+    private static volatile ProcScanner instance = queryScannerConfig();
+
+    private final Executor executor;
+    private final int parallelism;
+    private final boolean ownsExecutor;
+
+    private ProcScanner(Executor executor, int parallelism, boolean ownsExecutor) {
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * Consumes one range of a scan.
+     */
+    @FunctionalInterface
+    public interface RangeConsumer {
+        /**
+         * Processes the indices {@code from} (inclusive) to {@code to} (exclusive).
+         *
+         * @param range The index of this range, between 0 and {@link ProcScanner#ranges(int)} - 1
+         * @param from  The first index
+         * @param to    One past the last index
+         */
+        void accept(int range, int from, int to);
+    }
+
+    private static ProcScanner queryScannerConfig() {
+        int workers = GlobalConfig.get(GlobalConfig.OSHI_OS_LINUX_PROCFS_WORKERS, 1);
+        if (workers < 0) {
+            throw new GlobalConfig.PropertyException(GlobalConfig.OSHI_OS_LINUX_PROCFS_WORKERS,
+                    "The value must not be negative");
+        }
+        return workers == 0 ? commonPool() : boundedPool(workers);
+    }
+
+    /**
+     * Gets the scanner used by OSHI for {@code /proc} scans.
+     *
+     * @return The current scanner
+     */
+    public static ProcScanner get() {
+        return instance;
+    }
+
+    /**
+     * Sets the scanner used by OSHI for {@code /proc} scans. Scans already in progress are unaffected. The replaced
+     * scanner is not closed.
+     *
+     * @param scanner The scanner to use
+     */
+    public static void set(ProcScanner scanner) {
+        if (scanner == null) {
+            throw new IllegalArgumentException("Scanner must not be null.");
+        }
+        instance = scanner;
+    }
+
+    /**
+     * Gets a scanner which processes every range on the calling thread.
+     *
+     * @return A sequential scanner
+     */
+    public static ProcScanner callerThread() {
+        return CALLER_THREAD;
+    }
+
+    /**
+     * Gets a scanner which uses the common {@link ForkJoinPool}, with its parallelism.
+     *
+     * @return A scanner sharing the common pool
+     */
+    public static ProcScanner commonPool() {
+        return new ProcScanner(ForkJoinPool.commonPool(), Math.max(1, ForkJoinPool.getCommonPoolParallelism()),
+                false);
+    }
+
+    /**
+     * Creates a scanner with a dedicated pool of daemon threads. Together with the calling thread, at most
+     * {@code workers} threads process a scan. The pool is shut down by {@link #close()}; threads which are idle for a
+     * minute also exit.
+     *
+     * @param workers The maximum number of threads per scan
+     * @return A scanner with its own bounded pool, or the sequential scanner if {@code workers} is 1
+     */
+    public static ProcScanner boundedPool(int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Workers must be positive.");
+        }
+        if (workers == 1) {
+            return CALLER_THREAD;
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(workers - 1, workers - 1, KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "oshi-procfs-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return new ProcScanner(pool, workers, true);
+    }
+
+    /**
+     * Creates a scanner which submits ranges to a caller-supplied executor. The executor's lifecycle remains the
+     * caller's responsibility.
+     *
+     * @param executor    The executor to use
+     * @param parallelism The maximum number of ranges per scan, including the one processed by the calling thread
+     * @return A scanner using the executor
+     */
+    public static ProcScanner of(Executor executor, int parallelism) {
+        if (executor == null || parallelism < 1) {
+            throw new IllegalArgumentException("Executor must not be null and parallelism must be positive.");
+        }
+        return new ProcScanner(executor, parallelism, false);
+    }
+
+    /**
+     * Gets the maximum number of ranges a scan is split into.
+     *
+     * @return The parallelism of this scanner
+     */
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Gets the number of ranges a scan of the given size is split into.
+     *
+     * @param size The number of indices to scan
+     * @return The number of ranges, at least 1
+     */
+    public int ranges(int size) {
+        return Math.max(1, Math.min(this.parallelism, size / MIN_RANGE));
+    }
+
+    /**
+     * Splits the indices {@code 0} to {@code size - 1} into {@link #ranges(int)} contiguous ranges of similar size,
+     * processes them, and waits for all to complete. Each range is processed by exactly one thread.
+     *
+     * @param size     The number of indices to scan
+     * @param consumer The consumer for each range
+     */
+    public void forEachRange(int size, RangeConsumer consumer) {
+        int ranges = ranges(size);
+        if (ranges == 1) {
+            consumer.accept(0, 0, size);
+            return;
+        }
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[ranges - 1];
+        for (int r = 1; r < ranges; r++) {
+            int range = r;
+            int from = bound(size, ranges, r);
+            int to = bound(size, ranges, r + 1);
+            try {
+                futures[r - 1] = CompletableFuture.runAsync(() -> consumer.accept(range, from, to), this.executor);
+            } catch (RejectedExecutionException e) {
+                consumer.accept(range, from, to);
+                futures[r - 1] = CompletableFuture.completedFuture(null);
+            }
+        }
+        consumer.accept(0, 0, bound(size, ranges, 1));
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Shuts down the pool of a scanner created by {@link #boundedPool(int)}, after any scans in progress complete. Has
+     * no effect on other scanners, whose executors remain the responsibility of their owners.
+     */
+    @Override
+    public void close() {
+        if (this.ownsExecutor) {
+            ((ExecutorService) this.executor).shutdown();
+        }
+    }
+
+    private static int bound(int size, int ranges, int range) {
+        return (int) ((long) size * range / ranges);
+    }
+
+    @Override
+    public String toString() {
+        return "ProcScanner[parallelism=" + this.parallelism
+                + (this.executor == null ? ", caller thread]" : ", executor=" + this.executor + "]");
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2022 The OSHI Project Contributors
+ * Copyright 2020-2023 The OSHI Project Contributors
  * SPDX-License-Identifier: MIT
  */
 package oshi.util.platform.linux;
@@ -27,6 +27,7 @@ public final class ProcPath {
     public static final String AUXV = PROC + "/self/auxv";
     public static final String CPUINFO = PROC + "/cpuinfo";
     public static final String DISKSTATS = PROC + "/diskstats";
+    public static final String LOADAVG = PROC + "/loadavg";
     public static final String MEMINFO = PROC + "/meminfo";
     public static final String MODEL = PROC + "/device-tree/model";
     public static final String MOUNTS = PROC + "/mounts";
@@ -40,6 +41,7 @@ public final class ProcPath {
     public static final String PID_STAT = PROC + "/%d/stat";
     public static final String PID_STATM = PROC + "/%d/statm";
     public static final String PID_STATUS = PROC + "/%d/status";
+    public static final String PRESSURE = PROC + "/pressure/";
     public static final String SELF_STAT = PROC + "/self/stat";
     public static final String STAT = PROC + "/stat";
     public static final String SYS_FS_FILE_NR = PROC + "/sys/fs/file-nr";
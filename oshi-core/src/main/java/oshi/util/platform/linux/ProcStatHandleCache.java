@@ -0,0 +1,314 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.util.platform.linux;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import oshi.annotation.concurrent.GuardedBy;
+import oshi.annotation.concurrent.ThreadSafe;
+import oshi.driver.linux.proc.ProcessStat;
+import oshi.util.GlobalConfig;
+
+/**
+ * An opt-in cache of open handles to {@code /proc/[pid]/stat} and {@code /proc/[pid]/task/[tid]/stat}.
+ * <p>
+ * Repeatedly refreshing a long-lived process otherwise opens, reads, and closes its stat file each time. With the cache
+ * enabled, the file is kept open and re-read with a positional read into a buffer owned by the handle, which the kernel
+ * regenerates on each read from offset zero.
+ * <p>
+ * Each handle is keyed by process (and thread) ID and records the start time read when it was opened. A handle whose
+ * process has exited fails to read, and one whose start time no longer matches is discarded, so a reused process ID is
+ * never served from a stale handle. At most {@code oshi.os.linux.procfs.handlecache.size} handles, or the number set
+ * with {@link #setCapacity(int)}, are kept open; the least recently used is closed when the limit is reached. The cache
+ * is disabled when the size is 0, the default, in which case reads fall back to
+ * {@link ProcessStat#readStat(String, byte[])}.
+ */
+@ThreadSafe
+public final class ProcStatHandleCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProcStatHandleCache.class);
+
+    private static volatile int capacity = queryCapacityConfig();
+
+    // Stat lines are rarely longer than this; the buffer grows if needed
+    private static final int INITIAL_BUFFER_SIZE = 512;
+
+    // Index of the starttime field among the space-separated fields after the process name, starting with state
+    private static final int START_TIME_FIELD = 19;
+
+    @GuardedBy("HANDLES")
+    private static final Map<Long, Handle> HANDLES = new LinkedHashMap<Long, Handle>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Entry<Long, Handle> eldest) {
+            if (size() > capacity) {
+                eldest.getValue().close();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private ProcStatHandleCache() {
+    }
+
+    private static int queryCapacityConfig() {
+        int capacity = GlobalConfig.get(GlobalConfig.OSHI_OS_LINUX_PROCFS_HANDLECACHE_SIZE, 0);
+        if (capacity < 0) {
+            throw new GlobalConfig.PropertyException(GlobalConfig.OSHI_OS_LINUX_PROCFS_HANDLECACHE_SIZE,
+                    "The value must not be negative");
+        }
+        return capacity;
+    }
+
+    /**
+     * Tests whether handles are cached.
+     *
+     * @return True if the configured cache size is positive
+     */
+    public static boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    /**
+     * Gets the maximum number of open handles.
+     *
+     * @return The capacity, 0 if the cache is disabled
+     */
+    public static int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Sets the maximum number of open handles, overriding the configured size. Handles beyond the new limit are
+     * closed, least recently used first.
+     *
+     * @param size The maximum number of handles, or 0 to disable the cache
+     */
+    public static void setCapacity(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative.");
+        }
+        List<Handle> closing = new ArrayList<>();
+        synchronized (HANDLES) {
+            capacity = size;
+            Iterator<Handle> it = HANDLES.values().iterator();
+            while (HANDLES.size() > size && it.hasNext()) {
+                closing.add(it.next());
+                it.remove();
+            }
+        }
+        for (Handle h : closing) {
+            h.close();
+        }
+    }
+
+    /**
+     * Reads {@code /proc/[pid]/stat} into a byte array, through a cached handle if enabled.
+     *
+     * @param pid The process ID
+     * @param buf The array to read into, see {@link ProcessStat#STAT_BUFFER_SIZE}
+     * @return The number of bytes read, or 0 if the process is not running
+     */
+    public static int readStat(int pid, byte[] buf) {
+        if (!isEnabled()) {
+            return ProcessStat.readStat(String.format(ProcPath.PID_STAT, pid), buf);
+        }
+        return read(key(pid, -1), String.format(ProcPath.PID_STAT, pid), buf);
+    }
+
+    /**
+     * Reads {@code /proc/[pid]/task/[tid]/stat} into a byte array, through a cached handle if enabled.
+     *
+     * @param pid The process ID
+     * @param tid The thread ID
+     * @param buf The array to read into, see {@link ProcessStat#STAT_BUFFER_SIZE}
+     * @return The number of bytes read, or 0 if the thread is not running
+     */
+    public static int readTaskStat(int pid, int tid, byte[] buf) {
+        if (!isEnabled()) {
+            return ProcessStat.readStat(String.format(ProcPath.TASK_STAT, pid, tid), buf);
+        }
+        return read(key(pid, tid), String.format(ProcPath.TASK_STAT, pid, tid), buf);
+    }
+
+    /**
+     * Gets the number of open handles.
+     *
+     * @return The number of cached handles
+     */
+    public static int size() {
+        synchronized (HANDLES) {
+            return HANDLES.size();
+        }
+    }
+
+    /**
+     * Closes and removes all cached handles.
+     */
+    public static void clear() {
+        List<Handle> closing;
+        synchronized (HANDLES) {
+            closing = new ArrayList<>(HANDLES.values());
+            HANDLES.clear();
+        }
+        for (Handle h : closing) {
+            h.close();
+        }
+    }
+
+    private static long key(int pid, int tid) {
+        return ((long) pid << 32) | (tid & 0xffffffffL);
+    }
+
+    private static int read(long key, String path, byte[] buf) {
+        Handle handle;
+        synchronized (HANDLES) {
+            handle = HANDLES.get(key);
+        }
+        if (handle != null) {
+            int len = handle.read(buf);
+            if (len >= 0) {
+                return len;
+            }
+            // Process exited or its pid was reused
+            remove(key, handle);
+        }
+        handle = Handle.open(path);
+        if (handle == null) {
+            return 0;
+        }
+        int len = handle.read(buf);
+        if (len < 0) {
+            handle.close();
+            return 0;
+        }
+        Handle previous;
+        synchronized (HANDLES) {
+            previous = HANDLES.put(key, handle);
+        }
+        if (previous != null && previous != handle) {
+            previous.close();
+        }
+        return len;
+    }
+
+    private static void remove(long key, Handle handle) {
+        synchronized (HANDLES) {
+            if (HANDLES.get(key) == handle) {
+                HANDLES.remove(key);
+            }
+        }
+        handle.close();
+    }
+
+    /**
+     * Parses the raw start time, in jiffies, from the contents of a stat file.
+     *
+     * @return The start time, or -1 if not found
+     */
+    private static long parseStartTime(byte[] buf, int len) {
+        int i = len - 1;
+        while (i >= 0 && buf[i] != ')') {
+            i--;
+        }
+        if (i < 0) {
+            return -1L;
+        }
+        // Skip ") " to the state field, then to the start time field
+        i += 2;
+        for (int field = 0; field < START_TIME_FIELD; field++) {
+            while (i < len && buf[i] != ' ') {
+                i++;
+            }
+            i++;
+        }
+        long value = 0L;
+        boolean found = false;
+        for (; i < len && buf[i] >= '0' && buf[i] <= '9'; i++) {
+            value = value * 10 + buf[i] - '0';
+            found = true;
+        }
+        return found ? value : -1L;
+    }
+
+    /**
+     * An open stat file and the start time of the process it was opened for.
+     */
+    private static final class Handle {
+        private final FileChannel channel;
+        private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        private long startTime = -1L;
+
+        private Handle(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        private static Handle open(String path) {
+            try {
+                return new Handle(FileChannel.open(Paths.get(path), StandardOpenOption.READ));
+            } catch (IOException | SecurityException e) {
+                LOG.trace("Unable to open {}: {}", path, e.getMessage());
+                return null;
+            }
+        }
+
+        /**
+         * Re-reads the file from the start and copies it to the destination.
+         *
+         * @return The number of bytes copied, or -1 if the file could not be read or now belongs to a different process
+         */
+        private synchronized int read(byte[] dest) {
+            int len = 0;
+            try {
+                this.buffer.clear();
+                int n;
+                while ((n = this.channel.read(this.buffer, len)) > 0) {
+                    len += n;
+                    if (!this.buffer.hasRemaining()) {
+                        ByteBuffer larger = ByteBuffer.allocate(this.buffer.capacity() * 2);
+                        this.buffer.flip();
+                        larger.put(this.buffer);
+                        this.buffer = larger;
+                    }
+                }
+            } catch (IOException e) {
+                // Expected (ESRCH) when the process has exited
+                return -1;
+            }
+            byte[] buf = this.buffer.array();
+            long start = parseStartTime(buf, len);
+            if (start < 0 || this.startTime >= 0 && start != this.startTime) {
+                return -1;
+            }
+            this.startTime = start;
+            int copied = Math.min(len, dest.length);
+            System.arraycopy(buf, 0, dest, 0, copied);
+            return copied;
+        }
+
+        private void close() {
+            try {
+                this.channel.close();
+            } catch (IOException e) {
+                LOG.trace("Unable to close stat handle: {}", e.getMessage());
+            }
+        }
+    }
+}
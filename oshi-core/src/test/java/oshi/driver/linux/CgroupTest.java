@@ -0,0 +1,56 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.driver.linux;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.emptyString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import oshi.jna.platform.linux.LinuxLibc;
+
+@EnabledOnOs(OS.LINUX)
+class CgroupTest {
+
+    private static final String ID = "3f4e5d6c7b8a99aabbccddeeff00112233445566778899aabbccddeeff001122";
+
+    @Test
+    void testParsePath() {
+        assertThat("Unified entry should be used on hybrid systems",
+                Cgroup.parsePath(Arrays.asList("4:memory:/docker/" + ID, "1:name=systemd:/x", "0::/system.slice")),
+                is("/system.slice"));
+        assertThat("Cgroup v1 only should have no path", Cgroup.parsePath(Arrays.asList("4:memory:/")),
+                is(emptyString()));
+        assertThat("Empty file should have no path", Cgroup.parsePath(Collections.emptyList()), is(emptyString()));
+        if (!Cgroup.UNIFIED_ROOT.isEmpty()) {
+            assertThat("Current process should have a unified path", Cgroup.queryPath(LinuxLibc.INSTANCE.getpid()),
+                    startsWith("/"));
+        }
+    }
+
+    @Test
+    void testParseContainerId() {
+        assertThat("Docker cgroupfs", Cgroup.parseContainerId("/docker/" + ID), is(ID));
+        assertThat("Docker systemd", Cgroup.parseContainerId("/system.slice/docker-" + ID + ".scope"), is(ID));
+        assertThat("Kubernetes containerd", Cgroup.parseContainerId(
+                "/kubepods.slice/kubepods-burstable.slice/kubepods-burstable-pod1234.slice/cri-containerd-" + ID
+                        + ".scope"),
+                is(ID));
+        assertThat("Podman", Cgroup.parseContainerId("/machine.slice/libpod-" + ID + ".scope/container"), is(ID));
+        assertThat("Innermost container should be used",
+                Cgroup.parseContainerId("/docker/" + ID.replace('3', '0') + "/docker/" + ID), is(ID));
+        assertThat("Service is not a container", Cgroup.parseContainerId("/system.slice/sshd.service"),
+                is(emptyString()));
+        assertThat("Longer hex runs are not container IDs", Cgroup.parseContainerId("/x/" + ID + "0"),
+                is(emptyString()));
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.driver.linux;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import oshi.hardware.CentralProcessor.FrequencyScaling;
+
+class CpuFrequencyTest {
+
+    @Test
+    void testFrequency(@TempDir Path dir) throws IOException {
+        writeCpu(dir, 0, "2400000\n", "800000\n", "3600000\n", "powersave\n");
+        writeCpu(dir, 1, "3100000\n", "800000\n", "3600000\n", "performance\n");
+        // cpu2 has no cpufreq directory
+
+        CpuFrequency cpuFrequency = new CpuFrequency(dir.toString() + "/", 3);
+        assertThat(cpuFrequency.isAvailable(), is(true));
+        long[] freqs = new long[3];
+        assertThat(cpuFrequency.queryCurrentFreq(freqs), is(3_100_000_000L));
+        assertThat(freqs, is(new long[] { 2_400_000_000L, 3_100_000_000L, 0L }));
+
+        // Values are read again without resolving the files
+        Files.write(dir.resolve("cpu0/cpufreq/scaling_cur_freq"), "3500000\n".getBytes(StandardCharsets.US_ASCII));
+        cpuFrequency.queryCurrentFreq(freqs);
+        assertThat(freqs[0], is(3_500_000_000L));
+
+        List<FrequencyScaling> scaling = cpuFrequency.queryFrequencyScaling();
+        assertThat(scaling.size(), is(2));
+        assertThat(scaling.get(1).getProcessorNumber(), is(1));
+        assertThat(scaling.get(1).getMinFreq(), is(800_000_000L));
+        assertThat(scaling.get(1).getMaxFreq(), is(3_600_000_000L));
+        assertThat(scaling.get(1).getGovernor(), is("performance"));
+
+        assertThrows(IllegalArgumentException.class, () -> cpuFrequency.queryCurrentFreq(new long[2]));
+    }
+
+    @Test
+    void testMissing(@TempDir Path dir) {
+        CpuFrequency cpuFrequency = new CpuFrequency(dir.toString() + "/", 2);
+        assertThat(cpuFrequency.isAvailable(), is(false));
+        assertThat(cpuFrequency.queryCurrentFreq(new long[2]), is(0L));
+        assertThat(cpuFrequency.queryFrequencyScaling().isEmpty(), is(true));
+    }
+
+    @Test
+    @EnabledOnOs(OS.LINUX)
+    void testQuery() {
+        int count = Runtime.getRuntime().availableProcessors();
+        CpuFrequency cpuFrequency = new CpuFrequency(count);
+        long[] freqs = new long[count];
+        long max = cpuFrequency.queryCurrentFreq(freqs);
+        for (long freq : freqs) {
+            assertThat("Frequency should not exceed the maximum read", freq,
+                    is(both(greaterThanOrEqualTo(0L)).and(lessThanOrEqualTo(max))));
+        }
+        for (FrequencyScaling s : cpuFrequency.queryFrequencyScaling()) {
+            assertThat("Processor number should be in range", s.getProcessorNumber(), is(lessThan(count)));
+        }
+    }
+
+    private static void writeCpu(Path dir, int cpu, String cur, String min, String max, String governor)
+            throws IOException {
+        Path cpuFreq = Files.createDirectories(dir.resolve("cpu" + cpu + "/cpufreq"));
+        Files.write(cpuFreq.resolve("scaling_cur_freq"), cur.getBytes(StandardCharsets.US_ASCII));
+        Files.write(cpuFreq.resolve("scaling_min_freq"), min.getBytes(StandardCharsets.US_ASCII));
+        Files.write(cpuFreq.resolve("scaling_max_freq"), max.getBytes(StandardCharsets.US_ASCII));
+        Files.write(cpuFreq.resolve("scaling_governor"), governor.getBytes(StandardCharsets.US_ASCII));
+    }
+}
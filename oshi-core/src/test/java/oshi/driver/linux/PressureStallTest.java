@@ -0,0 +1,83 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.driver.linux;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import oshi.SystemInfo;
+import oshi.driver.linux.PressureStall.Pressure;
+import oshi.driver.linux.PressureStall.Resource;
+
+class PressureStallTest {
+
+    @Test
+    void testParse() {
+        byte[] bytes = ("some avg10=7.73 avg60=31.99 avg300=23.51 total=1195143771\n"
+                + "full avg10=0.05 avg60=0.00 avg300=100.00 total=12337456\n").getBytes(StandardCharsets.US_ASCII);
+        Pressure p = PressureStall.parse(bytes, bytes.length, 0L);
+        assertThat(p.isAvailable(), is(true));
+        assertThat(p.getSomeAvg10(), is(7.73));
+        assertThat(p.getSomeAvg60(), is(31.99));
+        assertThat(p.getSomeAvg300(), is(23.51));
+        assertThat(p.getSomeTotal(), is(1_195_143_771L));
+        assertThat(p.getFullAvg10(), is(0.05));
+        assertThat(p.getFullAvg300(), is(100d));
+        assertThat(p.getFullTotal(), is(12_337_456L));
+
+        byte[] later = ("some avg10=7.73 avg60=31.99 avg300=23.51 total=1195643771\n"
+                + "full avg10=0.05 avg60=0.00 avg300=100.00 total=12337456\n").getBytes(StandardCharsets.US_ASCII);
+        // One second later, with half a second of some stall
+        Pressure q = PressureStall.parse(later, later.length, 1_000_000_000L);
+        assertThat(q.getSomeTotalDelta(p), is(500_000L));
+        assertThat(q.getSomeStallRatio(p), is(0.5));
+        assertThat(q.getFullTotalDelta(p), is(0L));
+        assertThat(q.getFullStallRatio(p), is(0d));
+        assertThat("No time should give no ratio", q.getSomeStallRatio(q), is(-1d));
+    }
+
+    @Test
+    void testParseFullOnly() {
+        byte[] bytes = "full avg10=1.50 avg60=0.25 avg300=0.10 total=42\n".getBytes(StandardCharsets.US_ASCII);
+        Pressure p = PressureStall.parse(bytes, bytes.length, 0L);
+        assertThat(p.isAvailable(), is(true));
+        assertThat(p.getSomeTotal(), is(-1L));
+        assertThat(p.getSomeAvg10(), is(-1d));
+        assertThat(p.getFullAvg60(), is(0.25));
+        assertThat(p.getFullTotal(), is(42L));
+        assertThat(p.getSomeTotalDelta(p), is(-1L));
+
+        Pressure empty = PressureStall.parse(new byte[0], 0, 0L);
+        assertThat(empty.isAvailable(), is(false));
+    }
+
+    @Test
+    @EnabledOnOs(OS.LINUX)
+    void testQuery() {
+        String cgroup = Cgroup.queryPath(new SystemInfo().getOperatingSystem().getProcessId());
+        for (Resource r : Resource.values()) {
+            checkPressure(PressureStall.queryPressure(r));
+            checkPressure(PressureStall.queryCgroupPressure(cgroup, r));
+        }
+    }
+
+    private static void checkPressure(Pressure p) {
+        if (p.isAvailable()) {
+            assertThat("Some stall total should be -1 or more", p.getSomeTotal(), is(greaterThanOrEqualTo(-1L)));
+            assertThat("Full stall total should be -1 or more", p.getFullTotal(), is(greaterThanOrEqualTo(-1L)));
+            assertThat("Averages should be percentages", p.getFullAvg10(),
+                    is(both(greaterThanOrEqualTo(-1d)).and(lessThanOrEqualTo(100d))));
+        }
+    }
+}
@@ -1,10 +1,11 @@
 /*
- * Copyright 2021-2022 The OSHI Project Contributors
+ * Copyright 2021-2023 The OSHI Project Contributors
  * SPDX-License-Identifier: MIT
  */
 package oshi.driver.linux.proc;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 
 import org.junit.jupiter.api.Test;
@@ -14,6 +15,7 @@ import org.junit.jupiter.api.condition.OS;
 import oshi.SystemInfo;
 import oshi.hardware.CentralProcessor;
 import oshi.hardware.HardwareAbstractionLayer;
+import oshi.util.tuples.Pair;
 
 @EnabledOnOs(OS.LINUX)
 class CpuStatTest {
@@ -26,6 +28,13 @@ class CpuStatTest {
         }
     }
 
+    @Test
+    void testGetRunningAndBlocked() {
+        Pair<Integer, Integer> runningBlocked = CpuStat.getRunningAndBlocked();
+        assertThat("At least the current thread should be running", runningBlocked.getA(), greaterThan(0));
+        assertThat("Blocked threads should be nonnegative", runningBlocked.getB(), greaterThanOrEqualTo(0));
+    }
+
     @Test
     void testGetProcessorCpuLoadTicks() {
         SystemInfo si = new SystemInfo();
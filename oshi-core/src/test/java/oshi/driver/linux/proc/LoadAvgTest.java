@@ -0,0 +1,21 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.driver.linux.proc;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+@EnabledOnOs(OS.LINUX)
+class LoadAvgTest {
+
+    @Test
+    void testQueryEntityCount() {
+        assertThat("At least the current thread should exist", LoadAvg.queryEntityCount(), greaterThan(0));
+    }
+}
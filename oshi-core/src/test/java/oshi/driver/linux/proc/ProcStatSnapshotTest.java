@@ -0,0 +1,81 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.driver.linux.proc;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import oshi.hardware.CentralProcessor.TickType;
+
+class ProcStatSnapshotTest {
+
+    private static final String STAT = "cpu  300 1 60 9000 20 0 5 0 7 0\n" //
+            + "cpu0 100 1 20 4500 10 0 2 0 7 0\n" //
+            + "cpu1 200 0 40 4500 10 0 3 0 0 0\n" //
+            + "intr 12345 0 1 2 3\n" //
+            + "ctxt 67890\n" //
+            + "btime 1700000000\n" //
+            + "processes 4321\n" //
+            + "procs_running 3\n" //
+            + "procs_blocked 1\n" //
+            + "softirq 555 0 1 2\n";
+
+    @Test
+    void testParse() {
+        byte[] bytes = STAT.getBytes(StandardCharsets.US_ASCII);
+        ProcStatSnapshot snapshot = ProcStatSnapshot.parse(bytes, bytes.length);
+        assertThat(snapshot.getSystemCpuLoadTicks(), is(new long[] { 300, 1, 60, 9000, 20, 0, 5, 0 }));
+        assertThat(snapshot.getProcessorCount(), is(2));
+        assertThat(snapshot.getProcessorCpuLoadTicks(3),
+                is(new long[][] { { 100, 1, 20, 4500, 10, 0, 2, 0 }, { 200, 0, 40, 4500, 10, 0, 3, 0 }, new long[8] }));
+        assertThat(snapshot.getProcessorTicks(1, TickType.SYSTEM), is(40L));
+        long[] flat = new long[24];
+        snapshot.getProcessorCpuLoadTicks(3, flat);
+        assertThat(flat, is(new long[] { 100, 1, 20, 4500, 10, 0, 2, 0, 200, 0, 40, 4500, 10, 0, 3, 0, 0, 0, 0, 0, 0,
+                0, 0, 0 }));
+        assertThat(snapshot.getInterrupts(), is(12345L));
+        assertThat(snapshot.getContextSwitches(), is(67890L));
+        assertThat(snapshot.getBootTime(), is(1_700_000_000L));
+        assertThat(snapshot.getProcsRunning(), is(3));
+        assertThat(snapshot.getProcsBlocked(), is(1));
+        assertThat(snapshot.isEmpty(), is(false));
+
+        ProcStatSnapshot empty = ProcStatSnapshot.parse(new byte[0], 0);
+        assertThat(empty.isEmpty(), is(true));
+        assertThat(empty.getProcessorCount(), is(0));
+        assertThat(empty.getProcsRunning(), is(-1));
+        assertThat(empty.getContextSwitches(), is(0L));
+    }
+
+    @Test
+    void testParseShortLine() {
+        byte[] bytes = "cpu  1 2 3\ncpu0 1 2 3 4\n".getBytes(StandardCharsets.US_ASCII);
+        ProcStatSnapshot snapshot = ProcStatSnapshot.parse(bytes, bytes.length);
+        assertThat("Ticks without idle should be ignored", snapshot.isEmpty(), is(true));
+        assertThat(snapshot.getProcessorCpuLoadTicks(1), is(new long[][] { { 1, 2, 3, 4, 0, 0, 0, 0 } }));
+    }
+
+    @Test
+    @EnabledOnOs(OS.LINUX)
+    void testQuery() {
+        ProcStatSnapshot snapshot = ProcStatSnapshot.query();
+        assertThat("Processors should be listed", snapshot.getProcessorCount(), is(greaterThan(0)));
+        assertThat("Boot time should be read", snapshot.getBootTime(), is(greaterThan(0L)));
+        assertThat("Context switches should be read", snapshot.getContextSwitches(), is(greaterThan(0L)));
+        assertThat("System ticks should be read", snapshot.isEmpty(), is(false));
+        for (int cpu = 0; cpu < snapshot.getProcessorCount(); cpu++) {
+            assertThat("Processor ticks should not be negative", snapshot.getProcessorTicks(cpu, TickType.IDLE),
+                    is(greaterThanOrEqualTo(0L)));
+        }
+    }
+}
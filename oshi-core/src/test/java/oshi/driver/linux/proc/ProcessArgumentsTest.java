@@ -0,0 +1,87 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.driver.linux.proc;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.anEmptyMap;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import oshi.SystemInfo;
+import oshi.util.FileUtil;
+import oshi.util.ParseUtil;
+import oshi.util.platform.linux.ProcPath;
+import oshi.util.tuples.Pair;
+
+@EnabledOnOs(OS.LINUX)
+class ProcessArgumentsTest {
+
+    private static final int PID = new SystemInfo().getOperatingSystem().getProcessId();
+
+    @Test
+    void testQueryArguments() {
+        Pair<List<String>, Boolean> args = ProcessArguments.queryArguments(PID, 0);
+        assertThat("Arguments should match a full read", args.getA(), is(ParseUtil
+                .parseByteArrayToStrings(FileUtil.readAllBytes(String.format(ProcPath.PID_CMDLINE, PID)))));
+        assertThat("Unlimited arguments should not be truncated", args.getB(), is(false));
+        assertThat("Command line should match a full read", ProcessArguments.queryCommandLine(PID, 0),
+                is(Arrays.stream(FileUtil.getStringFromFile(String.format(ProcPath.PID_CMDLINE, PID)).split("\0"))
+                        .collect(Collectors.joining(" "))));
+
+        int firstLength = args.getA().get(0).length();
+        Pair<List<String>, Boolean> capped = ProcessArguments.queryArguments(PID, firstLength + 2);
+        if (args.getA().size() > 1) {
+            assertThat("Capped arguments should be truncated", capped.getB(), is(true));
+            assertThat("Capped arguments should keep only complete arguments", capped.getA(),
+                    is(args.getA().subList(0, 1)));
+        }
+    }
+
+    @Test
+    void testQueryEnvironment() {
+        Pair<Map<String, String>, Boolean> env = ProcessArguments.queryEnvironment(PID, 0, false);
+        assertThat("Environment should match a full read", env.getA(), is(ParseUtil
+                .parseByteArrayToStringMap(FileUtil.readAllBytes(String.format(ProcPath.PID_ENVIRON, PID)))));
+        assertThat("Unlimited environment should not be truncated", env.getB(), is(false));
+
+        Pair<Map<String, String>, Boolean> capped = ProcessArguments.queryEnvironment(PID, 16, false);
+        if (!env.getA().isEmpty()) {
+            assertThat("Capped environment should be truncated", capped.getB(), is(true));
+            assertThat("Capped environment should have fewer variables", capped.getA().size(),
+                    is(lessThan(env.getA().size())));
+        }
+
+        assertThat("Missing process should have no arguments", ProcessArguments.queryArguments(-1, 0).getA(),
+                is(empty()));
+        assertThat("Missing process should have no environment", ProcessArguments.queryEnvironment(-1, 0, false).getA(),
+                is(anEmptyMap()));
+    }
+
+    @Test
+    void testQueryEnvironmentVariable() {
+        Map<String, String> env = ProcessArguments.queryEnvironment(PID, 0, false).getA();
+        for (Map.Entry<String, String> e : env.entrySet()) {
+            if (e.getKey() != null && !e.getKey().isEmpty()) {
+                assertThat("Variable " + e.getKey() + " should match the environment",
+                        ProcessArguments.queryEnvironmentVariable(PID, e.getKey(), 0, false), is(e.getValue()));
+            }
+        }
+        assertThat("Unset variable should be null",
+                ProcessArguments.queryEnvironmentVariable(PID, "OSHI_UNSET_VARIABLE", 0, false), is(nullValue()));
+        assertThat("Unreadable environment should be null",
+                ProcessArguments.queryEnvironmentVariable(-1, "PATH", 0, false), is(nullValue()));
+    }
+}
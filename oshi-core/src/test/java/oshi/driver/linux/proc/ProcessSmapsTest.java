@@ -0,0 +1,81 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.driver.linux.proc;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import oshi.driver.linux.proc.ProcessSmaps.SmapsField;
+import oshi.jna.platform.linux.LinuxLibc;
+
+@EnabledOnOs(OS.LINUX)
+class ProcessSmapsTest {
+
+    private static final String MAPPING = "7f0c1a2b3000-7f0c1a2d5000 r-xp 00000000 08:01 1048602"
+            + "                    /usr/lib/x86_64-linux-gnu/libc.so.6\n" //
+            + "Size:                136 kB\n" //
+            + "Rss:                 120 kB\n" //
+            + "Pss:                  30 kB\n" //
+            + "Pss_Anon:              4 kB\n" //
+            + "Shared_Clean:        100 kB\n" //
+            + "Shared_Dirty:          8 kB\n" //
+            + "Private_Clean:         8 kB\n" //
+            + "Private_Dirty:         4 kB\n" //
+            + "Swap:                  2 kB\n" //
+            + "SwapPss:               1 kB\n" //
+            + "VmFlags: rd ex mr mw me sd\n";
+
+    @Test
+    void testReadSmaps() throws IOException {
+        // Enough mappings to span several reads of the buffer, with a line split between reads
+        int mappings = 100;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < mappings; i++) {
+            sb.append(MAPPING);
+        }
+        Path smaps = Files.createTempFile("oshitest.smaps", null);
+        try {
+            // No trailing newline on the last line
+            Files.write(smaps, sb.substring(0, sb.length() - 1).getBytes(StandardCharsets.US_ASCII));
+            long[] sizes = new long[SmapsField.values().length];
+            assertThat("Smaps file should be read", ProcessSmaps.readSmaps(smaps.toString(), sizes), is(true));
+            assertThat("PSS should sum Pss lines only", sizes[SmapsField.PSS.ordinal()], is(mappings * 30L << 10));
+            assertThat("USS should sum private lines", sizes[SmapsField.USS.ordinal()], is(mappings * 12L << 10));
+            assertThat("Shared should sum shared lines", sizes[SmapsField.SHARED.ordinal()],
+                    is(mappings * 108L << 10));
+            assertThat("Swap should sum Swap lines only", sizes[SmapsField.SWAP.ordinal()], is(mappings * 2L << 10));
+        } finally {
+            Files.deleteIfExists(smaps);
+        }
+
+        long[] sizes = new long[] { 1L, 1L, 1L, 1L };
+        assertThat("Missing file should not be read", ProcessSmaps.readSmaps(smaps.toString(), sizes), is(false));
+        assertThat("Missing file should clear sizes", sizes, is(new long[sizes.length]));
+    }
+
+    @Test
+    void testQuerySmaps() {
+        long[] sizes = new long[SmapsField.values().length];
+        assertThat("Own memory map should be readable", ProcessSmaps.querySmaps(LinuxLibc.INSTANCE.getpid(), sizes),
+                is(true));
+        long pss = sizes[SmapsField.PSS.ordinal()];
+        assertThat("Current process should have resident memory", pss, is(greaterThan(0L)));
+        assertThat("Unique memory should not exceed proportional memory", sizes[SmapsField.USS.ordinal()],
+                is(lessThanOrEqualTo(pss)));
+        assertThat("Terminated process should not be read", ProcessSmaps.querySmaps(Integer.MAX_VALUE, sizes),
+                is(false));
+    }
+}
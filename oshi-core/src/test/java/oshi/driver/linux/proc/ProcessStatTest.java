@@ -7,10 +7,12 @@ package oshi.driver.linux.proc;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 import org.junit.jupiter.api.Test;
@@ -90,6 +92,45 @@ class ProcessStatTest {
         return !ProcessStat.getThreadIds(pid).isEmpty();
     }
 
+    @Test
+    void testParseStat() {
+        String stat = "1234 (a b) (c)) S 1 1234 1234 0 -1 4194560 100 0 0 0 15 7 0 0 20 0 3 0 5000 10485760 250 "
+                + "18446744073709551615 1 1 0 0 0 0 0 0 0 0 0 0 17 2 0 0 0 0 0 0 0 0 0 0 0 0 0\n";
+        byte[] buf = stat.getBytes(StandardCharsets.UTF_8);
+        long[] fields = new long[PidStat.values().length];
+        assertThat("All fields should be parsed", ProcessStat.parseStat(buf, buf.length, fields),
+                is(PidStat.values().length));
+        assertThat("Name may contain spaces and parentheses", ProcessStat.getName(buf, fields), is("a b) (c)"));
+        assertThat("Pid should be parsed", fields[PidStat.PID.ordinal()], is(1234L));
+        assertThat("State should be parsed", (char) fields[PidStat.STATE.ordinal()], is('S'));
+        assertThat("Parent should be parsed", fields[PidStat.PPID.ordinal()], is(1L));
+        assertThat("Negative values should be parsed", fields[PidStat.PTGID.ordinal()], is(-1L));
+        assertThat("User time should be parsed", fields[PidStat.UTIME.ordinal()], is(15L));
+        assertThat("Start time should be parsed", fields[PidStat.STARTTIME.ordinal()], is(5000L));
+        assertThat("Unsigned overflow should wrap", fields[PidStat.RSSLIM.ordinal()], is(-1L));
+        assertThat("Processor should be parsed", fields[PidStat.PROCESSOR.ordinal()], is(2L));
+
+        byte[] shortStat = "1 (init) R 0 1 1".getBytes(StandardCharsets.UTF_8);
+        assertThat("Short stat should report its field count",
+                ProcessStat.parseStat(shortStat, shortStat.length, fields), is(6));
+        assertThat("Missing fields should be zero", fields[PidStat.UTIME.ordinal()], is(0L));
+
+        byte[] invalid = "1 (init".getBytes(StandardCharsets.UTF_8);
+        assertThat("Invalid stat should not parse", ProcessStat.parseStat(invalid, invalid.length, fields), is(0));
+        assertThat("Empty stat should not parse", ProcessStat.parseStat(buf, 0, fields), is(0));
+    }
+
+    @Test
+    void testParseSocketInode() {
+        assertThat(ProcessStat.parseSocketInode("socket:[12345]"), is(12345L));
+        assertThat(ProcessStat.parseSocketInode("socket:[4294967296]"), is(4294967296L));
+        assertThat(ProcessStat.parseSocketInode("socket:[]"), is(-1L));
+        assertThat(ProcessStat.parseSocketInode("socket:[12a]"), is(-1L));
+        assertThat(ProcessStat.parseSocketInode("pipe:[12345]"), is(-1L));
+        assertThat(ProcessStat.parseSocketInode("/dev/null"), is(-1L));
+        assertThat(ProcessStat.parseSocketInode(null), is(-1L));
+    }
+
     @Test
     void testQuerySocketToPidMap() {
         assertThat("Socket to pid map shouldn't be empty.", ProcessStat.querySocketToPidMap().size(), greaterThan(0));
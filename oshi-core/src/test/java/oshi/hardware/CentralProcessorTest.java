@@ -1,5 +1,5 @@
 /*
- * Copyright 2016-2022 The OSHI Project Contributors
+ * Copyright 2016-2023 The OSHI Project Contributors
  * SPDX-License-Identifier: MIT
  */
 package oshi.hardware;
@@ -12,9 +12,11 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -69,6 +71,11 @@ class CentralProcessorTest {
                         is(lessThanOrEqualTo(max)));
             }
         }
+        for (CentralProcessor.FrequencyScaling scaling : p.getFrequencyScaling()) {
+            assertThat("Frequency scaling should be for a logical processor", scaling.getProcessorNumber(),
+                    is(lessThan(p.getLogicalProcessorCount())));
+            assertThat("Frequency scaling governor shouldn't be null", scaling.getGovernor(), is(notNullValue()));
+        }
     }
 
     @Test
@@ -98,6 +105,33 @@ class CentralProcessorTest {
         }
     }
 
+    @Test
+    void testFlatTicks() {
+        int tickCount = TickType.values().length;
+        int count = p.getLogicalProcessorCount();
+        long[] oldTicks = new long[count * tickCount];
+        long[] newTicks = new long[count * tickCount];
+        double[] load = new double[count];
+        assertThat("Flat ticks should be filled for each logical processor", p.getProcessorCpuLoadTicks(oldTicks),
+                is(count));
+        long[][] procTicks = p.getProcessorCpuLoadTicks();
+        assertThat("Flat ticks should be ordered by processor", oldTicks[(count - 1) * tickCount],
+                is(lessThanOrEqualTo(procTicks[count - 1][0])));
+
+        Util.sleep(500);
+
+        p.getProcessorCpuLoadTicks(newTicks);
+        assertThat("Load should be filled for each logical processor",
+                p.getProcessorCpuLoadBetweenTicks(oldTicks, newTicks, count, load), is(count));
+        for (int cpu = 0; cpu < count; cpu++) {
+            assertThat("Cpu number " + cpu + "'s load between flat ticks should be inclusively between 0 and 1",
+                    load[cpu], is(both(greaterThanOrEqualTo(0d)).and(lessThanOrEqualTo(1d))));
+        }
+        assertThrows(IllegalArgumentException.class, () -> p.getProcessorCpuLoadTicks(new long[tickCount - 1]));
+        assertThrows(IllegalArgumentException.class,
+                () -> p.getProcessorCpuLoadBetweenTicks(oldTicks, newTicks, count, new double[0]));
+    }
+
     @Test
     void testDelayTicks() {
         long[][] procTicks = p.getProcessorCpuLoadTicks();
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.hardware;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+
+import oshi.SystemInfo;
+import oshi.util.Util;
+
+/**
+ * Test CPU load sampler
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+class CpuLoadSamplerTest {
+
+    private CentralProcessor p = null;
+
+    @BeforeAll
+    void setUp() {
+        this.p = new SystemInfo().getHardware().getProcessor();
+    }
+
+    @Test
+    void testSample() {
+        CpuLoadSampler sampler = new CpuLoadSampler(this.p);
+        assertThat("Load should be zero without samples", sampler.getSystemCpuLoad(1000L), is(0d));
+        sampler.sample();
+        assertThat("Load should be zero with one sample", sampler.getSystemCpuLoad(1000L), is(0d));
+        // Wait past the expiration of memoized ticks
+        Util.sleep(1100L);
+        sampler.sample();
+        assertThat(sampler.getSampleCount(), is(2));
+        assertThat("System load should be between 0 and 1", sampler.getSystemCpuLoad(60_000L),
+                is(both(greaterThanOrEqualTo(0d)).and(lessThanOrEqualTo(1d))));
+
+        double[] load = new double[sampler.getLogicalProcessorCount()];
+        assertThat(sampler.getProcessorCpuLoad(10_000L, load), is(this.p.getLogicalProcessorCount()));
+        for (int cpu = 0; cpu < load.length; cpu++) {
+            assertThat("Processor load should be between 0 and 1", load[cpu],
+                    is(both(greaterThanOrEqualTo(0d)).and(lessThanOrEqualTo(1d))));
+            assertThat("Processor load should match the array", sampler.getProcessorCpuLoad(cpu, 10_000L),
+                    is(load[cpu]));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> sampler.getProcessorCpuLoad(-1, 1000L));
+        assertThrows(IllegalArgumentException.class, () -> sampler.getProcessorCpuLoad(1000L, new double[0]));
+    }
+
+    @Test
+    void testCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new CpuLoadSampler(this.p, 0L, 1000L));
+        assertThrows(IllegalArgumentException.class, () -> new CpuLoadSampler(this.p, 1000L, 10L));
+
+        // Two intervals of history, plus two slots
+        CpuLoadSampler sampler = new CpuLoadSampler(this.p, 1L, 2L);
+        for (int i = 0; i < 10; i++) {
+            sampler.sample();
+        }
+        assertThat("Oldest samples should be replaced", sampler.getSampleCount(), is(4));
+    }
+
+    @Test
+    void testStart() {
+        try (CpuLoadSampler sampler = new CpuLoadSampler(this.p, 50L, 1000L)) {
+            sampler.start();
+            sampler.start();
+            Util.sleep(300L);
+            assertThat("Background thread should record samples", sampler.getSampleCount(), is(greaterThan(1)));
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2016-2022 The OSHI Project Contributors
+ * Copyright 2016-2023 The OSHI Project Contributors
  * SPDX-License-Identifier: MIT
  */
 package oshi.software.os;
@@ -8,6 +8,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.anything;
 import static org.hamcrest.Matchers.both;
 import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.emptyString;
 import static org.hamcrest.Matchers.greaterThan;
@@ -22,11 +23,15 @@ import static org.hamcrest.Matchers.oneOf;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -38,6 +43,7 @@ import com.sun.jna.Platform;
 import oshi.SystemInfo;
 import oshi.software.os.OSProcess.State;
 import oshi.software.os.OperatingSystem.OSVersionInfo;
+import oshi.software.os.OperatingSystem.ProcessField;
 import oshi.software.os.OperatingSystem.ProcessFiltering;
 import oshi.software.os.OperatingSystem.ProcessSorting;
 
@@ -208,6 +214,48 @@ class OperatingSystemTest {
 
     }
 
+    /**
+     * Tests process summary
+     */
+    @Test
+    void testProcessSummary() {
+        OSProcessSummary summary = os.getProcessSummary();
+        assertThat("Summary should count processes", summary.getProcessCount(), is(greaterThan(0)));
+        int sum = 0;
+        for (State state : State.values()) {
+            sum += summary.getCount(state);
+        }
+        assertThat("State counts should sum to the process count", sum, is(summary.getProcessCount()));
+        assertThat("Summary should count threads", summary.getThreadCount(), is(greaterThan(0)));
+        assertThat("Runnable threads should be counted or unavailable", summary.getRunnableThreadCount(),
+                is(greaterThanOrEqualTo(-1)));
+        if (Platform.isLinux()) {
+            assertThat("Current thread should be runnable", summary.getRunnableThreadCount(), is(greaterThan(0)));
+        }
+    }
+
+    /**
+     * Tests lazy process streams
+     */
+    @Test
+    void testProcessStream() {
+        int pid = os.getProcessId();
+        try (Stream<OSProcess> stream = os.processStream()) {
+            Optional<OSProcess> self = stream.filter(p -> p.getProcessID() == pid).findFirst();
+            assertThat("Stream should include the current process", self.isPresent(), is(true));
+            assertThat("Streamed process should have a name", self.get().getName(), is(not(emptyString())));
+        }
+        Set<ProcessField> fields = EnumSet.of(ProcessField.NAME);
+        try (Stream<OSProcess> stream = os.processStream(ProcessQuery.all().withProcessIDs(pid), fields)) {
+            assertThat("Query should select only the current process",
+                    stream.map(OSProcess::getProcessID).collect(Collectors.toList()), contains(pid));
+        }
+        try (Stream<OSProcess> stream = os.processStream(ProcessQuery.all(), fields).parallel()) {
+            Set<Integer> pids = stream.map(OSProcess::getProcessID).collect(Collectors.toSet());
+            assertThat("Parallel stream should include the current process", pids.contains(pid), is(true));
+        }
+    }
+
     /**
      * Tests child and dependent process getter
      */
@@ -374,9 +422,18 @@ class OperatingSystemTest {
         SystemInfo si = new SystemInfo();
         OperatingSystem os = si.getOperatingSystem();
         for (OSProcess process : os.getProcesses(null, null, 0)) {
-            if (!process.getEnvironmentVariables().isEmpty()) {
+            Map<String, String> env = process.getEnvironmentVariables();
+            if (!env.isEmpty()) {
                 processesWithNonEmptyEnvironment++;
+                String name = env.keySet().iterator().next();
+                // Other processes may exit between reads
+                if (name != null && process.getProcessID() == os.getProcessId()) {
+                    assertThat("Single variable lookup should match the environment",
+                            process.getEnvironmentVariable(name), is(env.get(name)));
+                }
             }
+            assertThat("Environment should not be truncated without a limit", process.isEnvironmentTruncated(),
+                    is(false));
         }
 
         assertThat("Processes with non-empty environment should be 1 or higher", processesWithNonEmptyEnvironment,
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.software.os;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import java.io.IOException;
+import java.util.EnumSet;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import oshi.SystemInfo;
+import oshi.software.os.OperatingSystem.ProcessField;
+import oshi.software.os.OperatingSystem.ProcessSorting;
+import oshi.software.os.ProcessMonitor.EventType;
+import oshi.software.os.ProcessMonitor.ProcessDelta;
+import oshi.software.os.ProcessMonitor.ProcessEvent;
+import oshi.software.os.ProcessMonitor.Update;
+
+class ProcessMonitorTest {
+
+    @Test
+    void testCpuLoad() {
+        OperatingSystem os = new SystemInfo().getOperatingSystem();
+        int pid = os.getProcessId();
+        ProcessMonitor monitor = new ProcessMonitor(os, ProcessQuery.all().withProcessIDs(pid));
+        Update baseline = monitor.update();
+        assertThat("First update should report no changes", baseline.getChanged(), is(empty()));
+        assertThat("First update should report no events", baseline.getEvents(), is(empty()));
+        assertThat("First update should have no interval", baseline.getInterval(), is(0L));
+
+        long end = System.nanoTime() + 300_000_000L;
+        long spin = 0L;
+        while (System.nanoTime() < end) {
+            spin += Long.numberOfTrailingZeros(spin + 1);
+        }
+        Update update = monitor.update();
+        assertThat("Interval should be positive " + spin, update.getInterval(), is(greaterThan(0L)));
+        assertThat("Current process should not start or exit", update.getEvents(), is(empty()));
+        assertThat("Busy current process should have changed", update.getChanged(), hasSize(1));
+        ProcessDelta delta = update.getChanged().get(0);
+        assertThat("Delta should be for the current process", delta.getProcessID(), is(pid));
+        assertThat("Busy process should have CPU load", delta.getCpuLoad(), is(greaterThan(0d)));
+        assertThat("Read rate should not be negative", delta.getBytesReadRate(), is(greaterThanOrEqualTo(0d)));
+        assertThat("Write rate should not be negative", delta.getBytesWrittenRate(), is(greaterThanOrEqualTo(0d)));
+        assertThat("Fault rate should not be negative", delta.getMinorFaultRate(), is(greaterThanOrEqualTo(0d)));
+        assertThat("Context switch rate should not be negative", delta.getContextSwitchRate(),
+                is(greaterThanOrEqualTo(0d)));
+    }
+
+    @Test
+    void testProcessCounters() {
+        OperatingSystem os = new SystemInfo().getOperatingSystem();
+        int pid = os.getProcessId();
+        ProcessQuery query = ProcessQuery.all().withProcessIDs(pid);
+        ProcessCounters counters = os.getProcessCounters(query);
+        assertThat("Counters should contain the current process", counters.size(), is(1));
+        assertThat("Row should be the current process", counters.getProcessID(0), is(pid));
+        ProcessCounters generic = new ProcessListCounters(
+                os.getProcesses(query, ProcessCounters.FIELDS, ProcessSorting.PID_ASC, 0));
+        assertThat("Default counters should contain the current process", generic.size(), is(1));
+        assertThat("Names should match the default counters", counters.getName(0), is(generic.getName(0)));
+        assertThat("Start times should match the default counters", counters.getStartTime(0),
+                is(generic.getStartTime(0)));
+        assertThat("CPU time should not go backwards", generic.getUserTime(0),
+                is(greaterThanOrEqualTo(counters.getUserTime(0))));
+    }
+
+    @Test
+    @EnabledOnOs(OS.LINUX)
+    void testLifecycleEvents() throws IOException, InterruptedException {
+        OperatingSystem os = new SystemInfo().getOperatingSystem();
+        ProcessMonitor monitor = new ProcessMonitor(os, ProcessQuery.all().withParentProcessID(os.getProcessId()));
+        monitor.update();
+
+        Process child = new ProcessBuilder("sleep", "30").start();
+        try {
+            int childPid = os.getProcesses(ProcessQuery.all().withParentProcessID(os.getProcessId()),
+                    EnumSet.noneOf(ProcessField.class), null, 0).get(0).getProcessID();
+            Update started = monitor.update();
+            assertThat("Child should be reported as started", started.getEvents(), hasSize(1));
+            ProcessEvent event = started.getEvents().get(0);
+            assertThat("Event should be a start", event.getType(), is(EventType.STARTED));
+            assertThat("Event should be for the child", event.getProcessID(), is(childPid));
+            assertThat("Event should have a start time", event.getStartTime(), is(greaterThan(0L)));
+            // The child is younger than a second, which must not be mistaken for a reused process ID
+            assertThat("Young child should not be reported again", monitor.update().getEvents(), is(empty()));
+        } finally {
+            child.destroy();
+            child.waitFor();
+        }
+        Update exited = monitor.update();
+        assertThat("Child should be reported as exited", exited.getEvents(), hasSize(1));
+        assertThat("Event should be an exit", exited.getEvents().get(0).getType(), is(EventType.EXITED));
+    }
+}
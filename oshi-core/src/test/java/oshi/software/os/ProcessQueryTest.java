@@ -0,0 +1,61 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.software.os;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import oshi.SystemInfo;
+import oshi.software.os.OSProcess.State;
+import oshi.software.os.OperatingSystem.ProcessField;
+
+class ProcessQueryTest {
+
+    @Test
+    void testCriteria() {
+        ProcessQuery all = ProcessQuery.all();
+        assertThat("Unrestricted query should have no pid set", all.getProcessIDs(), is(nullValue()));
+        assertThat("Unrestricted query should match any pid", all.matchesProcessID(42), is(true));
+        assertThat("Unrestricted query should match any name", all.matchesName("anything"), is(true));
+
+        ProcessQuery query = all.withProcessIDs(9, 3, 5, 9, 3).withParentProcessID(1).withUserID(1000).withName("ja?a*")
+                .withStates(State.RUNNING, State.SLEEPING);
+        assertThat("Pid set should be sorted and distinct", query.getProcessIDs(), is(new int[] { 3, 5, 9 }));
+        assertThat("Pid in set should match", query.matchesProcessID(5), is(true));
+        assertThat("Pid not in set should not match", query.matchesProcessID(4), is(false));
+        assertThat("Parent should match", query.matchesParentProcessID(1), is(true));
+        assertThat("Other parent should not match", query.matchesParentProcessID(2), is(false));
+        assertThat("User should match", query.matchesUserID(1000), is(true));
+        assertThat("Other user should not match", query.matchesUserID(0), is(false));
+        assertThat("Glob should match", query.matchesName("javaw"), is(true));
+        assertThat("Glob should match exact length", query.matchesName("jada"), is(true));
+        assertThat("Glob should not match", query.matchesName("jvm"), is(false));
+        assertThat("Glob should quote regex characters", all.withName("a.b").matchesName("axb"), is(false));
+        assertThat("State should match", query.matchesState(State.SLEEPING), is(true));
+        assertThat("Other state should not match", query.matchesState(State.ZOMBIE), is(false));
+        assertThat("Original query should be unchanged", all.matchesProcessID(4), is(true));
+    }
+
+    @Test
+    void testQuery() {
+        OperatingSystem os = new SystemInfo().getOperatingSystem();
+        OSProcess self = os.getProcess(os.getProcessId());
+        ProcessQuery query = ProcessQuery.all().withParentProcessID(self.getParentProcessID())
+                .withName(self.getName());
+        List<OSProcess> procs = os.getProcesses(query, EnumSet.allOf(ProcessField.class), null, 0);
+        assertThat("Query should find the current process", procs, is(not(empty())));
+        for (OSProcess p : procs) {
+            assertThat("Every result should match the query", query.test(p), is(true));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.software.os;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.arrayContainingInAnyOrder;
+import static org.hamcrest.Matchers.emptyArray;
+import static org.hamcrest.Matchers.is;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class ProcessTreeTest {
+
+    // 1 -> 2 -> 4 -> 6, 1 -> 3 -> 5, 0 -> 1, 0 -> 7 (0 itself not present), 8 <-> 9 cycle
+    private static final int[] PIDS = { 7, 6, 5, 4, 3, 2, 1, 9, 8 };
+    private static final int[] PPIDS = { 0, 4, 3, 2, 1, 1, 0, 8, 9 };
+
+    @Test
+    void testChildrenAndDescendants() {
+        ProcessTree tree = ProcessTree.of(PIDS, PPIDS);
+        assertThat(tree.size(), is(9));
+        assertThat(boxed(tree.getChildren(1)), arrayContaining(2, 3));
+        assertThat(boxed(tree.getChildren(6)), is(emptyArray()));
+        assertThat(boxed(tree.getChildren(0)), arrayContaining(1, 7));
+        assertThat(boxed(tree.getChildren(42)), is(emptyArray()));
+        assertThat(boxed(tree.getDescendants(1)), arrayContainingInAnyOrder(2, 3, 4, 5, 6));
+        assertThat(boxed(tree.getDescendants(0)), arrayContainingInAnyOrder(1, 2, 3, 4, 5, 6, 7));
+        assertThat(boxed(tree.getDescendants(8)), arrayContaining(9));
+        assertThat(boxed(tree.getDescendants(9)), is(emptyArray()));
+    }
+
+    @Test
+    void testAncestors() {
+        ProcessTree tree = ProcessTree.of(PIDS, PPIDS);
+        assertThat(boxed(tree.getAncestors(6)), arrayContaining(4, 2, 1));
+        assertThat(boxed(tree.getAncestors(1)), is(emptyArray()));
+        assertThat(boxed(tree.getAncestors(9)), arrayContaining(8));
+        assertThat(tree.getParentProcessID(5), is(3));
+        assertThat(tree.getParentProcessID(42), is(-1));
+    }
+
+    @Test
+    void testRollUp() {
+        ProcessTree tree = ProcessTree.of(PIDS, PPIDS);
+        long[] values = new long[tree.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = tree.getProcessID(i);
+        }
+        long[] totals = tree.rollUp(values);
+        assertThat(totals[tree.indexOf(1)], is(21L));
+        assertThat(totals[tree.indexOf(2)], is(12L));
+        assertThat(totals[tree.indexOf(6)], is(6L));
+        assertThat(totals[tree.indexOf(8)], is(17L));
+        assertThat(tree.sumSubtree(3, values), is(8L));
+        assertThat(tree.sumSubtree(0, values), is(28L));
+    }
+
+    private static Integer[] boxed(int[] array) {
+        return Arrays.stream(array).boxed().toArray(Integer[]::new);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.software.os.linux;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import oshi.SystemInfo;
+import oshi.driver.linux.Cgroup;
+import oshi.jna.platform.linux.LinuxLibc;
+import oshi.software.os.OSProcess;
+
+@EnabledOnOs(OS.LINUX)
+class CgroupResolverTest {
+
+    @Test
+    void testResolver() {
+        int pid = LinuxLibc.INSTANCE.getpid();
+        LinuxProcessTable table = LinuxProcessTable.snapshot(new int[] { pid });
+        OSProcess self = table.getProcess(0);
+        CgroupResolver resolver = new CgroupResolver();
+        String path = resolver.getPath(self);
+        assertThat("Path should match an uncached read", path, is(Cgroup.queryPath(pid)));
+        assertThat("Path should be cached", resolver.getPath(self), is(sameInstance(path)));
+        assertThat("Path should be keyed by the kernel start time", resolver.getPath(pid, table.getStartTicks(0)),
+                is(sameInstance(path)));
+        OSProcess process = new LinuxOSProcess(pid, (LinuxOperatingSystem) new SystemInfo().getOperatingSystem());
+        assertThat("Path should be shared with a process read separately", resolver.getPath(process),
+                is(sameInstance(path)));
+        assertThat("Container ID should match the path", resolver.getContainerID(self),
+                is(Cgroup.parseContainerId(path)));
+        assertThat("A different start time should not reuse the entry",
+                resolver.getPath(pid, table.getStartTicks(0) - 1), is(not(sameInstance(path))));
+        assertThat("Processes should be grouped by path",
+                resolver.groupByPath(Collections.singletonList(self)), hasKey(path));
+
+        resolver.getPath(Integer.MAX_VALUE, 0L);
+        assertThat("Entries should be cached", resolver.size(), is(2));
+        resolver.prune();
+        assertThat("Pruning should remove exited processes", resolver.size(), is(1));
+        resolver.clear();
+        assertThat("Clearing should remove all entries", resolver.size(), is(0));
+
+        for (int i = 0; i < 1000; i++) {
+            resolver.getPath(Integer.MAX_VALUE - i, 0L);
+        }
+        assertThat("Entries of exited processes should be pruned as they accumulate", resolver.size(),
+                is(lessThanOrEqualTo(256)));
+    }
+
+    @Test
+    void testStats() {
+        if (Cgroup.UNIFIED_ROOT.isEmpty()) {
+            return;
+        }
+        CgroupStats root = CgroupStats.query("/");
+        assertThat("Root group should report CPU usage", root.getCpuUsageMicros(), is(greaterThan(0L)));
+        assertThat("User time should not exceed usage", root.getUserMicros(),
+                is(lessThanOrEqualTo(root.getCpuUsageMicros())));
+        CgroupStats missing = CgroupStats.query("/oshi-no-such-group");
+        assertThat("Missing group should have no usage", missing.getCpuUsageMicros(), is(-1L));
+        assertThat("Missing group should have no memory", missing.getMemoryCurrent(), is(-1L));
+        assertThat("Missing group should have no I/O", missing.getBytesRead(), is(-1L));
+        assertThat("Missing group should have no processes", missing.getProcessCount(), is(-1L));
+    }
+}
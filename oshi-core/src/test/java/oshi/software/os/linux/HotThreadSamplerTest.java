@@ -0,0 +1,87 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.software.os.linux;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import oshi.SystemInfo;
+import oshi.software.os.linux.HotThreadSampler.HotThread;
+import oshi.software.os.linux.HotThreadSampler.Sample;
+
+@EnabledOnOs(OS.LINUX)
+class HotThreadSamplerTest {
+
+    @Test
+    void testBusyThreadRanksFirst() throws InterruptedException {
+        int pid = new SystemInfo().getOperatingSystem().getProcessId();
+        HotThreadSampler sampler = new HotThreadSampler(pid, true);
+        Sample baseline = sampler.sample(5);
+        assertThat("First sample should report no threads", baseline.getTopByCpu(), is(empty()));
+        assertThat("First sample should have no interval", baseline.getInterval(), is(0L));
+        assertThat("Current process should have threads", baseline.getThreadCount(), is(greaterThan(1)));
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread spinner = new Thread(() -> {
+            long spin = 0L;
+            while (running.get()) {
+                spin += Long.numberOfTrailingZeros(spin + 1);
+            }
+        }, "hot-spinner");
+        spinner.start();
+        try {
+            Thread.sleep(500L);
+            Sample sample = sampler.sample(5);
+            assertThat("Interval should be positive", sample.getInterval(), is(greaterThan(0L)));
+            List<HotThread> top = sample.getTopByCpu();
+            assertThat("Busy thread should be reported", top.size(), is(greaterThan(0)));
+            assertThat("Ranking should be limited to n threads", top.size(), is(lessThanOrEqualTo(5)));
+            assertThat("Busy thread should use most of a processor", top.get(0).getCpuLoad(), is(greaterThan(0.3)));
+            assertDescending(top, true);
+            assertDescending(sample.getTopByContextSwitches(), false);
+            for (HotThread t : sample.getTopByFaults()) {
+                assertThat("Fault rate should be positive", t.getFaultRate(), is(greaterThan(0d)));
+            }
+        } finally {
+            running.set(false);
+            spinner.join();
+        }
+    }
+
+    @Test
+    void testLimits() {
+        HotThreadSampler sampler = new HotThreadSampler(new SystemInfo().getOperatingSystem().getProcessId());
+        sampler.sample(0);
+        Sample sample = sampler.sample(0);
+        assertThat("No threads should be reported for n of 0", sample.getTopByCpu(), is(empty()));
+        assertThat("Context switches should not be ranked unless requested",
+                sampler.sample(3).getTopByContextSwitches(), is(empty()));
+        Sample unbounded = sampler.sample(Integer.MAX_VALUE);
+        assertThat("Rankings should not exceed the threads sampled", unbounded.getTopByCpu().size(),
+                is(lessThanOrEqualTo(unbounded.getThreadCount())));
+        assertDescending(sampler.sample(2).getTopByCpu(), true);
+        assertThrows(IllegalArgumentException.class, () -> sampler.sample(-1));
+    }
+
+    private static void assertDescending(List<HotThread> threads, boolean byCpu) {
+        for (int i = 1; i < threads.size(); i++) {
+            double prior = byCpu ? threads.get(i - 1).getCpuLoad() : threads.get(i - 1).getContextSwitchRate();
+            double next = byCpu ? threads.get(i).getCpuLoad() : threads.get(i).getContextSwitchRate();
+            assertThat("Threads should be in descending order", prior, is(greaterThanOrEqualTo(next)));
+        }
+    }
+}
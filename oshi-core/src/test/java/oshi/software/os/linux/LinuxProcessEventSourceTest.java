@@ -0,0 +1,70 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.software.os.linux;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import oshi.jna.platform.linux.LinuxLibc;
+import oshi.software.os.linux.LinuxProcessEventSource.Event;
+import oshi.software.os.linux.LinuxProcessEventSource.Type;
+
+@EnabledOnOs(OS.LINUX)
+class LinuxProcessEventSourceTest {
+
+    @Test
+    void testChildLifecycle() throws IOException, InterruptedException {
+        int self = LinuxLibc.INSTANCE.getpid();
+        try (LinuxProcessEventSource source = new LinuxProcessEventSource()) {
+            BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+            source.addListener(e -> {
+                if (e.getParentProcessID() == self || e.getType() == Type.EXIT) {
+                    events.add(e);
+                }
+            });
+            // Requires CAP_NET_ADMIN
+            assumeTrue(source.start(), "Process events connector is not available");
+            assertThat("Table should be initialized from /proc", source.size(), is(greaterThan(0)));
+            assertThat("Table should include the current process", source.getParentProcessID(self),
+                    is(greaterThan(-1)));
+
+            Process child = new ProcessBuilder("true").start();
+            child.waitFor();
+            List<Type> seen = new ArrayList<>();
+            int childPid = -1;
+            long deadline = System.currentTimeMillis() + 5000L;
+            while (!seen.contains(Type.EXIT) && System.currentTimeMillis() < deadline) {
+                Event e = events.poll(100, TimeUnit.MILLISECONDS);
+                if (e == null) {
+                    continue;
+                }
+                if (e.getType() == Type.FORK) {
+                    childPid = e.getProcessID();
+                    seen.add(Type.FORK);
+                } else if (e.getProcessID() == childPid) {
+                    seen.add(e.getType());
+                }
+            }
+            assertThat("Child fork should be reported", seen, hasItem(Type.FORK));
+            assertThat("Child exec should be reported", seen, hasItem(Type.EXEC));
+            assertThat("Child exit should be reported", seen, hasItem(Type.EXIT));
+            assertThat("Exited child should leave the table", source.getParentProcessID(childPid), is(-1));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.software.os.linux;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+
+import java.io.IOException;
+import java.util.EnumSet;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import oshi.jna.platform.linux.LinuxLibc;
+import oshi.software.os.OperatingSystem.ProcessField;
+import oshi.software.os.ProcessTree;
+import oshi.software.os.linux.LinuxProcessRollup.Resource;
+
+@EnabledOnOs(OS.LINUX)
+class LinuxProcessRollupTest {
+
+    @Test
+    void testSubtreeTotals() throws IOException, InterruptedException {
+        int self = LinuxLibc.INSTANCE.getpid();
+        Process child = new ProcessBuilder("sleep", "30").start();
+        try {
+            LinuxProcessRollup rollup = LinuxProcessRollup.snapshot(EnumSet.of(Resource.THREADS, Resource.OPEN_FILES,
+                    Resource.RESIDENT_SET_SIZE));
+            ProcessTree tree = rollup.getProcessTree();
+            assertThat("Current process should be in the tree", tree.contains(self), is(true));
+
+            LinuxProcessTable own = LinuxProcessTable.snapshot(new int[] { self }, EnumSet.of(ProcessField.THREADS));
+            long threads = rollup.getTotal(self, Resource.THREADS);
+            assertThat("Subtree threads should include the child's", threads,
+                    is(greaterThan((long) own.getThreadCount(0))));
+            assertThat("Subtree should have open files", rollup.getTotal(self, Resource.OPEN_FILES),
+                    is(greaterThan(0L)));
+            assertThat("Subtree memory should include the child's",
+                    rollup.getTotal(self, Resource.RESIDENT_SET_SIZE),
+                    is(greaterThan(rollup.getTotal(getChildPid(tree, self), Resource.RESIDENT_SET_SIZE))));
+
+            long[] totals = rollup.getTotals(self);
+            assertThat("Totals by pid should match", totals[Resource.THREADS.ordinal()], is(threads));
+            assertThat("Unrequested resource should be zero", totals[Resource.CPU_TIME.ordinal()], is(0L));
+            long[] all = rollup.getTotals(Resource.THREADS);
+            assertThat("Totals by node should match", all[tree.indexOf(self)], is(threads));
+            int parent = tree.getParentProcessID(self);
+            if (tree.contains(parent)) {
+                assertThat("Parent subtree should contain the current subtree", all[tree.indexOf(parent)],
+                        is(greaterThanOrEqualTo(threads)));
+            }
+        } finally {
+            child.destroy();
+            child.waitFor();
+        }
+    }
+
+    private static int getChildPid(ProcessTree tree, int pid) {
+        int[] children = tree.getChildren(pid);
+        assertThat("Current process should have a child", children.length, is(greaterThan(0)));
+        return children[0];
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.software.os.linux;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import oshi.SystemInfo;
+import oshi.software.os.OSProcess;
+import oshi.software.os.OSProcess.State;
+import oshi.software.os.OperatingSystem;
+import oshi.software.os.OperatingSystem.ProcessField;
+import oshi.software.os.OperatingSystem.ProcessSorting;
+import oshi.software.os.ProcessQuery;
+import oshi.software.os.linux.LinuxProcessTable.RankKey;
+import oshi.util.ProcScanner;
+
+@EnabledOnOs(OS.LINUX)
+class LinuxProcessTableTest {
+
+    @Test
+    void testSnapshot() {
+        OperatingSystem os = new SystemInfo().getOperatingSystem();
+        LinuxProcessTable table = LinuxProcessTable.snapshot();
+        assertThat("Process table should not be empty", table.size(), is(greaterThan(0)));
+        for (int row = 1; row < table.size(); row++) {
+            assertThat("Rows should be sorted by pid", table.getProcessID(row - 1),
+                    is(lessThan(table.getProcessID(row))));
+        }
+
+        int row = table.indexOf(os.getProcessId());
+        assertThat("Current process should be in the table", row, is(greaterThanOrEqualTo(0)));
+        assertThat("Current process should have a parent", table.getParentProcessID(row), is(greaterThan(0)));
+        assertThat("Current process should have threads", table.getThreadCount(row), is(greaterThan(0)));
+        assertThat("Current process should have resident memory", table.getResidentSetSize(row), is(greaterThan(0L)));
+
+        OSProcess view = table.getProcess(row);
+        OSProcess proc = os.getProcess(os.getProcessId());
+        assertThat("View should match process name", view.getName(), is(proc.getName()));
+        assertThat("View should match process parent", view.getParentProcessID(), is(proc.getParentProcessID()));
+        assertThat("View should match process user", view.getUserID(), is(proc.getUserID()));
+        assertThat("View should match process path", view.getPath(), is(proc.getPath()));
+        assertThat("View should match start time", (double) view.getStartTime(),
+                is(closeTo(proc.getStartTime(), 10d)));
+        assertThat("View should not be invalid", view.getState(), is(not(State.INVALID)));
+        assertThat("View should update", view.updateAttributes(), is(true));
+        assertThat("Updated view should keep its pid", view.getProcessID(), is(os.getProcessId()));
+
+        List<OSProcess> procs = table.getProcesses();
+        assertThat("Views should cover every row", procs.size(), is(table.size()));
+    }
+
+    @Test
+    void testTerminatedView() throws IOException, InterruptedException {
+        int pid = new SystemInfo().getOperatingSystem().getProcessId();
+        Process child = new ProcessBuilder("sleep", "30").start();
+        OSProcess view;
+        try {
+            ProcessQuery query = ProcessQuery.all().withParentProcessID(pid).withName("sleep");
+            LinuxProcessTable table = LinuxProcessTable.snapshot(query, ProcessField.defaults());
+            // The child is named after the launcher until it executes
+            for (int i = 0; i < 100 && table.size() == 0; i++) {
+                Thread.sleep(20L);
+                table = LinuxProcessTable.snapshot(query, ProcessField.defaults());
+            }
+            assertThat("Child should be in the table", table.size(), is(1));
+            view = table.getProcess(0);
+        } finally {
+            child.destroy();
+            child.waitFor();
+        }
+        assertThat("Terminated view should not update", view.updateAttributes(), is(false));
+        assertThat("Terminated view should be invalid", view.getState(), is(State.INVALID));
+        assertThat("Terminated view should keep its name", view.getName(), is("sleep"));
+        assertThat("Terminated view should keep its parent", view.getParentProcessID(), is(pid));
+    }
+
+    @Test
+    void testSnapshotProjection() {
+        int pid = new SystemInfo().getOperatingSystem().getProcessId();
+        LinuxProcessTable table = LinuxProcessTable.snapshot(new int[] { pid }, EnumSet.of(ProcessField.MEMORY));
+        assertThat("Current process should be in the table", table.size(), is(1));
+        assertThat("Projection should record its fields", table.getFields(), is(EnumSet.of(ProcessField.MEMORY)));
+        assertThat("Stat fields should be populated", table.getResidentSetSize(0), is(greaterThan(0L)));
+        assertThat("Unrequested user should be unknown", table.getUserID(0), is(-1));
+        assertThat("Unrequested path should be empty", table.getPath(0), is(""));
+
+        OSProcess view = table.getProcess(0);
+        assertThat("View should update", view.updateAttributes(), is(true));
+        assertThat("Updated view should keep the projection", view.getPath(), is(""));
+
+        List<OSProcess> procs = new SystemInfo().getOperatingSystem()
+                .getProcesses(EnumSet.of(ProcessField.NAME, ProcessField.PATH), p -> p.getProcessID() == pid, null, 0);
+        assertThat("Projected query should find the current process", procs.size(), is(1));
+        assertThat("Requested path should be populated", procs.get(0).getPath(), is(not("")));
+    }
+
+    @Test
+    void testAffinity() {
+        int pid = new SystemInfo().getOperatingSystem().getProcessId();
+        BitSet cpus = LinuxOSProcess.queryAffinity(pid);
+        assertThat("Current process should run on some processor", cpus.cardinality(), is(greaterThan(0)));
+        assertThat("Mask should be the first 64 processors", LinuxOSProcess.queryAffinityMask(pid),
+                is(cpus.get(0, 64).isEmpty() ? 0L : cpus.get(0, 64).toLongArray()[0]));
+        assertThat("Terminated process should have no affinity", LinuxOSProcess.queryAffinity(Integer.MAX_VALUE)
+                .isEmpty(), is(true));
+
+        LinuxProcessTable table = LinuxProcessTable.snapshot(new int[] { pid }, EnumSet.of(ProcessField.AFFINITY));
+        assertThat("Status affinity should match the native affinity", table.getAffinity(0), is(cpus));
+        assertThat("View should use the snapshot affinity", table.getProcess(0).getAffinity(), is(cpus));
+        assertThat("Unrequested affinity should be absent",
+                LinuxProcessTable.snapshot(new int[] { pid }, EnumSet.noneOf(ProcessField.class)).getAffinity(0),
+                is(nullValue()));
+    }
+
+    @Test
+    void testProportionalMemory() {
+        int pid = new SystemInfo().getOperatingSystem().getProcessId();
+        assertThat("Proportional memory should not be read by default",
+                LinuxProcessTable.snapshot(new int[] { pid }).getFields().contains(ProcessField.PROPORTIONAL_MEMORY),
+                is(false));
+
+        LinuxProcessTable table = LinuxProcessTable.snapshot(new int[] { pid },
+                EnumSet.of(ProcessField.PROPORTIONAL_MEMORY));
+        long pss = table.getProportionalSetSize(0);
+        assertThat("Current process should have proportional memory", pss, is(greaterThan(0L)));
+        assertThat("Unique memory should not exceed proportional memory", table.getUniqueSetSize(0),
+                is(lessThanOrEqualTo(pss)));
+        assertThat("View should use the snapshot size", table.getProcess(0).getProportionalSetSize(), is(pss));
+
+        OSProcess onDemand = LinuxProcessTable.snapshot(new int[] { pid }, EnumSet.noneOf(ProcessField.class))
+                .getProcess(0);
+        assertThat("Unrequested size should be read on demand", onDemand.getProportionalSetSize(),
+                is(greaterThan(0L)));
+        assertThat("Linux process should read the same file", new LinuxOSProcess(pid,
+                (LinuxOperatingSystem) new SystemInfo().getOperatingSystem()).getUniqueSetSize(), is(greaterThan(0L)));
+    }
+
+    @Test
+    void testSnapshotQuery() {
+        int pid = new SystemInfo().getOperatingSystem().getProcessId();
+        Set<ProcessField> fields = EnumSet.of(ProcessField.NAME);
+        LinuxProcessTable all = LinuxProcessTable.snapshot(ProcessQuery.all(), fields);
+        LinuxProcessTable user = LinuxProcessTable.snapshot(ProcessQuery.all().excludingKernelThreads(), fields);
+        assertThat("Excluding kernel threads should not add processes", user.size(),
+                is(lessThanOrEqualTo(all.size())));
+        assertThat("Current process is not a kernel thread", user.indexOf(pid), is(greaterThanOrEqualTo(0)));
+        if (all.indexOf(2) >= 0 && "kthreadd".equals(all.getName(all.indexOf(2)))) {
+            assertThat("kthreadd should be excluded", user.indexOf(2), is(lessThan(0)));
+        }
+
+        LinuxProcessTable self = LinuxProcessTable.snapshot(ProcessQuery.all().withProcessIDs(pid, Integer.MAX_VALUE)
+                .withUserID(Integer.parseInt(new SystemInfo().getOperatingSystem().getProcess(pid).getUserID())),
+                fields);
+        assertThat("Query should match only the current process", self.size(), is(1));
+        assertThat("Query should match the current process", self.getProcessID(0), is(pid));
+    }
+
+    @Test
+    void testTop() {
+        Set<ProcessField> fields = EnumSet.of(ProcessField.MEMORY);
+        LinuxProcessTable top = LinuxProcessTable.top(ProcessQuery.all(), fields, RankKey.RSS, 3);
+        assertThat("Top table should be bounded", top.size(), is(lessThanOrEqualTo(3)));
+        assertThat("Top table should not be empty", top.size(), is(greaterThan(0)));
+        LinuxProcessTable none = LinuxProcessTable.top(ProcessQuery.all().withProcessIDs(Integer.MAX_VALUE), fields,
+                RankKey.CPU, 3);
+        assertThat("Nonexistent process should be omitted", none.size(), is(0));
+        LinuxProcessTable all = LinuxProcessTable.top(ProcessQuery.all(), fields, RankKey.RSS, Integer.MAX_VALUE);
+        assertThat("Unbounded top table should not be empty", all.size(), is(greaterThan(0)));
+
+        OperatingSystem os = new SystemInfo().getOperatingSystem();
+        List<OSProcess> procs = os.getProcesses(null, ProcessSorting.RSS_DESC, 5);
+        assertThat("Top processes should be limited", procs.size(), is(lessThanOrEqualTo(5)));
+        for (int i = 1; i < procs.size(); i++) {
+            assertThat("Top processes should be sorted", procs.get(i - 1).getResidentSetSize(),
+                    is(greaterThanOrEqualTo(procs.get(i).getResidentSetSize())));
+        }
+        procs = os.getProcesses(null, ProcessSorting.CPU_DESC, 5);
+        assertThat("Top CPU processes should not be empty", procs.isEmpty(), is(false));
+    }
+
+    @Test
+    void testParallelSnapshot() {
+        ProcScanner original = ProcScanner.get();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            ProcScanner.set(ProcScanner.of(executor, 4));
+            int pid = new SystemInfo().getOperatingSystem().getProcessId();
+            LinuxProcessTable table = LinuxProcessTable.snapshot();
+            assertThat("Process table should not be empty", table.size(), is(greaterThan(0)));
+            for (int row = 1; row < table.size(); row++) {
+                assertThat("Rows should be sorted by pid", table.getProcessID(row - 1),
+                        is(lessThan(table.getProcessID(row))));
+            }
+            assertThat("Current process should be in the table", table.indexOf(pid), is(greaterThanOrEqualTo(0)));
+            LinuxProcessTable top = LinuxProcessTable.top(ProcessQuery.all(), EnumSet.of(ProcessField.MEMORY),
+                    RankKey.RSS, 2);
+            assertThat("Top table should be bounded", top.size(), is(lessThanOrEqualTo(2)));
+            top = LinuxProcessTable.top(ProcessQuery.all(), EnumSet.of(ProcessField.MEMORY), RankKey.RSS,
+                    Integer.MAX_VALUE);
+            assertThat("Unbounded top table should not be empty", top.size(), is(greaterThan(0)));
+        } finally {
+            ProcScanner.set(original);
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testSnapshotDuplicatePids() {
+        int pid = new SystemInfo().getOperatingSystem().getProcessId();
+        LinuxProcessTable table = LinuxProcessTable.snapshot(ProcessQuery.all().withProcessIDs(pid, pid),
+                EnumSet.noneOf(ProcessField.class));
+        assertThat("Duplicate process IDs should produce one row", table.size(), is(1));
+    }
+
+    @Test
+    void testSnapshotMissingPid() {
+        LinuxProcessTable table = LinuxProcessTable.snapshot(new int[] { Integer.MAX_VALUE });
+        assertThat("Nonexistent process should be omitted", table.size(), is(0));
+    }
+}
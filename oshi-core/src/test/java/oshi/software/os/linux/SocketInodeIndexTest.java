@@ -0,0 +1,104 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.software.os.linux;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.anyOf;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import oshi.driver.linux.proc.ProcessStat;
+import oshi.jna.platform.linux.LinuxLibc;
+import oshi.software.os.InternetProtocolStats.IPConnection;
+import oshi.util.FileUtil;
+
+@EnabledOnOs(OS.LINUX)
+class SocketInodeIndexTest {
+
+    @Test
+    void testIndex() throws IOException {
+        int pid = LinuxLibc.INSTANCE.getpid();
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            long inode = -1L;
+            for (File fd : ProcessStat.getFileDescriptorFiles(pid)) {
+                inode = Math.max(inode, ProcessStat.parseSocketInode(FileUtil.readSymlinkTarget(fd)));
+            }
+            assertThat("Current process should hold a socket", inode, is(greaterThan(0L)));
+
+            SocketInodeIndex index = new SocketInodeIndex();
+            assertThat("Unrefreshed index should be empty", index.size(), is(0));
+            long asOf = System.nanoTime();
+            assertThat("Lookup should refresh the index", index.getProcessID(inode, asOf), is(pid));
+            assertThat("Index should hold sockets", index.size(), is(greaterThan(0)));
+            assertThat("Indexed owner should be the current process", index.getIndexedProcessID(inode), is(pid));
+            index.refresh();
+            assertThat("Unchanged process should keep its sockets", index.getIndexedProcessID(inode), is(pid));
+            assertThat("Unknown socket should have no owner", index.getProcessID(Long.MAX_VALUE, asOf),
+                    is(-1));
+
+            List<Integer> owners = new LinuxInternetProtocolStats().getConnections().stream()
+                    .filter(c -> c.getLocalPort() == server.getLocalPort()).map(IPConnection::getowningProcessId)
+                    .collect(Collectors.toList());
+            assertThat("Listening socket should be owned by the current process", owners, hasItem(pid));
+        }
+    }
+
+    @Test
+    void testReplacedSocket() throws IOException {
+        int pid = LinuxLibc.INSTANCE.getpid();
+        SocketInodeIndex index = new SocketInodeIndex();
+        long closed;
+        Set<Long> existing = sockets(pid);
+        try (ServerSocket first = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            closed = newestSocket(pid, existing);
+            assertThat("First socket should be indexed", index.getProcessID(closed, System.nanoTime()), is(pid));
+        }
+        Set<Long> before = sockets(pid);
+        // The replacement usually reuses the closed descriptor, leaving the descriptor count unchanged
+        try (ServerSocket second = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            long opened = newestSocket(pid, before);
+            // An unchanged process is not read again, so the replacement may not be found, but is never misattributed
+            assertThat("Replacement socket should not be misattributed", index.getProcessID(opened, System.nanoTime()),
+                    is(anyOf(is(pid), is(-1))));
+            assertThat("Closed socket should not be attributed", index.getProcessID(closed, System.nanoTime()),
+                    is(-1));
+            Set<Long> held = sockets(pid);
+            try (ServerSocket third = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+                long added = newestSocket(pid, held);
+                assertThat("A socket changing the descriptor count should be found",
+                        index.getProcessID(added, System.nanoTime()), is(pid));
+            }
+        }
+    }
+
+    private static Set<Long> sockets(int pid) {
+        Set<Long> inodes = new HashSet<>();
+        for (File fd : ProcessStat.getFileDescriptorFiles(pid)) {
+            long inode = ProcessStat.parseSocketInode(FileUtil.readSymlinkTarget(fd));
+            if (inode > 0) {
+                inodes.add(inode);
+            }
+        }
+        return inodes;
+    }
+
+    private static long newestSocket(int pid, Set<Long> exclude) {
+        return sockets(pid).stream().filter(i -> !exclude.contains(i)).mapToLong(Long::longValue).max().orElse(-1L);
+    }
+}
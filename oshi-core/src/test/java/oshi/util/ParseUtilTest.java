@@ -21,6 +21,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -529,6 +530,18 @@ class ParseUtilTest {
         assertThat(parsed, not(hasItems(6)));
     }
 
+    @Test
+    void testParseHyphenatedIntListToBitSet() {
+        BitSet expected = new BitSet();
+        expected.set(0);
+        expected.set(2, 6);
+        expected.set(64);
+        assertThat(ParseUtil.parseHyphenatedIntListToBitSet("Cpus_allowed_list:\t0,2-5,64", 18), is(expected));
+        assertThat(ParseUtil.parseHyphenatedIntListToBitSet("7", 0).cardinality(), is(1));
+        assertThat(ParseUtil.parseHyphenatedIntListToBitSet("", 0).isEmpty(), is(true));
+        assertThat(ParseUtil.parseHyphenatedIntListToBitSet("0-3,x", 0).cardinality(), is(4));
+    }
+
     @Test
     void testParseMmDdYyyyToYyyyMmDD() {
         assertThat("Unable to parse MM-DD-YYYY date string into YYYY-MM-DD date string",
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.jupiter.api.Test;
+
+class ProcScannerTest {
+
+    @Test
+    void testRanges() {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            ProcScanner scanner = ProcScanner.of(executor, 4);
+            assertThat("Parallelism should match", scanner.getParallelism(), is(4));
+            assertThat("Small scans should not be split", scanner.ranges(10), is(1));
+            assertThat("Large scans should use every thread", scanner.ranges(1000), is(4));
+        } finally {
+            executor.shutdown();
+        }
+        assertThat("One worker should be sequential", ProcScanner.boundedPool(1), is(ProcScanner.callerThread()));
+        assertThrows(IllegalArgumentException.class, () -> ProcScanner.boundedPool(0));
+    }
+
+    @Test
+    void testForEachRange() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            for (ProcScanner scanner : new ProcScanner[] { ProcScanner.callerThread(), ProcScanner.commonPool(),
+                    ProcScanner.of(executor, 3), ProcScanner.of(executor, 16) }) {
+                int size = 1001;
+                AtomicIntegerArray visits = new AtomicIntegerArray(size);
+                scanner.forEachRange(size, (range, from, to) -> {
+                    for (int i = from; i < to; i++) {
+                        visits.incrementAndGet(i);
+                    }
+                });
+                for (int i = 0; i < size; i++) {
+                    assertThat("Every index should be visited once by " + scanner, visits.get(i), is(1));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testForEachRangeException() {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            ProcScanner scanner = ProcScanner.of(executor, 4);
+            assertThrows(IllegalStateException.class, () -> scanner.forEachRange(1000, (range, from, to) -> {
+                if (range == 2) {
+                    throw new IllegalStateException("Test");
+                }
+            }));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testClose() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            ProcScanner.of(executor, 2).close();
+            assertThat("Closing a scanner should not shut down an executor it does not own", executor.isShutdown(),
+                    is(false));
+        } finally {
+            executor.shutdown();
+        }
+        AtomicInteger visits = new AtomicInteger();
+        try (ProcScanner scanner = ProcScanner.boundedPool(4)) {
+            assertThat("Parallelism should match workers", scanner.getParallelism(), is(4));
+            scanner.close();
+            scanner.forEachRange(1000, (range, from, to) -> visits.addAndGet(to - from));
+        }
+        assertThat("A closed scanner should scan on the calling thread", visits.get(), is(1000));
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.util.platform.linux;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.startsWith;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import oshi.SystemInfo;
+import oshi.driver.linux.proc.ProcessStat;
+import oshi.software.os.OSThread;
+import oshi.util.FileUtil;
+
+@EnabledOnOs(OS.LINUX)
+class ProcStatHandleCacheTest {
+
+    @Test
+    void testCachedReads() {
+        int pid = new SystemInfo().getOperatingSystem().getProcessId();
+        int capacity = ProcStatHandleCache.getCapacity();
+        try {
+            ProcStatHandleCache.setCapacity(2);
+            String first = readStat(pid);
+            assertThat("Stat should start with the pid", first, startsWith(pid + " ("));
+            assertThat("Handle should be cached", ProcStatHandleCache.size(), is(1));
+            String second = readStat(pid);
+            assertThat("Re-read should return the same process", second, startsWith(pid + " ("));
+            assertThat("Re-read should match an uncached read up to the name",
+                    FileUtil.getStringFromFile(String.format(ProcPath.PID_STAT, pid)),
+                    startsWith(second.substring(0, second.lastIndexOf(')') + 1)));
+            assertThat("Re-read should include every field", second.trim().split(" ").length,
+                    is(ProcessStat.PROC_PID_STAT_LENGTH));
+            assertThat("Handle should be reused", ProcStatHandleCache.size(), is(1));
+
+            for (OSThread thread : new SystemInfo().getOperatingSystem().getCurrentProcess().getThreadDetails()) {
+                ProcStatHandleCache.readTaskStat(pid, thread.getThreadId(), new byte[ProcessStat.STAT_BUFFER_SIZE]);
+            }
+            assertThat("Cache should be bounded", ProcStatHandleCache.size(), is(lessThanOrEqualTo(2)));
+            assertThat("Nonexistent process should read empty", readStat(Integer.MAX_VALUE),
+                    is(""));
+
+            ProcStatHandleCache.setCapacity(0);
+            assertThat("Disabling should close all handles", ProcStatHandleCache.size(), is(0));
+            assertThat("Disabled cache should read directly", readStat(pid),
+                    startsWith(pid + " ("));
+            assertThat("Disabled cache should not keep handles", ProcStatHandleCache.size(), is(0));
+        } finally {
+            ProcStatHandleCache.clear();
+            ProcStatHandleCache.setCapacity(capacity);
+        }
+    }
+
+    private static String readStat(int pid) {
+        byte[] buf = new byte[ProcessStat.STAT_BUFFER_SIZE];
+        return new String(buf, 0, ProcStatHandleCache.readStat(pid, buf), StandardCharsets.UTF_8);
+    }
+}
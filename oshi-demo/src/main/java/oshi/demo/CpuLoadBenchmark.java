@@ -0,0 +1,66 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.demo;
+
+import java.util.Locale;
+import java.util.Random;
+
+import oshi.SystemInfo;
+import oshi.hardware.CentralProcessor;
+import oshi.hardware.CentralProcessor.TickType;
+
+/**
+ * Measures {@link CentralProcessor#getProcessorCpuLoadBetweenTicks(long[], long[], int, double[])} over synthetic tick
+ * arrays for several processor counts. Intended as a demonstration, not intended to be used in production code.
+ * <p>
+ * The ticks are generated once, so the time reported is that of the load calculation alone, without reading the
+ * operating system's counters. The calculation does not allocate, so the time should scale linearly with the number
+ * of processors.
+ */
+public class CpuLoadBenchmark {
+
+    private static final int[] PROCESSORS = { 8, 128, 512 };
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 200_000;
+
+    /**
+     * Main method
+     *
+     * @param args Optional number of measured iterations
+     */
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : ITERATIONS;
+        CentralProcessor processor = new SystemInfo().getHardware().getProcessor();
+        Random random = new Random(42L);
+        for (int round = 0; round < 2; round++) {
+            boolean report = round > 0;
+            for (int count : PROCESSORS) {
+                long[] oldTicks = new long[count * TickType.values().length];
+                long[] newTicks = new long[oldTicks.length];
+                for (int i = 0; i < oldTicks.length; i++) {
+                    oldTicks[i] = random.nextInt(1_000_000);
+                    newTicks[i] = oldTicks[i] + random.nextInt(1000);
+                }
+                run(processor, oldTicks, newTicks, count, report ? iterations : WARMUP, report);
+            }
+        }
+    }
+
+    private static void run(CentralProcessor processor, long[] oldTicks, long[] newTicks, int count, int iterations,
+            boolean report) {
+        double[] load = new double[count];
+        double check = 0d;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            processor.getProcessorCpuLoadBetweenTicks(oldTicks, newTicks, count, load);
+            check += load[i % count];
+        }
+        double nanos = (double) (System.nanoTime() - start) / iterations;
+        if (report) {
+            System.out.println(String.format(Locale.ROOT, "%3d processors: %10.1f ns per call, %6.2f ns per processor "
+                    + "(check %.3f)", count, nanos, nanos / count, check / iterations));
+        }
+    }
+}
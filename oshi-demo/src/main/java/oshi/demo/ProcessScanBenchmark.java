@@ -0,0 +1,72 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.demo;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.jna.Platform;
+
+import oshi.SystemInfo;
+import oshi.software.os.OperatingSystem;
+import oshi.util.ProcScanner;
+
+/**
+ * Measures how process enumeration on Linux scales with the number of {@link ProcScanner} workers. Intended as a
+ * demonstration, not intended to be used in production code.
+ * <p>
+ * For each worker count, the full process list is collected several times after a warmup and the mean time is
+ * reported. Results depend heavily on the number of processes and on how much of {@code /proc} the kernel must
+ * generate for each read.
+ */
+public class ProcessScanBenchmark {
+
+    private static final int[] WORKERS = { 1, 4, 16 };
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 20;
+
+    /**
+     * Main method
+     *
+     * @param args Optional number of measured iterations
+     */
+    public static void main(String[] args) {
+        if (!Platform.isLinux()) {
+            System.out.println("This benchmark requires Linux.");
+            return;
+        }
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : ITERATIONS;
+        OperatingSystem os = new SystemInfo().getOperatingSystem();
+        ProcScanner original = ProcScanner.get();
+        for (int workers : WORKERS) {
+            // The calling thread processes one range, so the pool needs one thread fewer than the workers
+            ExecutorService pool = workers > 1 ? Executors.newFixedThreadPool(workers - 1) : null;
+            try {
+                ProcScanner.set(pool == null ? ProcScanner.callerThread() : ProcScanner.of(pool, workers));
+                run(os, workers, iterations);
+            } finally {
+                ProcScanner.set(original);
+                if (pool != null) {
+                    pool.shutdown();
+                }
+            }
+        }
+    }
+
+    private static void run(OperatingSystem os, int workers, int iterations) {
+        int count = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            count = os.getProcesses(null, null, 0).size();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            count = os.getProcesses(null, null, 0).size();
+        }
+        double meanMillis = (System.nanoTime() - start) / 1e6 / iterations;
+        System.out.println(String.format(Locale.ROOT, "%2d workers: %8.2f ms per scan of %d processes", workers,
+                meanMillis, count));
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2023 The OSHI Project Contributors
+ * SPDX-License-Identifier: MIT
+ */
+package oshi.demo;
+
+import java.util.Locale;
+
+import com.sun.jna.Platform;
+
+import oshi.driver.linux.proc.ProcessStat;
+import oshi.driver.linux.proc.ProcessStat.PidStat;
+import oshi.util.FileUtil;
+import oshi.util.ParseUtil;
+import oshi.util.platform.linux.ProcPath;
+
+/**
+ * Compares reading and parsing {@code /proc/self/stat} as a string with the byte-level parser in {@link ProcessStat}.
+ * Intended as a demonstration, not intended to be used in production code.
+ * <p>
+ * Each variant reads the file the same number of times after a warmup, so the difference is dominated by parsing
+ * and allocation rather than the kernel generating the file.
+ */
+public class StatParseBenchmark {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    // Every field after the pid, name and state, so both variants parse the whole line
+    private static final int[] STAT_FIELDS = new int[ProcessStat.PROC_PID_STAT_LENGTH - PidStat.PPID.ordinal()];
+    static {
+        for (int i = 0; i < STAT_FIELDS.length; i++) {
+            STAT_FIELDS[i] = PidStat.PPID.ordinal() + i;
+        }
+    }
+
+    /**
+     * Main method
+     *
+     * @param args Optional number of measured iterations
+     */
+    public static void main(String[] args) {
+        if (!Platform.isLinux()) {
+            System.out.println("This benchmark requires Linux.");
+            return;
+        }
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : ITERATIONS;
+        for (int round = 0; round < 2; round++) {
+            boolean report = round > 0;
+            run("String   ", StatParseBenchmark::parseString, report ? iterations : WARMUP, report);
+            run("byte[]   ", StatParseBenchmark::parseBytes, report ? iterations : WARMUP, report);
+        }
+    }
+
+    private static long parseString() {
+        String stat = FileUtil.getStringFromFile(ProcPath.SELF_STAT);
+        long[] statArray = ParseUtil.parseStringToLongArray(stat, STAT_FIELDS, ProcessStat.PROC_PID_STAT_LENGTH, ' ');
+        return statArray[PidStat.STARTTIME.ordinal() - PidStat.PPID.ordinal()];
+    }
+
+    private static long parseBytes() {
+        ProcessStat.StatBuffer sb = ProcessStat.getStatBuffer();
+        byte[] buf = sb.getBytes();
+        long[] fields = sb.getFields();
+        ProcessStat.parseStat(buf, ProcessStat.readStat(ProcPath.SELF_STAT, buf), fields);
+        return fields[PidStat.STARTTIME.ordinal()];
+    }
+
+    private static void run(String label, Variant variant, int iterations, boolean report) {
+        long check = 0L;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            check += variant.parse();
+        }
+        double micros = (System.nanoTime() - start) / 1e3 / iterations;
+        if (report) {
+            System.out.println(String.format(Locale.ROOT, "%s %8.3f us per read and parse (check %d)", label, micros,
+                    check / iterations));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Variant {
+        long parse();
+    }
+}